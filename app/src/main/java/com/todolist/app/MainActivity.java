@@ -1,50 +1,111 @@
 package com.todolist.app;
 
+import android.content.BroadcastReceiver;
+import android.content.Context;
 import android.content.Intent;
+import android.content.IntentFilter;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.Gravity;
 import android.view.View;
 import android.widget.*;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 import com.todolist.app.activities.CalendarHistoryActivity;
 import com.todolist.app.activities.CharacterShopActivity;
 import com.todolist.app.managers.GameManager;
 import com.todolist.app.managers.TaskManager;
 import com.todolist.app.managers.ReminderManager;
+import com.todolist.app.managers.TaskStore;
 import com.todolist.app.models.Character;
+import com.todolist.app.models.EconomyEvent;
 import com.todolist.app.models.TaskItem;
+import com.todolist.app.ui.TaskListAdapter;
 import com.todolist.app.ui.UIStyleHelper;
+import com.todolist.app.ui.UrgentTaskAdapter;
 import com.todolist.app.ui.TimeReminderDialog;
-import java.text.SimpleDateFormat;
+import com.todolist.app.utils.EpochDays;
+import com.todolist.app.utils.TimeLabels;
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.Locale;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class MainActivity extends AppCompatActivity {
+    // Most quests listed for a search
+    private static final int SEARCH_LIMIT = 200;
+
     private GameManager gameManager;
     private TaskManager taskManager;
     private ReminderManager reminderManager;
-    private final ArrayList<TaskItem> currentTasks = new ArrayList<>();
+    private final TaskStore currentTasks = new TaskStore();
 
     // UI Components
-    private LinearLayout todocontainer;
+    private RecyclerView taskList;
+    private TaskListAdapter taskAdapter;
     private EditText todoedittext;
+    // Narrows the active quests to those matching it; empty shows them all
+    private String searchQuery = "";
+    // Runs searches off the main thread; only the latest one is shown
+    private ExecutorService searchExecutor;
+    private int searchGeneration;
     private TextView coinsDisplay;
     private TextView characterStatus;
     private Spinner taskTypeSpinner;
-    private ScrollView mainScrollView;
-    private LinearLayout urgentTasksContainer;
+    private RecyclerView urgentList;
+    private UrgentTaskAdapter urgentAdapter;
+
+    // Keeps precomputed task days in step with the device time zone
+    private final BroadcastReceiver timeZoneReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            EpochDays.onTimeZoneChanged();
+        }
+    };
+
+    // Relabels due times on screen once per wall-clock minute while in the foreground
+    private final Handler labelHandler = new Handler(Looper.getMainLooper());
+    private final Runnable minuteTick = new Runnable() {
+        @Override
+        public void run() {
+            taskAdapter.refreshTimeLabels();
+            urgentAdapter.refreshTimeLabels();
+            labelHandler.postDelayed(this, TimeLabels.millisUntilNextMinute(System.currentTimeMillis()));
+        }
+    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
 
+        searchExecutor = Executors.newSingleThreadExecutor();
+
         // Initialize managers
         gameManager = GameManager.getInstance();
+        gameManager.initialize(getFilesDir());
         taskManager = TaskManager.getInstance();
+        taskManager.initialize(getFilesDir());
         reminderManager = ReminderManager.getInstance();
         reminderManager.initialize(this);
+        ContextCompat.registerReceiver(this, timeZoneReceiver,
+            new IntentFilter(Intent.ACTION_TIMEZONE_CHANGED), ContextCompat.RECEIVER_NOT_EXPORTED);
+
+        // Restore quests that survived a previous process; their reminders are
+        // re-armed by ReminderManager from the persisted queue
+        for (TaskItem task : taskManager.getAllTasks()) {
+            if (task.getStatus() == TaskItem.TaskStatus.PENDING) {
+                currentTasks.put(task);
+            }
+        }
 
         createHabiticaStyleUI();
 
@@ -106,6 +167,7 @@ public class MainActivity extends AppCompatActivity {
         coinsDisplay.setTextSize(16);
         coinsDisplay.setTextColor(UIStyleHelper.Colors.WHITE);
         coinsDisplay.setTypeface(null, android.graphics.Typeface.BOLD);
+        coinsDisplay.setOnClickListener(v -> showCoinHistory());
 
         // Character status
         characterStatus = new TextView(this);
@@ -124,10 +186,19 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void createUrgentTasksSection(LinearLayout parent) {
-        urgentTasksContainer = new LinearLayout(this);
-        urgentTasksContainer.setOrientation(LinearLayout.VERTICAL);
-        urgentTasksContainer.setPadding(16, 8, 16, 8);
-        parent.addView(urgentTasksContainer);
+        urgentAdapter = new UrgentTaskAdapter(task -> {
+            completeTask(task);
+            showUrgentTasks(); // Refresh urgent tasks
+        });
+
+        urgentList = new RecyclerView(this);
+        urgentList.setLayoutManager(new LinearLayoutManager(this));
+        urgentList.setPadding(16, 8, 16, 8);
+        urgentList.setAdapter(urgentAdapter);
+        urgentList.setLayoutParams(new LinearLayout.LayoutParams(
+            LinearLayout.LayoutParams.MATCH_PARENT, LinearLayout.LayoutParams.WRAP_CONTENT
+        ));
+        parent.addView(urgentList);
     }
 
     private void createNavigationSection(LinearLayout parent) {
@@ -335,8 +406,7 @@ public class MainActivity extends AppCompatActivity {
                 @Override
                 public void onDueDateSet(Date dueDate) {
                     newTask.setDueDate(dueDate);
-                    SimpleDateFormat df = new SimpleDateFormat("MMM dd, HH:mm", Locale.getDefault());
-                    dueDateButton.setText("📅 Due: " + df.format(dueDate));
+                    dueDateButton.setText("📅 Due: " + TimeLabels.dateTime(dueDate.getTime()));
                 }
                 @Override
                 public void onReminderSet(Date reminderTime) {}
@@ -357,8 +427,7 @@ public class MainActivity extends AppCompatActivity {
                 public void onReminderSet(Date reminderTime) {
                     newTask.setReminderTime(reminderTime);
                     newTask.setHasReminder(true);
-                    SimpleDateFormat df = new SimpleDateFormat("MMM dd, HH:mm", Locale.getDefault());
-                    reminderButton.setText("🔔 Remind: " + df.format(reminderTime));
+                    reminderButton.setText("🔔 Remind: " + TimeLabels.dateTime(reminderTime.getTime()));
                 }
                 @Override
                 public void onPrioritySet(TaskItem.Priority priority) {}
@@ -398,17 +467,62 @@ public class MainActivity extends AppCompatActivity {
         headerSection.addView(activeQuestsTitle);
         headerSection.addView(questCount);
 
-        mainScrollView = new ScrollView(this);
-        mainScrollView.setFillViewport(true);
+        // Matches the start of words in quest titles and descriptions as the user types
+        EditText searchInput = new EditText(this);
+        searchInput.setHint("🔍 Search quests...");
+        searchInput.setTextSize(14);
+        searchInput.setSingleLine(true);
+        searchInput.setPadding(20, 12, 20, 12);
+        searchInput.setBackgroundDrawable(UIStyleHelper.createStrokedBackground(
+            UIStyleHelper.Colors.WHITE, UIStyleHelper.Colors.PRIMARY_BLUE, 1, 12
+        ));
+        LinearLayout.LayoutParams searchParams = new LinearLayout.LayoutParams(
+            LinearLayout.LayoutParams.MATCH_PARENT, LinearLayout.LayoutParams.WRAP_CONTENT);
+        searchParams.setMargins(20, 0, 20, 8);
+        searchInput.setLayoutParams(searchParams);
+        searchInput.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {}
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                searchQuery = s.toString().trim();
+                refreshTaskList();
+            }
+        });
+
+        // Only the cards on screen are inflated; the rest are rebound as they scroll in
+        taskAdapter = new TaskListAdapter(new TaskListAdapter.TaskActionListener() {
+            @Override
+            public void onComplete(TaskItem task) {
+                completeTask(task);
+            }
+
+            @Override
+            public void onFail(TaskItem task) {
+                failTask(task);
+            }
 
-        todocontainer = new LinearLayout(this);
-        todocontainer.setOrientation(LinearLayout.VERTICAL);
-        todocontainer.setPadding(8, 8, 8, 8);
+            @Override
+            public void onDelete(TaskItem task) {
+                deleteTask(task);
+            }
+        });
 
-        mainScrollView.addView(todocontainer);
+        taskList = new RecyclerView(this);
+        taskList.setLayoutManager(new LinearLayoutManager(this));
+        taskList.setHasFixedSize(true);
+        taskList.setPadding(8, 8, 8, 8);
+        taskList.setClipToPadding(false);
+        taskList.setAdapter(taskAdapter);
+        taskList.setLayoutParams(new LinearLayout.LayoutParams(LinearLayout.LayoutParams.MATCH_PARENT, 0, 1));
 
         parent.addView(headerSection);
-        parent.addView(mainScrollView);
+        parent.addView(searchInput);
+        parent.addView(taskList);
     }
 
     private void updateTaskHint() {
@@ -426,15 +540,15 @@ public class MainActivity extends AppCompatActivity {
         TaskItem.TaskType type = getSelectedTaskType();
         TaskItem newTask = new TaskItem(taskText, type);
 
-        currentTasks.add(newTask);
+        currentTasks.put(newTask);
         taskManager.addTask(newTask);
 
-        addTaskToUI(newTask);
+        refreshTaskList();
         updateQuestCount();
     }
 
     private void addTaskWithReminder(TaskItem task) {
-        currentTasks.add(task);
+        currentTasks.put(task);
         taskManager.addTask(task);
 
         // Schedule reminder if set
@@ -442,74 +556,30 @@ public class MainActivity extends AppCompatActivity {
             reminderManager.scheduleReminder(task);
         }
 
-        addTaskToUI(task);
+        refreshTaskList();
         updateQuestCount();
         showUrgentTasks(); // Refresh urgent tasks
     }
 
     private void showUrgentTasks() {
-        urgentTasksContainer.removeAllViews();
+        List<TaskItem> urgent = new ArrayList<>();
+        Set<Long> listed = new HashSet<>();
 
         // Show overdue tasks
         for (TaskItem task : reminderManager.getOverdueTasks()) {
-            createUrgentTaskCard(task, true);
+            if (listed.add(task.getId())) {
+                urgent.add(task);
+            }
         }
 
         // Show upcoming urgent tasks (next 4 hours)
         for (TaskItem task : reminderManager.getUpcomingTasks(4)) {
-            if (task.isUrgent()) {
-                createUrgentTaskCard(task, false);
+            if (task.isUrgent() && listed.add(task.getId())) {
+                urgent.add(task);
             }
         }
-    }
-
-    private void createUrgentTaskCard(TaskItem task, boolean isOverdue) {
-        LinearLayout urgentCard = new LinearLayout(this);
-        urgentCard.setOrientation(LinearLayout.HORIZONTAL);
-        urgentCard.setPadding(16, 12, 16, 12);
-
-        if (isOverdue) {
-            UIStyleHelper.styleOverdueCard(urgentCard);
-        } else {
-            UIStyleHelper.styleUrgentCard(urgentCard);
-        }
 
-        TextView urgentIcon = new TextView(this);
-        urgentIcon.setText(isOverdue ? "🚨" : "⚠️");
-        urgentIcon.setTextSize(20);
-        urgentIcon.setPadding(0, 0, 12, 0);
-
-        TextView urgentText = new TextView(this);
-        String message = (isOverdue ? "OVERDUE: " : "URGENT: ") + task.getTitle();
-        if (task.getDueDate() != null) {
-            message += " (" + task.getTimeUntilDue() + ")";
-        }
-        urgentText.setText(message);
-        urgentText.setTextSize(14);
-        urgentText.setTextColor(isOverdue ? UIStyleHelper.Colors.DANGER_RED : UIStyleHelper.Colors.WARNING_ORANGE);
-        urgentText.setTypeface(null, android.graphics.Typeface.BOLD);
-        urgentText.setLayoutParams(new LinearLayout.LayoutParams(0, LinearLayout.LayoutParams.WRAP_CONTENT, 1));
-
-        Button quickCompleteButton = new Button(this);
-        quickCompleteButton.setText("✅");
-        quickCompleteButton.setPadding(8, 8, 8, 8);
-        UIStyleHelper.styleSuccessButton(quickCompleteButton);
-        quickCompleteButton.setOnClickListener(v -> {
-            completeTask(task, urgentCard);
-            showUrgentTasks(); // Refresh urgent tasks
-        });
-
-        urgentCard.addView(urgentIcon);
-        urgentCard.addView(urgentText);
-        urgentCard.addView(quickCompleteButton);
-
-        LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(
-            LinearLayout.LayoutParams.MATCH_PARENT, LinearLayout.LayoutParams.WRAP_CONTENT
-        );
-        params.setMargins(0, 4, 0, 4);
-        urgentCard.setLayoutParams(params);
-
-        urgentTasksContainer.addView(urgentCard);
+        urgentAdapter.submitTasks(urgent);
     }
 
     private TaskItem.TaskType getSelectedTaskType() {
@@ -523,166 +593,7 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
-    private void addTaskToUI(TaskItem task) {
-        int typeColor = getTaskTypeColor(task.getType());
-
-        LinearLayout taskCard = new LinearLayout(this);
-        taskCard.setOrientation(LinearLayout.VERTICAL);
-        UIStyleHelper.styleTaskCard(taskCard, typeColor);
-
-        // Apply special styling for urgent/overdue tasks
-        if (task.isOverdue()) {
-            UIStyleHelper.styleOverdueCard(taskCard);
-        } else if (task.isUrgent()) {
-            UIStyleHelper.styleUrgentCard(taskCard);
-        }
-
-        // Task header with emoji, title and reward
-        LinearLayout headerLayout = new LinearLayout(this);
-        headerLayout.setOrientation(LinearLayout.HORIZONTAL);
-        headerLayout.setGravity(Gravity.CENTER_VERTICAL);
-
-        TextView taskIcon = new TextView(this);
-        taskIcon.setText(getTaskTypeEmoji(task.getType()));
-        taskIcon.setTextSize(20);
-        taskIcon.setPadding(0, 0, 12, 0);
-
-        TextView taskTitle = new TextView(this);
-        taskTitle.setText(task.getTitle());
-        taskTitle.setTextSize(18);
-        taskTitle.setTextColor(UIStyleHelper.Colors.DARK_GRAY);
-        taskTitle.setTypeface(null, android.graphics.Typeface.BOLD);
-        taskTitle.setLayoutParams(new LinearLayout.LayoutParams(0, LinearLayout.LayoutParams.WRAP_CONTENT, 1));
-
-        TextView rewardBadge = new TextView(this);
-        rewardBadge.setText("💰 +" + task.getCoinReward());
-        rewardBadge.setTextSize(14);
-        rewardBadge.setTextColor(UIStyleHelper.Colors.GOLD);
-        rewardBadge.setTypeface(null, android.graphics.Typeface.BOLD);
-        rewardBadge.setBackground(UIStyleHelper.createRoundedBackground(
-            UIStyleHelper.adjustColorAlpha(UIStyleHelper.Colors.GOLD, 0.2f), 12
-        ));
-        rewardBadge.setPadding(12, 6, 12, 6);
-
-        headerLayout.addView(taskIcon);
-        headerLayout.addView(taskTitle);
-        headerLayout.addView(rewardBadge);
-
-        // Task info section with time and priority
-        LinearLayout infoLayout = new LinearLayout(this);
-        infoLayout.setOrientation(LinearLayout.HORIZONTAL);
-        infoLayout.setPadding(32, 8, 0, 8);
-
-        TextView taskInfo = new TextView(this);
-        String typeText = task.getType().toString().replace("_", " ");
-        taskInfo.setText("🎯 " + typeText + " • Penalty: -" + task.getCoinPenalty() + " coins");
-        taskInfo.setTextSize(12);
-        taskInfo.setTextColor(UIStyleHelper.Colors.DARK_GRAY);
-        taskInfo.setLayoutParams(new LinearLayout.LayoutParams(0, LinearLayout.LayoutParams.WRAP_CONTENT, 1));
-
-        // Priority badge
-        TextView priorityBadge = new TextView(this);
-        UIStyleHelper.stylePriorityBadge(priorityBadge, task.getPriority());
-
-        infoLayout.addView(taskInfo);
-        infoLayout.addView(priorityBadge);
-
-        // Time information
-        if (task.getDueDate() != null || task.hasReminder()) {
-            LinearLayout timeLayout = new LinearLayout(this);
-            timeLayout.setOrientation(LinearLayout.HORIZONTAL);
-            timeLayout.setPadding(32, 4, 0, 8);
-
-            if (task.getDueDate() != null) {
-                TextView dueTimeText = new TextView(this);
-                String timeText = "📅 Due: " + task.getTimeUntilDue();
-                UIStyleHelper.styleTimeDisplay(dueTimeText, timeText, task.isUrgent());
-                timeLayout.addView(dueTimeText);
-
-                if (task.hasReminder()) {
-                    View spacing = new View(this);
-                    spacing.setLayoutParams(new LinearLayout.LayoutParams(8, LinearLayout.LayoutParams.MATCH_PARENT));
-                    timeLayout.addView(spacing);
-                }
-            }
-
-            if (task.hasReminder()) {
-                TextView reminderText = new TextView(this);
-                SimpleDateFormat df = new SimpleDateFormat("MMM dd, HH:mm", Locale.getDefault());
-                String reminderTimeText = "🔔 " + df.format(task.getReminderTime());
-                UIStyleHelper.styleTimeDisplay(reminderText, reminderTimeText, false);
-                timeLayout.addView(reminderText);
-            }
-
-            taskCard.addView(timeLayout);
-        }
-
-        // Action buttons with improved styling
-        LinearLayout buttonLayout = new LinearLayout(this);
-        buttonLayout.setOrientation(LinearLayout.HORIZONTAL);
-        buttonLayout.setPadding(0, 8, 0, 0);
-
-        Button completeButton = new Button(this);
-        completeButton.setText("✅ Complete");
-        completeButton.setLayoutParams(new LinearLayout.LayoutParams(0, LinearLayout.LayoutParams.WRAP_CONTENT, 1));
-        UIStyleHelper.styleSuccessButton(completeButton);
-        completeButton.setOnClickListener(v -> completeTask(task, taskCard));
-
-        Button failButton = new Button(this);
-        failButton.setText("❌ Fail");
-        failButton.setLayoutParams(new LinearLayout.LayoutParams(0, LinearLayout.LayoutParams.WRAP_CONTENT, 1));
-        UIStyleHelper.styleDangerButton(failButton);
-        failButton.setOnClickListener(v -> failTask(task, taskCard));
-
-        Button deleteButton = new Button(this);
-        deleteButton.setText("🗑️ Delete");
-        deleteButton.setLayoutParams(new LinearLayout.LayoutParams(0, LinearLayout.LayoutParams.WRAP_CONTENT, 1));
-        UIStyleHelper.styleWarningButton(deleteButton);
-        deleteButton.setOnClickListener(v -> deleteTask(task, taskCard));
-
-        // Add spacing between buttons
-        View spacing1 = new View(this);
-        spacing1.setLayoutParams(new LinearLayout.LayoutParams(8, LinearLayout.LayoutParams.MATCH_PARENT));
-        View spacing2 = new View(this);
-        spacing2.setLayoutParams(new LinearLayout.LayoutParams(8, LinearLayout.LayoutParams.MATCH_PARENT));
-
-        buttonLayout.addView(completeButton);
-        buttonLayout.addView(spacing1);
-        buttonLayout.addView(failButton);
-        buttonLayout.addView(spacing2);
-        buttonLayout.addView(deleteButton);
-
-        taskCard.addView(headerLayout);
-        taskCard.addView(infoLayout);
-        taskCard.addView(buttonLayout);
-
-        // Add ripple effect
-        UIStyleHelper.addRippleEffect(taskCard);
-
-        todocontainer.addView(taskCard);
-    }
-
-    private int getTaskTypeColor(TaskItem.TaskType type) {
-        switch (type) {
-            case TODO: return UIStyleHelper.Colors.TODO_COLOR;
-            case HABIT: return UIStyleHelper.Colors.HABIT_COLOR;
-            case PLANNING: return UIStyleHelper.Colors.PLANNING_COLOR;
-            case DAILY_ACTIVITY: return UIStyleHelper.Colors.DAILY_COLOR;
-            default: return UIStyleHelper.Colors.PRIMARY_BLUE;
-        }
-    }
-
-    private String getTaskTypeEmoji(TaskItem.TaskType type) {
-        switch (type) {
-            case TODO: return "📝";
-            case HABIT: return "🔄";
-            case PLANNING: return "📋";
-            case DAILY_ACTIVITY: return "⭐";
-            default: return "📋";
-        }
-    }
-
-    private void completeTask(TaskItem task, LinearLayout taskLayout) {
+    private void completeTask(TaskItem task) {
         if (gameManager.completeTask(task)) {
             // Cancel reminder
             reminderManager.cancelReminder(task.getId());
@@ -700,14 +611,38 @@ public class MainActivity extends AppCompatActivity {
                 }
             }
 
-            removeTaskFromUI(task, taskLayout);
+            removeTaskFromUI(task);
             updateGameStatus();
             updateQuestCount();
             showUrgentTasks(); // Refresh urgent tasks
         }
     }
 
-    private void failTask(TaskItem task, LinearLayout taskLayout) {
+    private void showCoinHistory() {
+        List<EconomyEvent> history = gameManager.getCoinHistory(50);
+        StringBuilder message = new StringBuilder();
+        if (history.isEmpty()) {
+            message.append("No coin activity yet.");
+        }
+
+        for (EconomyEvent event : history) {
+            int delta = event.getCoinDelta();
+            message.append(delta > 0 ? "+" : "").append(delta).append(" 🪙  ");
+            if (event.getReference() != null) {
+                message.append(event.getReference());
+            }
+            message.append("\n").append(TimeLabels.dateTime(event.getTimestamp()))
+                .append(" · balance ").append(event.getBalanceAfter()).append("\n\n");
+        }
+
+        new AlertDialog.Builder(this)
+            .setTitle("💰 Coin History")
+            .setMessage(message.toString().trim())
+            .setPositiveButton("Close", null)
+            .show();
+    }
+
+    private void failTask(TaskItem task) {
         new AlertDialog.Builder(this)
             .setTitle("💀 Fail Quest")
             .setMessage("Are you sure you want to fail this quest? You will lose " + task.getCoinPenalty() + " coins and your character might be in danger!")
@@ -726,7 +661,7 @@ public class MainActivity extends AppCompatActivity {
                     showErrorMessage("☠️ " + getString(R.string.character_dead));
                 }
 
-                removeTaskFromUI(task, taskLayout);
+                removeTaskFromUI(task);
                 updateGameStatus();
                 updateQuestCount();
                 showUrgentTasks(); // Refresh urgent tasks
@@ -735,7 +670,7 @@ public class MainActivity extends AppCompatActivity {
             .show();
     }
 
-    private void deleteTask(TaskItem task, LinearLayout taskLayout) {
+    private void deleteTask(TaskItem task) {
         new AlertDialog.Builder(this)
             .setTitle("🗑️ Delete Quest")
             .setMessage("Are you sure you want to delete this quest? This action cannot be undone.")
@@ -743,7 +678,7 @@ public class MainActivity extends AppCompatActivity {
                 // Cancel reminder
                 reminderManager.cancelReminder(task.getId());
 
-                removeTaskFromUI(task, taskLayout);
+                removeTaskFromUI(task);
                 updateQuestCount();
                 showUrgentTasks(); // Refresh urgent tasks
             })
@@ -751,20 +686,43 @@ public class MainActivity extends AppCompatActivity {
             .show();
     }
 
-    private void removeTaskFromUI(TaskItem task, LinearLayout taskLayout) {
-        currentTasks.remove(task);
+    private void removeTaskFromUI(TaskItem task) {
+        currentTasks.remove(task.getId());
         taskManager.removeTask(task);
-        todocontainer.removeView(taskLayout);
+        TimeLabels.forget(task.getId());
+        refreshTaskList();
     }
 
     private void loadCurrentTasks() {
-        todocontainer.removeAllViews();
-        for (TaskItem task : currentTasks) {
-            if (task.getStatus() == TaskItem.TaskStatus.PENDING) {
-                addTaskToUI(task);
+        refreshTaskList();
+        updateQuestCount();
+    }
+
+    // Submits the pending quests, best search matches first while searching; the
+    // adapter works out which cards changed. Matches are looked up on the search
+    // thread, and a search overtaken by a later keystroke is never shown.
+    private void refreshTaskList() {
+        int generation = ++searchGeneration;
+        if (searchQuery.isEmpty()) {
+            List<TaskItem> pending = new ArrayList<>();
+            for (TaskItem task : currentTasks) {
+                if (task.getStatus() == TaskItem.TaskStatus.PENDING) {
+                    pending.add(task);
+                }
             }
+            taskAdapter.submitTasks(pending);
+            return;
         }
-        updateQuestCount();
+
+        String query = searchQuery;
+        searchExecutor.execute(() -> {
+            List<TaskItem> matches = taskManager.searchPending(query, SEARCH_LIMIT);
+            runOnUiThread(() -> {
+                if (generation == searchGeneration && !isFinishing()) {
+                    taskAdapter.submitTasks(matches);
+                }
+            });
+        });
     }
 
     private void updateGameStatus() {
@@ -809,11 +767,23 @@ public class MainActivity extends AppCompatActivity {
         super.onResume();
         updateGameStatus(); // Update when returning from other activities
         showUrgentTasks(); // Refresh urgent tasks when returning
+
+        // Labels may have aged while paused; relabel now, then on each minute
+        labelHandler.removeCallbacks(minuteTick);
+        minuteTick.run();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        labelHandler.removeCallbacks(minuteTick);
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        unregisterReceiver(timeZoneReceiver);
+        searchExecutor.shutdownNow();
         if (reminderManager != null) {
             reminderManager.shutdown();
         }
@@ -1,27 +1,56 @@
 package com.todolist.app.activities;
 
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.Gravity;
 import android.view.View;
 import android.widget.*;
 import androidx.appcompat.app.AppCompatActivity;
 import com.todolist.app.R;
+import com.todolist.app.managers.DayStats;
 import com.todolist.app.managers.TaskManager;
 import com.todolist.app.models.TaskItem;
+import com.todolist.app.ui.HistoryDay;
+import com.todolist.app.ui.HistoryDayCache;
 import com.todolist.app.ui.UIStyleHelper;
+import com.todolist.app.utils.EpochDays;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class CalendarHistoryActivity extends AppCompatActivity {
+    // Days prepared ahead on each side of the one shown
+    private static final int PREFETCH_DAYS = 3;
+
     private TaskManager taskManager;
     private TextView selectedDateText;
     private LinearLayout tasksContainer;
     private Calendar selectedDate;
     private SimpleDateFormat dateFormat;
     private TextView statsDisplay;
+    private ExecutorService historyExecutor;
+    private HistoryDayCache historyCache;
+    private HistoryDay displayedDay;
+
+    // Listener callbacks arrive on the main thread, where the cache lives
+    private final TaskManager.TaskListener taskListener = new TaskManager.TaskListener() {
+        @Override
+        public void onTaskChanged(TaskItem task) {
+            historyCache.onTaskChanged(task);
+            // Counters of neighbouring days feed the weekly total even when this day's list is unchanged
+            updateStatsDisplay(taskManager.getDayStats(selectedDate.getTime()));
+        }
+
+        @Override
+        public void onTaskRemoved(TaskItem task) {
+            onTaskChanged(task);
+        }
+    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -31,10 +60,37 @@ public class CalendarHistoryActivity extends AppCompatActivity {
         selectedDate = Calendar.getInstance();
         dateFormat = new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault());
 
+        historyExecutor = Executors.newSingleThreadExecutor();
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        historyCache = new HistoryDayCache(this::prepareDay, historyExecutor, mainHandler::post, PREFETCH_DAYS);
+        historyCache.setListener(day -> {
+            // A day that was evicted by a task change came back; redraw it if it is on screen
+            if (displayedDay != null && day.getDay() == displayedDay.getDay() && !isFinishing()) {
+                showDay(day);
+            }
+        });
+        taskManager.addTaskListener(taskListener);
+
         createBeautifulCalendarUI();
         loadTasksForSelectedDate();
     }
 
+    @Override
+    protected void onDestroy() {
+        taskManager.removeTaskListener(taskListener);
+        historyExecutor.shutdownNow();
+        super.onDestroy();
+    }
+
+    // Runs on the history executor; the TaskManager day lookups are thread-safe
+    private HistoryDay prepareDay(long day) {
+        Date date = new Date(EpochDays.toMillis(day, 0));
+        List<TaskItem> scheduled = taskManager.getTasksByDate(date);
+        // Habits and daily activities due to repeat on this day; not counted in the stats
+        List<TaskItem> occurrences = taskManager.getOccurrencesOn(date);
+        return HistoryDay.of(day, scheduled, occurrences);
+    }
+
     private void createBeautifulCalendarUI() {
         // Main container with background
         LinearLayout mainContainer = new LinearLayout(this);
@@ -250,39 +306,45 @@ public class CalendarHistoryActivity extends AppCompatActivity {
         selectedDateText.setText(dateFormat.format(selectedDate.getTime()));
     }
 
+    // Neighbouring days are normally prepared already; only a cold day is loaded here
     private void loadTasksForSelectedDate() {
-        tasksContainer.removeAllViews();
+        showDay(historyCache.show(EpochDays.of(selectedDate.getTime())));
+    }
 
-        Date date = selectedDate.getTime();
-        List<TaskItem> tasksForDate = taskManager.getTasksByDate(date);
-        List<TaskItem> completedTasks = taskManager.getCompletedTasksByDate(date);
+    private void showDay(HistoryDay day) {
+        displayedDay = day;
+        tasksContainer.removeAllViews();
 
+        DayStats stats = taskManager.getDayStats(selectedDate.getTime());
         // Update stats display
-        updateStatsDisplay(tasksForDate, completedTasks);
+        updateStatsDisplay(stats);
 
-        if (tasksForDate.isEmpty() && completedTasks.isEmpty()) {
+        if (day.getRows().isEmpty() && stats.getCompleted() == 0) {
             createEmptyStateView();
             return;
         }
 
         // Show all tasks for this date
-        for (TaskItem task : tasksForDate) {
-            createTaskHistoryCard(task);
+        for (HistoryDay.Row row : day.getRows()) {
+            createTaskHistoryCard(row);
         }
     }
 
-    private void updateStatsDisplay(List<TaskItem> allTasks, List<TaskItem> completedTasks) {
-        int totalTasks = allTasks.size();
-        int completedCount = completedTasks.size();
-
-        if (totalTasks == 0) {
+    // Counters come precomputed from TaskManager, so this never walks the day's quests
+    private void updateStatsDisplay(DayStats day) {
+        if (day.getTotal() == 0) {
             statsDisplay.setText("📊 No quests recorded for this date");
             statsDisplay.setTextColor(UIStyleHelper.Colors.DARK_GRAY);
         } else {
-            double successRate = (completedCount * 100.0 / totalTasks);
+            double successRate = day.getSuccessRate();
+            Calendar weekStart = (Calendar) selectedDate.clone();
+            weekStart.add(Calendar.DAY_OF_MONTH, -6);
+            DayStats week = taskManager.getDayStats(weekStart.getTime(), selectedDate.getTime());
             String stats = String.format(Locale.getDefault(),
-                "📊 %d Total | ✅ %d Completed | 📈 %.1f%% Success Rate",
-                totalTasks, completedCount, successRate);
+                "📊 %d Total | ✅ %d Completed | 📈 %.1f%% Success Rate\n"
+                    + "💰 +%d / -%d coins | 🗓️ Last 7 days: %d/%d completed",
+                day.getTotal(), day.getCompleted(), successRate,
+                day.getCoinsEarned(), day.getCoinsLost(), week.getCompleted(), week.getTotal());
             statsDisplay.setText(stats);
 
             // Color code based on success rate
@@ -329,8 +391,8 @@ public class CalendarHistoryActivity extends AppCompatActivity {
         tasksContainer.addView(emptyStateCard);
     }
 
-    private void createTaskHistoryCard(TaskItem task) {
-        int typeColor = getTaskTypeColor(task.getType());
+    private void createTaskHistoryCard(HistoryDay.Row row) {
+        int typeColor = getTaskTypeColor(row.getType());
 
         LinearLayout taskCard = new LinearLayout(this);
         taskCard.setOrientation(LinearLayout.VERTICAL);
@@ -342,31 +404,37 @@ public class CalendarHistoryActivity extends AppCompatActivity {
         headerLayout.setGravity(Gravity.CENTER_VERTICAL);
 
         TextView statusEmoji = new TextView(this);
-        statusEmoji.setText(getStatusEmoji(task.getStatus()));
+        statusEmoji.setText(getStatusEmoji(row.getStatus()));
         statusEmoji.setTextSize(24);
         statusEmoji.setPadding(0, 0, 12, 0);
 
         TextView taskIcon = new TextView(this);
-        taskIcon.setText(getTypeEmoji(task.getType()));
+        taskIcon.setText(getTypeEmoji(row.getType()));
         taskIcon.setTextSize(18);
         taskIcon.setPadding(0, 0, 12, 0);
 
         TextView taskTitle = new TextView(this);
-        taskTitle.setText(task.getTitle());
+        taskTitle.setText(row.getTitle());
         taskTitle.setTextSize(16);
         taskTitle.setTextColor(UIStyleHelper.Colors.DARK_GRAY);
         taskTitle.setTypeface(null, android.graphics.Typeface.BOLD);
         taskTitle.setLayoutParams(new LinearLayout.LayoutParams(0, LinearLayout.LayoutParams.WRAP_CONTENT, 1));
 
         TextView rewardBadge = new TextView(this);
-        if (task.getStatus() == TaskItem.TaskStatus.COMPLETED) {
-            rewardBadge.setText("💰 +" + task.getCoinReward());
+        if (row.isOccurrence()) {
+            rewardBadge.setText("🔁 Scheduled");
+            rewardBadge.setTextColor(UIStyleHelper.Colors.PRIMARY_BLUE);
+            rewardBadge.setBackground(UIStyleHelper.createRoundedBackground(
+                UIStyleHelper.adjustColorAlpha(UIStyleHelper.Colors.PRIMARY_BLUE, 0.2f), 12
+            ));
+        } else if (row.getStatus() == TaskItem.TaskStatus.COMPLETED) {
+            rewardBadge.setText("💰 +" + row.getCoinReward());
             rewardBadge.setTextColor(UIStyleHelper.Colors.SUCCESS_GREEN);
             rewardBadge.setBackground(UIStyleHelper.createRoundedBackground(
                 UIStyleHelper.adjustColorAlpha(UIStyleHelper.Colors.SUCCESS_GREEN, 0.2f), 12
             ));
-        } else if (task.getStatus() == TaskItem.TaskStatus.FAILED) {
-            rewardBadge.setText("💸 -" + task.getCoinPenalty());
+        } else if (row.getStatus() == TaskItem.TaskStatus.FAILED) {
+            rewardBadge.setText("💸 -" + row.getCoinPenalty());
             rewardBadge.setTextColor(UIStyleHelper.Colors.DANGER_RED);
             rewardBadge.setBackground(UIStyleHelper.createRoundedBackground(
                 UIStyleHelper.adjustColorAlpha(UIStyleHelper.Colors.DANGER_RED, 0.2f), 12
@@ -393,17 +461,25 @@ public class CalendarHistoryActivity extends AppCompatActivity {
         detailsLayout.setPadding(36, 8, 0, 0);
 
         TextView taskType = new TextView(this);
-        String typeText = task.getType().toString().replace("_", " ");
+        String typeText = row.getType().toString().replace("_", " ");
         taskType.setText("🎯 " + typeText + " Quest");
         taskType.setTextSize(14);
         taskType.setTextColor(UIStyleHelper.Colors.DARK_GRAY);
 
         detailsLayout.addView(taskType);
 
-        if (task.getCompletedDate() != null) {
+        if (row.getRepeatDays() > 0) {
+            int interval = row.getRepeatDays();
+            TextView cadence = new TextView(this);
+            cadence.setText(interval == 1 ? "🔁 Repeats daily" : "🔁 Repeats every " + interval + " days");
+            cadence.setTextSize(12);
+            cadence.setTextColor(UIStyleHelper.Colors.DARK_GRAY);
+            detailsLayout.addView(cadence);
+        }
+
+        if (row.getCompletedAt() != null) {
             TextView completedTime = new TextView(this);
-            SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm", Locale.getDefault());
-            completedTime.setText("🕐 Completed at: " + timeFormat.format(task.getCompletedDate()));
+            completedTime.setText("🕐 Completed at: " + row.getCompletedAt());
             completedTime.setTextSize(12);
             completedTime.setTextColor(UIStyleHelper.Colors.SUCCESS_GREEN);
             completedTime.setTypeface(null, android.graphics.Typeface.BOLD);
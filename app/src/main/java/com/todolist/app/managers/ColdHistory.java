@@ -0,0 +1,296 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.TaskItem;
+import com.todolist.app.persistence.SnapshotFile;
+import com.todolist.app.utils.EpochDays;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongPredicate;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+// Settled tasks that have aged out of TaskHistory's recent tier, written in batches
+// to immutable segment files. A segment is a TaskArchive written column by
+// column and deflated. Its file name holds the earliest and latest instant among
+// its tasks' dates, so the directory listing alone tells which segments a day can
+// touch, and a lookup on an old day inflates only those, normally one. Inflated
+// segments stay in an LRU bounded by their estimated heap size.
+//
+// The segment list and the cache are guarded by the instance, since the calendar
+// looks days up from a background thread; files are read, inflated and written
+// outside the lock, so a lookup on a cold day holds up neither other lookups nor
+// a move. An inflated archive is read under its own monitor instead, since it
+// refiles its days after a zone change.
+class ColdHistory {
+    static final long DEFAULT_CACHE_BYTES = 4L * 1024 * 1024;
+
+    private static final int MAGIC = 0x544B4353; // "TKCS"
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".segment";
+
+    // Receives archived tasks one at a time, e.g. to recount them
+    interface Visitor {
+        void visit(TaskItem task, int segment);
+    }
+
+    private static final class Segment {
+        final int number;
+        final long fromMillis;
+        final long toMillis;
+        final File file;
+        // Estimated heap size once inflated; set when first cached
+        long bytes;
+
+        Segment(int number, long fromMillis, long toMillis, File file) {
+            this.number = number;
+            this.fromMillis = fromMillis;
+            this.toMillis = toMillis;
+            this.file = file;
+        }
+
+        // Against the half-open range [from, to)
+        boolean overlaps(long from, long to) {
+            return fromMillis < to && toMillis >= from;
+        }
+    }
+
+    private final File directory;
+    private final long cacheBudgetBytes;
+    private final List<Segment> segments = new ArrayList<>();
+    private final Map<Segment, TaskArchive> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    private int inflateCount;
+    private int nextNumber;
+
+    ColdHistory(File directory, long cacheBudgetBytes) {
+        this.directory = directory;
+        this.cacheBudgetBytes = cacheBudgetBytes;
+    }
+
+    // Finds the segments already on disk; leftovers of interrupted writes are ignored
+    synchronized void load() {
+        segments.clear();
+        File[] files = directory.listFiles();
+        if (files == null) return;
+
+        for (File file : files) {
+            String name = file.getName();
+            if (!name.endsWith(SUFFIX)) continue;
+
+            String[] parts = name.substring(0, name.length() - SUFFIX.length()).split("_");
+            try {
+                segments.add(new Segment(Integer.parseInt(parts[0]),
+                    Long.parseLong(parts[1]), Long.parseLong(parts[2]), file));
+            } catch (RuntimeException e) {
+                System.err.println("ColdHistory: ignoring unrecognized segment " + name);
+            }
+        }
+        segments.sort((a, b) -> Integer.compare(a.number, b.number));
+        nextNumber = segments.isEmpty() ? 0 : segments.get(segments.size() - 1).number + 1;
+    }
+
+    // Writes the tasks as one new segment and returns its number
+    int write(Collection<TaskItem> tasks) throws IOException {
+        TaskArchive archive = new TaskArchive();
+        long from = Long.MAX_VALUE;
+        long to = Long.MIN_VALUE;
+        for (TaskItem task : tasks) {
+            archive.add(task);
+            for (Date date : new Date[] {task.getCreatedDate(), task.getDueDate(), task.getCompletedDate()}) {
+                if (date == null) continue;
+                from = Math.min(from, date.getTime());
+                to = Math.max(to, date.getTime());
+            }
+        }
+        if (from > to) {
+            // No dates at all; no day lookup can reach these tasks
+            from = to = 0;
+        }
+
+        int number;
+        synchronized (this) {
+            number = nextNumber++;
+        }
+        File file = new File(directory, number + "_" + from + "_" + to + SUFFIX);
+        new SnapshotFile(file, MAGIC, VERSION).write(out -> {
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try {
+                DeflaterOutputStream deflated = new DeflaterOutputStream(out, deflater);
+                DataOutputStream data = new DataOutputStream(new BufferedOutputStream(deflated));
+                archive.writeTo(data);
+                data.flush();
+                deflated.finish();
+            } finally {
+                deflater.end();
+            }
+        });
+        synchronized (this) {
+            // Writes may finish out of order; keep the list in number order
+            int at = segments.size();
+            while (at > 0 && segments.get(at - 1).number > number) at--;
+            segments.add(at, new Segment(number, from, to, file));
+        }
+        return number;
+    }
+
+    // Day lookups as in TaskManager.getTasksByDate, copying out the matching rows
+    // whose ids the caller does not already hold
+    void collectScheduledOn(long day, List<TaskItem> out, LongPredicate held) {
+        for (TaskArchive archive : segmentsCovering(day)) {
+            synchronized (archive) {
+                archive.forEachScheduledOn(day, row -> {
+                    if (!held.test(archive.getId(row))) {
+                        out.add(archive.toTaskItem(row));
+                    }
+                });
+            }
+        }
+    }
+
+    void collectCompletedOn(long day, List<TaskItem> out, LongPredicate held) {
+        for (TaskArchive archive : segmentsCovering(day)) {
+            synchronized (archive) {
+                archive.forEachCompletedOn(day, row -> {
+                    if (!held.test(archive.getId(row))) {
+                        out.add(archive.toTaskItem(row));
+                    }
+                });
+            }
+        }
+    }
+
+    // A copy of the task as archived in the given segment, or null
+    TaskItem find(int segment, long taskId) {
+        Segment candidate = segment(segment);
+        TaskArchive archive = candidate != null ? open(candidate) : null;
+        if (archive == null) return null;
+        synchronized (archive) {
+            int row = archive.find(taskId);
+            return row >= 0 ? archive.toTaskItem(row) : null;
+        }
+    }
+
+    // Reads every segment numbered fromSegment or later once, without caching it
+    void forEachTask(int fromSegment, Visitor visitor) {
+        for (Segment segment : segmentsFrom(fromSegment)) {
+            TaskArchive archive = read(segment);
+            if (archive == null) continue;
+
+            for (int row = 0; row < archive.size(); row++) {
+                visitor.visit(archive.toTaskItem(row), segment.number);
+            }
+        }
+    }
+
+    private List<TaskArchive> segmentsCovering(long day) {
+        List<TaskArchive> covering = new ArrayList<>();
+        if (day == EpochDays.NONE) return covering;
+
+        long from = EpochDays.toMillis(day, 0);
+        long to = EpochDays.toMillis(day + 1, 0);
+        for (Segment segment : segmentsOverlapping(from, to)) {
+            TaskArchive archive = open(segment);
+            if (archive != null) {
+                covering.add(archive);
+            }
+        }
+        return covering;
+    }
+
+    private synchronized List<Segment> segmentsOverlapping(long from, long to) {
+        List<Segment> overlapping = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment.overlaps(from, to)) {
+                overlapping.add(segment);
+            }
+        }
+        return overlapping;
+    }
+
+    private synchronized List<Segment> segmentsFrom(int fromSegment) {
+        List<Segment> from = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment.number >= fromSegment) {
+                from.add(segment);
+            }
+        }
+        return from;
+    }
+
+    private synchronized Segment segment(int number) {
+        for (Segment segment : segments) {
+            if (segment.number == number) return segment;
+        }
+        return null;
+    }
+
+    private synchronized TaskArchive cached(Segment segment) {
+        return cache.get(segment);
+    }
+
+    // Through the cache; a miss is inflated without the lock and then cached
+    private TaskArchive open(Segment segment) {
+        TaskArchive archive = cached(segment);
+        if (archive != null) return archive;
+
+        archive = read(segment);
+        return archive != null ? admit(segment, archive) : null;
+    }
+
+    // The least recently used segments are dropped once over budget, but the one
+    // just opened always stays. If another lookup cached the segment meanwhile,
+    // its copy wins.
+    private synchronized TaskArchive admit(Segment segment, TaskArchive archive) {
+        TaskArchive raced = cache.get(segment);
+        if (raced != null) return raced;
+
+        inflateCount++;
+        segment.bytes = archive.estimatedBytes();
+        cache.put(segment, archive);
+        cachedBytes += segment.bytes;
+        Iterator<Segment> eldest = cache.keySet().iterator();
+        while (cachedBytes > cacheBudgetBytes && cache.size() > 1) {
+            cachedBytes -= eldest.next().bytes;
+            eldest.remove();
+        }
+        return archive;
+    }
+
+    private TaskArchive read(Segment segment) {
+        TaskArchive[] read = new TaskArchive[1];
+        try {
+            new SnapshotFile(segment.file, MAGIC, VERSION).read(in -> {
+                Inflater inflater = new Inflater();
+                try {
+                    read[0] = TaskArchive.readFrom(new DataInputStream(
+                        new BufferedInputStream(new InflaterInputStream(in, inflater))));
+                } finally {
+                    inflater.end();
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("ColdHistory: failed to read segment " + segment.file.getName() + " - " + e);
+            return null;
+        }
+        return read[0];
+    }
+
+    synchronized int getSegmentCount() { return segments.size(); }
+    synchronized int getCachedSegmentCount() { return cache.size(); }
+    synchronized long getCachedBytes() { return cachedBytes; }
+    // Segments inflated for lookups, i.e. cache misses
+    synchronized int getInflateCount() { return inflateCount; }
+}
@@ -0,0 +1,135 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.TaskItem;
+import com.todolist.app.utils.EpochDays;
+import com.todolist.app.utils.LongMap;
+import java.util.Date;
+
+// Per-day quest counters (see DayStats), kept current as tasks change state so
+// the calendar never lists or scans a day to show its numbers. Each task's
+// contribution is remembered; a change takes the old one back out and adds the
+// new one, so every transition costs a few O(log D) counter updates. Contributions
+// keep instants rather than days, so they can be recounted after a zone change.
+// The counters themselves sit in DayCounters. Nothing is persisted here: the
+// owner rebuilds them from the tasks it reloads, and TaskHistory persists its
+// own. Synchronized, since the calendar reads while TaskManager's writer updates.
+class DayAggregates {
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    // Epoch millis of the task's dates, or NO_TIME
+    private static final int CREATED_AT = 0;
+    private static final int DUE_AT = 1;
+    private static final int COMPLETED_AT = 2;
+    private static final int STATUS = 3;
+    private static final int TYPE = 4;
+    private static final int REWARD = 5;
+    private static final int PENALTY = 6;
+
+    // Receives the counter changes of one task's contribution
+    interface Counter {
+        void add(long day, int field, int delta);
+    }
+
+    private final LongMap<long[]> contributions = new LongMap<>();
+    private final DayCounters rows = new DayCounters();
+    private int zoneVersion = EpochDays.zoneVersion();
+
+    synchronized void put(TaskItem task) {
+        ensureCurrentZone();
+        long[] previous = contributions.remove(task.getId());
+        if (previous != null) {
+            apply(previous, -1);
+        }
+
+        long[] contribution = {
+            millis(task.getCreatedDate()),
+            millis(task.getDueDate()),
+            millis(task.getCompletedDate()),
+            task.getStatus().ordinal(),
+            task.getType().ordinal(),
+            task.getCoinReward(),
+            task.getCoinPenalty()
+        };
+        apply(contribution, 1);
+        contributions.put(task.getId(), contribution);
+    }
+
+    synchronized void remove(long taskId) {
+        ensureCurrentZone();
+        long[] previous = contributions.remove(taskId);
+        if (previous != null) {
+            apply(previous, -1);
+        }
+    }
+
+    synchronized DayStats get(long day) {
+        ensureCurrentZone();
+        return rows.get(day);
+    }
+
+    // Sums over [fromDay, toDay], both inclusive
+    synchronized DayStats range(long fromDay, long toDay) {
+        ensureCurrentZone();
+        return rows.range(fromDay, toDay);
+    }
+
+    private void apply(long[] c, int sign) {
+        contribute(dayOf(c[CREATED_AT]), dayOf(c[DUE_AT]), dayOf(c[COMPLETED_AT]), TaskItem.TaskStatus.values()[(int) c[STATUS]],
+            TaskItem.TaskType.values()[(int) c[TYPE]], (int) c[REWARD], (int) c[PENALTY], sign, rows);
+    }
+
+    // How one task counts towards its days; shared with the settled history's counters
+    static void contribute(long created, long due, long completedOn, TaskItem.TaskStatus status,
+                           TaskItem.TaskType type, int reward, int penalty, int sign, Counter counter) {
+        int typeField = DayStats.TYPE_BASE + type.ordinal();
+        if (created != EpochDays.NONE) {
+            counter.add(created, DayStats.SCHEDULED, sign);
+            counter.add(created, typeField, sign);
+        }
+        if (due != EpochDays.NONE && due != created) {
+            counter.add(due, DayStats.SCHEDULED, sign);
+            counter.add(due, typeField, sign);
+        }
+
+        long outcomeDay = due != EpochDays.NONE ? due : created;
+        switch (status) {
+            case COMPLETED:
+                if (completedOn != EpochDays.NONE) {
+                    counter.add(completedOn, DayStats.COMPLETED, sign);
+                    counter.add(completedOn, DayStats.COINS_EARNED, sign * reward);
+                }
+                break;
+            case FAILED:
+                if (outcomeDay != EpochDays.NONE) {
+                    counter.add(outcomeDay, DayStats.FAILED, sign);
+                    counter.add(outcomeDay, DayStats.COINS_LOST, sign * penalty);
+                }
+                break;
+            case SKIPPED:
+                if (outcomeDay != EpochDays.NONE) {
+                    counter.add(outcomeDay, DayStats.SKIPPED, sign);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Day boundaries move with the zone, so every contribution is recomputed after a zone change
+    private void ensureCurrentZone() {
+        int current = EpochDays.zoneVersion();
+        if (zoneVersion == current) return;
+
+        zoneVersion = current;
+        rows.clear();
+        contributions.forEach((taskId, contribution) -> apply(contribution, 1));
+    }
+
+    private static long millis(Date date) {
+        return date != null ? date.getTime() : NO_TIME;
+    }
+
+    private static long dayOf(long millis) {
+        return millis != NO_TIME ? EpochDays.of(millis) : EpochDays.NONE;
+    }
+}
@@ -0,0 +1,140 @@
+package com.todolist.app.managers;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+// The DayStats counters of a run of days: one int row per day over a contiguous
+// range, next to a Fenwick tree of the same rows. Reading one day is O(1);
+// a change and a range sum each touch O(log D) tree rows for D days covered,
+// every time rather than amortized. Days are local epoch days of whatever zone
+// the caller counted in. Not thread-safe: each owner guards its own.
+class DayCounters implements DayAggregates.Counter {
+    private static final int MIN_GROWTH_DAYS = 64;
+
+    private long baseDay;
+    private int dayCount;
+    private int[] counts = new int[0];
+    // Fenwick tree over the rows of counts, 1-based: row i holds the sums of
+    // rows [i - lowbit(i), i) of counts
+    private long[] tree = new long[DayStats.FIELDS];
+
+    @Override
+    public void add(long day, int field, int delta) {
+        ensureCovers(day);
+        int row = rowOf(day);
+        counts[row * DayStats.FIELDS + field] += delta;
+        for (int i = row + 1; i <= dayCount; i += i & -i) {
+            tree[i * DayStats.FIELDS + field] += delta;
+        }
+    }
+
+    DayStats get(long day) {
+        int row = rowOf(day);
+        if (row < 0 || row >= dayCount) return DayStats.EMPTY;
+
+        long[] counters = new long[DayStats.FIELDS];
+        int offset = row * DayStats.FIELDS;
+        for (int field = 0; field < DayStats.FIELDS; field++) {
+            counters[field] = counts[offset + field];
+        }
+        return new DayStats(counters);
+    }
+
+    // Sums over [fromDay, toDay], both inclusive
+    DayStats range(long fromDay, long toDay) {
+        int from = (int) Math.max(0, Math.min(dayCount, fromDay - baseDay));
+        int to = (int) Math.max(0, Math.min(dayCount, toDay - baseDay + 1));
+        if (dayCount == 0 || from >= to) return DayStats.EMPTY;
+
+        long[] counters = new long[DayStats.FIELDS];
+        sumRows(to, 1, counters);
+        sumRows(from, -1, counters);
+        return new DayStats(counters);
+    }
+
+    void clear() {
+        counts = new int[0];
+        tree = new long[DayStats.FIELDS];
+        dayCount = 0;
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeLong(baseDay);
+        out.writeInt(dayCount);
+        for (int i = 0; i < dayCount * DayStats.FIELDS; i++) {
+            out.writeInt(counts[i]);
+        }
+    }
+
+    static DayCounters readFrom(DataInputStream in) throws IOException {
+        DayCounters counters = new DayCounters();
+        long baseDay = in.readLong();
+        int dayCount = in.readInt();
+        if (dayCount > 0) {
+            counters.resize(baseDay, dayCount);
+            for (int i = 0; i < dayCount * DayStats.FIELDS; i++) {
+                counters.counts[i] = in.readInt();
+            }
+            counters.buildTree();
+        }
+        return counters;
+    }
+
+    private int rowOf(long day) {
+        long row = day - baseDay;
+        return row < Integer.MIN_VALUE || row > Integer.MAX_VALUE ? -1 : (int) row;
+    }
+
+    // Widens the day range, with slack on the side that grew so a run of new days
+    // does not copy the rows each time
+    private void ensureCovers(long day) {
+        if (dayCount == 0) {
+            resize(day - MIN_GROWTH_DAYS / 2, MIN_GROWTH_DAYS);
+            return;
+        }
+        if (day >= baseDay && day < baseDay + dayCount) return;
+
+        int growth = Math.max(dayCount, MIN_GROWTH_DAYS);
+        long newBase = Math.min(baseDay, day < baseDay ? day - growth : baseDay);
+        long newEnd = Math.max(baseDay + dayCount, day >= baseDay + dayCount ? day + growth : baseDay + dayCount);
+        resize(newBase, (int) (newEnd - newBase));
+    }
+
+    private void resize(long newBase, int newDayCount) {
+        int[] resized = new int[newDayCount * DayStats.FIELDS];
+        if (dayCount > 0) {
+            int shift = (int) (baseDay - newBase);
+            System.arraycopy(counts, 0, resized, shift * DayStats.FIELDS, counts.length);
+        }
+        counts = resized;
+        baseDay = newBase;
+        dayCount = newDayCount;
+        buildTree();
+    }
+
+    // Builds the tree from counts in O(D), each row passing its sums on to its parent
+    private void buildTree() {
+        tree = new long[(dayCount + 1) * DayStats.FIELDS];
+        for (int i = 1; i <= dayCount; i++) {
+            int offset = i * DayStats.FIELDS;
+            int parent = i + (i & -i);
+            for (int field = 0; field < DayStats.FIELDS; field++) {
+                tree[offset + field] += counts[(i - 1) * DayStats.FIELDS + field];
+                if (parent <= dayCount) {
+                    tree[parent * DayStats.FIELDS + field] += tree[offset + field];
+                }
+            }
+        }
+    }
+
+    // Adds sign times the sums of rows [0, rows) to counters
+    private void sumRows(int rows, int sign, long[] counters) {
+        for (int i = rows; i > 0; i -= i & -i) {
+            int offset = i * DayStats.FIELDS;
+            for (int field = 0; field < DayStats.FIELDS; field++) {
+                counters[field] += sign * tree[offset + field];
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.TaskItem;
+
+// Quest counters for one day or a run of days, as kept by DayAggregates.
+// Immutable. Over a range the counters are summed day by day, so a quest created
+// on one day and due on another is part of the total of both.
+public final class DayStats {
+    static final int SCHEDULED = 0;
+    static final int COMPLETED = 1;
+    static final int FAILED = 2;
+    static final int SKIPPED = 3;
+    static final int COINS_EARNED = 4;
+    static final int COINS_LOST = 5;
+    static final int TYPE_BASE = 6;
+    static final int FIELDS = TYPE_BASE + TaskItem.TaskType.values().length;
+
+    static final DayStats EMPTY = new DayStats(new long[FIELDS]);
+
+    private final long[] counters;
+
+    DayStats(long[] counters) {
+        this.counters = counters;
+    }
+
+    // Quests created or due on the day
+    public long getTotal() { return counters[SCHEDULED]; }
+    // Quests completed on the day, whenever they were scheduled
+    public long getCompleted() { return counters[COMPLETED]; }
+    // Failed and skipped quests count against their due day, or their creation day
+    public long getFailed() { return counters[FAILED]; }
+    public long getSkipped() { return counters[SKIPPED]; }
+    public long getCoinsEarned() { return counters[COINS_EARNED]; }
+    public long getCoinsLost() { return counters[COINS_LOST]; }
+
+    // Scheduled quests of one type
+    public long getTotal(TaskItem.TaskType type) {
+        return counters[TYPE_BASE + type.ordinal()];
+    }
+
+    // The counters of both, e.g. of two tiers covering the same days
+    DayStats plus(DayStats other) {
+        long[] sum = new long[FIELDS];
+        for (int field = 0; field < FIELDS; field++) {
+            sum[field] = counters[field] + other.counters[field];
+        }
+        return new DayStats(sum);
+    }
+
+    // Completed as a percentage of the total; 0 when nothing was scheduled
+    public double getSuccessRate() {
+        long total = getTotal();
+        return total > 0 ? getCompleted() * 100.0 / total : 0;
+    }
+}
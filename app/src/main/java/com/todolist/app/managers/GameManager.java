@@ -1,113 +1,272 @@
 package com.todolist.app.managers;
 
 import com.todolist.app.models.Character;
+import com.todolist.app.models.EconomyEvent;
 import com.todolist.app.models.TaskItem;
-import java.util.ArrayList;
+import com.todolist.app.persistence.EconomyLedger;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongPredicate;
 
+// Economy state may be changed from the UI and from background reward
+// processing at once. The balance is a single atomic counter and every
+// check-then-act (settling a task, buying a character) first claims its key in
+// a concurrent set, so nothing is paid out or spent twice and no global lock is held.
+// Every change is also recorded in the EconomyLedger, which rebuilds this state
+// on the next launch; character changes are recorded under that character's
+// monitor so the ledger sees them in the order they were applied.
 public class GameManager {
-    private static GameManager instance;
-    private int coins;
-    private List<Character> allCharacters;
-    private List<Character> ownedCharacters;
-    private Character activeCharacter;
-    private List<TaskItem> taskHistory;
-    private boolean hasCompletedTaskToday;
-
-    private GameManager() {
-        coins = 50; // Starting coins
-        allCharacters = new ArrayList<>();
-        ownedCharacters = new ArrayList<>();
-        taskHistory = new ArrayList<>();
+    private static final int STARTING_COINS = 50;
+
+    private final AtomicInteger coins;
+    private volatile EconomyLedger ledger;
+    private final List<Character> allCharacters;
+    private final List<Character> ownedCharacters;
+    private volatile Character activeCharacter;
+    // Every settled task, as it was when settled; memory-only until initialize()
+    // swaps in the persisted history
+    private volatile TaskHistory taskHistory;
+    private int hotWindowDays = TaskHistory.DEFAULT_HOT_WINDOW_DAYS;
+    private long coldCacheBytes = ColdHistory.DEFAULT_CACHE_BYTES;
+    // Tasks being settled right now; once settled, a task's status says so
+    private final Set<Long> settlingTaskIds = ConcurrentHashMap.newKeySet();
+    private final Set<String> purchaseClaims = ConcurrentHashMap.newKeySet();
+    private volatile boolean hasCompletedTaskToday;
+    private boolean isDurable;
+
+    // Package-private so benchmarks and tests can build an isolated instance
+    GameManager() {
+        coins = new AtomicInteger();
+        ledger = new EconomyLedger();
+        allCharacters = new CopyOnWriteArrayList<>();
+        ownedCharacters = new CopyOnWriteArrayList<>();
+        taskHistory = new TaskHistory();
         hasCompletedTaskToday = false;
         initializeCharacters();
+        recordOpeningBalance();
+    }
+
+    // Initialization-on-demand holder: created once, on first use, without locking
+    private static final class Holder {
+        static final GameManager INSTANCE = new GameManager();
     }
 
     public static GameManager getInstance() {
-        if (instance == null) {
-            instance = new GameManager();
+        return Holder.INSTANCE;
+    }
+
+    // How long settled tasks stay in memory, and how much inflated cold history
+    // may be cached; call before initialize()
+    public synchronized void setHistoryTiering(int hotWindowDays, long coldCacheBytes) {
+        this.hotWindowDays = hotWindowDays;
+        this.coldCacheBytes = coldCacheBytes;
+    }
+
+    // Switches to the durable ledger and task history in dataDir and restores
+    // coins, character progress and settled tasks from them. Anything recorded
+    // before this call was memory-only and is replaced by the persisted state.
+    // Settled tasks past the hot window then move to cold storage in the background.
+    public synchronized void initialize(File dataDir) {
+        if (isDurable) return;
+        isDurable = true;
+
+        // An unreadable ledger is left alone and the economy stays in memory:
+        // recording on top of it would snapshot the fresh state over it
+        EconomyLedger durable = new EconomyLedger(new File(dataDir, "economy"));
+        boolean loaded = true;
+        try {
+            durable.load();
+        } catch (IOException e) {
+            System.err.println("GameManager: failed to load economy ledger, keeping it in memory - " + e);
+            loaded = false;
+        }
+        if (loaded) {
+            ledger = durable;
+            if (durable.isEmpty()) {
+                coins.set(0);
+                recordOpeningBalance();
+            } else {
+                restoreFrom(durable);
+            }
+        }
+
+        TaskHistory history = new TaskHistory(new File(dataDir, "history"), hotWindowDays, coldCacheBytes);
+        history.load();
+        taskHistory = history;
+        history.moveToColdStorageInBackground(System.currentTimeMillis());
+    }
+
+    private void recordOpeningBalance() {
+        coins.addAndGet(STARTING_COINS);
+        record(EconomyEvent.Type.REWARD, STARTING_COINS, 0, null, "Starting coins");
+    }
+
+    private void restoreFrom(EconomyLedger source) {
+        coins.set(source.getBalance());
+        String activeId = source.getActiveCharacterId();
+        for (Character character : allCharacters) {
+            EconomyLedger.CharacterProgress progress = source.getCharacterProgress(character.getId());
+            if (progress == null) continue;
+
+            if (progress.isOwned() && !character.isOwned()) {
+                character.setOwned(true);
+                ownedCharacters.add(character);
+                purchaseClaims.add(character.getId());
+            }
+            character.setStatus(progress.isAlive()
+                ? Character.CharacterStatus.ALIVE
+                : Character.CharacterStatus.DEAD);
+            character.setLevel(progress.getLevel());
+            character.setExperience(progress.getExperience());
+            if (character.getId().equals(activeId) && character.isOwned()) {
+                activeCharacter = character;
+            }
+        }
+    }
+
+    private void record(EconomyEvent.Type type, int coinDelta, int xpDelta, Character character, String reference) {
+        try {
+            ledger.record(type, coinDelta, xpDelta, character != null ? character.getId() : null, reference);
+        } catch (IOException e) {
+            System.err.println("GameManager: failed to record " + type + " - " + e);
         }
-        return instance;
     }
 
     private void initializeCharacters() {
         // Free starter character
-        Character starter = new Character("Starter Pet", "starter_pet", 0, true);
-        allCharacters.add(starter);
+        Character starter = new Character("starter_pet", "Starter Pet", "starter_pet", 0, true);
         ownedCharacters.add(starter);
+        purchaseClaims.add(starter.getId());
         activeCharacter = starter;
 
-        // Premium characters
-        allCharacters.add(new Character("Dragon", "dragon", 100, false));
-        allCharacters.add(new Character("Phoenix", "phoenix", 150, false));
-        allCharacters.add(new Character("Unicorn", "unicorn", 200, false));
-        allCharacters.add(new Character("Griffin", "griffin", 250, false));
+        // Starter first, then premium characters
+        allCharacters.addAll(Arrays.asList(
+            starter,
+            new Character("dragon", "Dragon", "dragon", 100, false),
+            new Character("phoenix", "Phoenix", "phoenix", 150, false),
+            new Character("unicorn", "Unicorn", "unicorn", 200, false),
+            new Character("griffin", "Griffin", "griffin", 250, false)));
+    }
+
+    // Only the first caller for a given pending task gets to settle it. The status
+    // is read after the claim, so it shows the outcome of any settlement that
+    // released the claim before.
+    private boolean claimSettlement(TaskItem task) {
+        if (!settlingTaskIds.add(task.getId())) return false;
+        if (task.getStatus() == TaskItem.TaskStatus.PENDING) return true;
+
+        settlingTaskIds.remove(task.getId());
+        return false;
     }
 
     public boolean completeTask(TaskItem task) {
-        if (task.getStatus() == TaskItem.TaskStatus.PENDING) {
+        if (claimSettlement(task)) {
             task.setStatus(TaskItem.TaskStatus.COMPLETED);
             task.setCompletedDate(new Date());
 
             // Add coins for completion
-            addCoins(task.getCoinReward());
+            int reward = task.getCoinReward();
+            addCoins(reward);
+            record(EconomyEvent.Type.REWARD, reward, 0, null, task.getTitle());
 
-            // Add experience to active character
-            if (activeCharacter != null && activeCharacter.getStatus() == Character.CharacterStatus.ALIVE) {
-                activeCharacter.gainExperience(task.getCoinReward());
-            }
-
-            // Revive character if dead and this is first task of the day
-            if (activeCharacter != null && activeCharacter.getStatus() == Character.CharacterStatus.DEAD) {
-                activeCharacter.revive();
+            Character character = activeCharacter;
+            if (character != null) {
+                synchronized (character) {
+                    if (character.getStatus() == Character.CharacterStatus.ALIVE) {
+                        // Add experience to active character
+                        character.gainExperience(reward);
+                        record(EconomyEvent.Type.XP, 0, reward, character, task.getTitle());
+                    } else {
+                        // Revive character if dead and this is first task of the day
+                        character.revive();
+                        record(EconomyEvent.Type.REVIVE, 0, 0, character, task.getTitle());
+                    }
+                }
             }
 
             hasCompletedTaskToday = true;
-            taskHistory.add(task);
+            addToHistory(task);
+            settlingTaskIds.remove(task.getId());
             return true;
         }
         return false;
     }
 
     public void failTask(TaskItem task) {
-        if (task.getStatus() == TaskItem.TaskStatus.PENDING) {
+        if (claimSettlement(task)) {
             task.setStatus(TaskItem.TaskStatus.FAILED);
 
             // Deduct coins for failure
-            deductCoins(task.getCoinPenalty());
+            int penalty = task.getCoinPenalty();
+            int balance = deductCoins(penalty);
+            record(EconomyEvent.Type.PENALTY, -penalty, 0, null, task.getTitle());
 
             // Kill character if coins go negative and no task completed today
-            if (coins < 0 && !hasCompletedTaskToday && activeCharacter != null) {
-                activeCharacter.kill();
+            Character character = activeCharacter;
+            if (balance < 0 && !hasCompletedTaskToday && character != null) {
+                synchronized (character) {
+                    character.kill();
+                    record(EconomyEvent.Type.KILL, 0, 0, character, task.getTitle());
+                }
             }
 
-            taskHistory.add(task);
+            addToHistory(task);
+            settlingTaskIds.remove(task.getId());
         }
     }
 
+    private void addToHistory(TaskItem task) {
+        taskHistory.add(task);
+    }
+
+    // The character is claimed before the balance is touched, so two buyers can
+    // never both pay for it; the debit itself is a compare-and-set that refuses
+    // to go below the price, and a failed debit releases the claim.
     public boolean buyCharacter(Character character) {
-        if (coins >= character.getPrice() && !character.isOwned()) {
-            deductCoins(character.getPrice());
+        if (character.isOwned() || !purchaseClaims.add(character.getId())) {
+            return false;
+        }
+
+        int price = character.getPrice();
+        while (true) {
+            int balance = coins.get();
+            if (balance < price) {
+                purchaseClaims.remove(character.getId());
+                return false;
+            }
+            if (coins.compareAndSet(balance, balance - price)) break;
+        }
+        synchronized (character) {
             character.setOwned(true);
             ownedCharacters.add(character);
-            return true;
+            record(EconomyEvent.Type.PURCHASE, -price, 0, character, character.getName());
         }
-        return false;
+        return true;
     }
 
     public void setActiveCharacter(Character character) {
-        if (character.isOwned()) {
-            this.activeCharacter = character;
+        synchronized (character) {
+            if (character.isOwned()) {
+                this.activeCharacter = character;
+                record(EconomyEvent.Type.ACTIVATE, 0, 0, character, character.getName());
+            }
         }
     }
 
-    private void addCoins(int amount) {
-        coins += amount;
+    private int addCoins(int amount) {
+        return coins.addAndGet(amount);
     }
 
-    private void deductCoins(int amount) {
-        coins -= amount;
+    private int deductCoins(int amount) {
+        return coins.addAndGet(-amount);
     }
 
     public void resetDailyProgress() {
@@ -115,10 +274,52 @@ public class GameManager {
     }
 
     // Getters
-    public int getCoins() { return coins; }
-    public List<Character> getAllCharacters() { return allCharacters; }
-    public List<Character> getOwnedCharacters() { return ownedCharacters; }
+    public int getCoins() { return coins.get(); }
+    public List<Character> getAllCharacters() { return Collections.unmodifiableList(allCharacters); }
+    public List<Character> getOwnedCharacters() { return Collections.unmodifiableList(ownedCharacters); }
     public Character getActiveCharacter() { return activeCharacter; }
-    public List<TaskItem> getTaskHistory() { return taskHistory; }
     public boolean hasCompletedTaskToday() { return hasCompletedTaskToday; }
+
+    // Latest coin changes, newest first; served from the ledger's bounded history
+    public List<EconomyEvent> getCoinHistory(int limit) {
+        return ledger.getCoinHistory(limit);
+    }
+
+    public int getTaskHistorySize() {
+        return taskHistory.size();
+    }
+
+    // Settled quests whose title or description words start with every word of
+    // the query, best match first; cold ones are read back from their segments,
+    // so call off the main thread
+    public List<TaskItem> searchHistory(String query, int limit) {
+        return taskHistory.search(query, limit);
+    }
+
+    // Moves settled tasks past the hot window to cold storage on the calling
+    // thread and returns how many moved; initialize() already runs it in the background
+    public int moveHistoryToColdStorage(long now) {
+        return taskHistory.moveToColdStorage(now);
+    }
+
+    // Counters of settled tasks for one day, or summed over [fromDay, toDay];
+    // TaskManager adds its pending tasks' counters to them
+    DayStats getHistoryStats(long day) {
+        return taskHistory.get(day);
+    }
+
+    DayStats getHistoryStats(long fromDay, long toDay) {
+        return taskHistory.range(fromDay, toDay);
+    }
+
+    // Day lookups against settled tasks; see TaskManager.getTasksByDate. Only the
+    // matching rows are copied out, skipping tasks the caller still holds itself.
+    // Cold segments are read for days past the hot window.
+    void collectHistoryScheduledOn(long day, List<TaskItem> out, LongPredicate held) {
+        taskHistory.collectScheduledOn(day, out, held);
+    }
+
+    void collectHistoryCompletedOn(long day, List<TaskItem> out, LongPredicate held) {
+        taskHistory.collectCompletedOn(day, out, held);
+    }
 }
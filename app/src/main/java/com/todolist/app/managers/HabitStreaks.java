@@ -0,0 +1,249 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.Recurrence;
+import com.todolist.app.models.TaskItem;
+import com.todolist.app.persistence.RecordLog;
+import com.todolist.app.persistence.SnapshotFile;
+import com.todolist.app.persistence.TaskRecordCodec;
+import com.todolist.app.utils.EpochDays;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Current and best streak per habit, folded in O(1) as habit instances are
+// completed, failed or skipped, so a query never looks at history. Days are
+// local epoch days, and gaps are measured against the habit's interval (its
+// recurrence, so a weekly habit may go six days untouched):
+// - a completion within one interval of the last active day extends the streak,
+//   and a second completion on the same day changes nothing
+// - a skipped occurrence keeps the streak alive without extending it
+// - a failure, or a whole interval with neither, breaks it
+// Outcomes for days before the habit's last active day arrive too late to change
+// anything and are ignored.
+//
+// Every outcome is journaled and the streaks are snapshotted every
+// snapshotInterval outcomes, like EconomyLedger. Outcomes are idempotent, so a
+// tail replayed on top of a newer snapshot is harmless. Without a directory the
+// streaks are memory-only. Writes belong to TaskManager's writer; reads are safe
+// from any thread.
+public class HabitStreaks {
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 256;
+
+    private static final int SNAPSHOT_MAGIC = 0x48425453; // "HBTS"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    // Immutable; every outcome replaces the habit's entry
+    public static final class Streak {
+        private final String habitId;
+        private final String title;
+        private final int current;
+        private final int best;
+        private final long lastActiveDay;
+        private final long lastCompletedDay;
+        private final int intervalDays;
+
+        Streak(String habitId, String title, int current, int best, long lastActiveDay, long lastCompletedDay,
+               int intervalDays) {
+            this.habitId = habitId;
+            this.title = title;
+            this.current = current;
+            this.best = best;
+            this.lastActiveDay = lastActiveDay;
+            this.lastCompletedDay = lastCompletedDay;
+            this.intervalDays = intervalDays;
+        }
+
+        // The streak as of the given day; it has lapsed if a whole interval went by untouched
+        public int currentOn(long today) {
+            return isUnbroken(today) ? current : 0;
+        }
+
+        boolean isUnbroken(long day) {
+            return lastActiveDay != EpochDays.NONE && day - lastActiveDay <= intervalDays;
+        }
+
+        public int getCurrent() { return currentOn(EpochDays.today()); }
+        public String getHabitId() { return habitId; }
+        public String getTitle() { return title; }
+        public int getBest() { return best; }
+        public long getLastActiveDay() { return lastActiveDay; }
+        public long getLastCompletedDay() { return lastCompletedDay; }
+        public int getIntervalDays() { return intervalDays; }
+    }
+
+    private final Map<String, Streak> byHabit = new ConcurrentHashMap<>();
+    private final Map<String, String> habitIdByTitle = new ConcurrentHashMap<>();
+    private final RecordLog journal;
+    private final SnapshotFile snapshot;
+    private final int snapshotInterval;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64);
+    private final DataOutputStream bufferOut = new DataOutputStream(buffer);
+
+    public HabitStreaks() {
+        this(null, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    public HabitStreaks(File directory) {
+        this(directory, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    public HabitStreaks(File directory, int snapshotInterval) {
+        if (directory != null) {
+            this.journal = new RecordLog(new File(directory, "habits.journal"));
+            this.snapshot = new SnapshotFile(new File(directory, "habits.snapshot"), SNAPSHOT_MAGIC, SNAPSHOT_VERSION);
+        } else {
+            this.journal = null;
+            this.snapshot = null;
+        }
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    public void load() throws IOException {
+        if (journal == null) return;
+
+        byHabit.clear();
+        habitIdByTitle.clear();
+        snapshot.read(this::readSnapshot);
+        journal.replay(in -> {
+            String habitId = in.readUTF();
+            String title = in.readUTF();
+            TaskItem.TaskStatus outcome = TaskRecordCodec.readEnum(in, TaskItem.TaskStatus.values());
+            long day = in.readLong();
+            apply(habitId, title, outcome, day, in.readInt());
+        });
+    }
+
+    // Instances of a habit share an id: the first instance's task id, found again
+    // for later instances through the (case-insensitive) title
+    public String resolveHabitId(String title, String newHabitId) {
+        String existing = habitIdByTitle.putIfAbsent(titleKey(title), newHabitId);
+        return existing != null ? existing : newHabitId;
+    }
+
+    // Folds one habit instance's outcome into its streak. Pending tasks and
+    // non-habits are ignored. The streak is updated even if the write fails.
+    public Streak record(TaskItem task) throws IOException {
+        TaskItem.TaskStatus outcome = task.getStatus();
+        if (task.getType() != TaskItem.TaskType.HABIT || outcome == TaskItem.TaskStatus.PENDING) {
+            return null;
+        }
+
+        String habitId = task.getHabitId() != null ? task.getHabitId() : Long.toString(task.getId());
+        long day = outcomeDay(task);
+        int intervalDays = intervalDays(task);
+        Streak before = byHabit.get(habitId);
+        Streak after = apply(habitId, task.getTitle(), outcome, day, intervalDays);
+
+        if (journal != null && after != before) {
+            buffer.reset();
+            bufferOut.writeUTF(habitId);
+            bufferOut.writeUTF(task.getTitle());
+            bufferOut.writeByte(outcome.ordinal());
+            bufferOut.writeLong(day);
+            bufferOut.writeInt(intervalDays);
+            journal.append(buffer.toByteArray());
+            if (journal.getRecordCount() >= snapshotInterval) {
+                writeSnapshot();
+            }
+        }
+        return after;
+    }
+
+    private static long outcomeDay(TaskItem task) {
+        if (task.getStatus() == TaskItem.TaskStatus.COMPLETED && task.getCompletedDate() != null) {
+            return task.getCompletedEpochDay();
+        }
+        // A missed or skipped instance counts against the day it was due
+        return task.getDueDate() != null ? task.getDueEpochDay() : EpochDays.today();
+    }
+
+    // The days between occurrences, from the recurrence when the habit has one
+    private static int intervalDays(TaskItem task) {
+        Recurrence recurrence = task.getRecurrence();
+        return recurrence != null ? recurrence.getIntervalDays() : Math.max(1, task.getRecurringDays());
+    }
+
+    private Streak apply(String habitId, String title, TaskItem.TaskStatus outcome, long day, int intervalDays) {
+        habitIdByTitle.putIfAbsent(titleKey(title), habitId);
+        Streak streak = byHabit.get(habitId);
+        if (streak == null) {
+            streak = new Streak(habitId, title, 0, 0, EpochDays.NONE, EpochDays.NONE, intervalDays);
+        } else if (day < streak.lastActiveDay) {
+            return streak;
+        }
+
+        // The gap since the last occurrence is judged by the interval it was kept on
+        boolean unbroken = streak.isUnbroken(day);
+        Streak next;
+        switch (outcome) {
+            case COMPLETED:
+                if (day == streak.lastCompletedDay) return streak;
+                int current = unbroken && streak.current > 0 ? streak.current + 1 : 1;
+                next = new Streak(habitId, title, current, Math.max(streak.best, current), day, day, intervalDays);
+                break;
+            case SKIPPED:
+                if (day == streak.lastActiveDay) return streak;
+                next = new Streak(habitId, title, unbroken ? streak.current : 0, streak.best,
+                    day, streak.lastCompletedDay, intervalDays);
+                break;
+            case FAILED:
+                if (streak.current == 0 && day == streak.lastActiveDay) return streak;
+                next = new Streak(habitId, title, 0, streak.best, day, streak.lastCompletedDay, intervalDays);
+                break;
+            default:
+                return streak;
+        }
+        byHabit.put(habitId, next);
+        return next;
+    }
+
+    private void writeSnapshot() throws IOException {
+        Collection<Streak> streaks = byHabit.values();
+        snapshot.write(out -> {
+            out.writeInt(streaks.size());
+            for (Streak streak : streaks) {
+                out.writeUTF(streak.habitId);
+                out.writeUTF(streak.title);
+                out.writeInt(streak.current);
+                out.writeInt(streak.best);
+                out.writeLong(streak.lastActiveDay);
+                out.writeLong(streak.lastCompletedDay);
+                out.writeInt(streak.intervalDays);
+            }
+        });
+        journal.reset();
+    }
+
+    private void readSnapshot(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            Streak streak = new Streak(in.readUTF(), in.readUTF(), in.readInt(), in.readInt(),
+                in.readLong(), in.readLong(), in.readInt());
+            byHabit.put(streak.habitId, streak);
+            habitIdByTitle.putIfAbsent(titleKey(streak.title), streak.habitId);
+        }
+    }
+
+    private static String titleKey(String title) {
+        return title.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Null if no instance of the habit has been settled yet
+    public Streak get(String habitId) {
+        return byHabit.get(habitId);
+    }
+
+    public Collection<Streak> all() {
+        return byHabit.values();
+    }
+
+    public int size() {
+        return byHabit.size();
+    }
+}
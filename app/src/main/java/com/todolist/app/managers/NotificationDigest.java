@@ -0,0 +1,128 @@
+package com.todolist.app.managers;
+
+import java.util.Locale;
+
+// Collects the reminders produced by one or more evaluation passes and renders
+// them as a single message, e.g. "12 quests overdue, 3 due in 2h". Only counts
+// and the first entry are kept, so adding a reminder allocates nothing.
+class NotificationDigest {
+    enum Category {
+        OVERDUE, DUE_1H, DUE_2H, DUE_24H, REMINDER, DAILY, HABIT
+    }
+
+    // Bursts of reminders closer together than this are merged into the next digest
+    static final long MIN_INTERVAL_MS = 30000;
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final int[] counts = new int[CATEGORIES.length];
+    private int total;
+    private Category firstCategory;
+    private String firstTitle;
+    private String firstDetail;
+    private long lastTakenAt;
+
+    void add(Category category, String questTitle, String detail) {
+        if (total == 0) {
+            firstCategory = category;
+            firstTitle = questTitle;
+            firstDetail = detail;
+        }
+        counts[category.ordinal()]++;
+        total++;
+    }
+
+    boolean isEmpty() {
+        return total == 0;
+    }
+
+    int size() {
+        return total;
+    }
+
+    void clear() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = 0;
+        }
+        total = 0;
+        firstCategory = null;
+        firstTitle = null;
+        firstDetail = null;
+    }
+
+    // Renders and clears the collected reminders, unless a digest was taken less
+    // than MIN_INTERVAL_MS before now; then they stay and keep collecting
+    String take(long now) {
+        if (total == 0 || now < nextAllowedAt()) return null;
+
+        String digest = build();
+        clear();
+        lastTakenAt = now;
+        return digest;
+    }
+
+    // Earliest time take() will hand out the next digest
+    long nextAllowedAt() {
+        return lastTakenAt + MIN_INTERVAL_MS;
+    }
+
+    // A lone reminder keeps its full wording; several become one summary line
+    String build() {
+        if (total == 0) return null;
+        if (total == 1) return describe(firstCategory, firstTitle, firstDetail);
+
+        StringBuilder summary = new StringBuilder("🔔 Quest Digest\n");
+        boolean first = true;
+        for (Category category : CATEGORIES) {
+            int count = counts[category.ordinal()];
+            if (count == 0) continue;
+
+            if (!first) summary.append(", ");
+            summary.append(summarize(category, count));
+            first = false;
+        }
+        return summary.toString();
+    }
+
+    private static String describe(Category category, String title, String detail) {
+        switch (category) {
+            case OVERDUE:
+                String overdue = "💀 Overdue!\nQuest '" + title + "' is overdue! Your character is in danger!";
+                return detail != null ? overdue + "\n⚡ " + detail : overdue;
+            case DUE_1H:
+                return "🔥 Due Now!\nYour quest '" + title + "' is due within an hour!";
+            case DUE_2H:
+                return "⚠️ Due Soon!\nYour quest '" + title + "' is due in 2 hours!";
+            case DUE_24H:
+                return "📅 Due Tomorrow!\nYour quest '" + title + "' is due tomorrow!";
+            case REMINDER:
+                String reminder = "🔔 Quest Reminder!\nTime to work on: " + title;
+                return detail != null ? reminder + "\nDue: " + detail : reminder;
+            case DAILY:
+                return "🌅 Daily Quest Available!\nTime for your daily quest: " + title;
+            case HABIT:
+            default:
+                return "🔄 Habit Check!\nDon't forget your habit: " + title;
+        }
+    }
+
+    private static String summarize(Category category, int count) {
+        switch (category) {
+            case OVERDUE:
+                return String.format(Locale.getDefault(), "💀 %d %s overdue", count, count == 1 ? "quest" : "quests");
+            case DUE_1H:
+                return String.format(Locale.getDefault(), "🔥 %d due within the hour", count);
+            case DUE_2H:
+                return String.format(Locale.getDefault(), "⚠️ %d due in 2h", count);
+            case DUE_24H:
+                return String.format(Locale.getDefault(), "📅 %d due tomorrow", count);
+            case REMINDER:
+                return String.format(Locale.getDefault(), "🔔 %d %s", count, count == 1 ? "reminder" : "reminders");
+            case DAILY:
+                return String.format(Locale.getDefault(), "🌅 %d daily %s available", count, count == 1 ? "quest" : "quests");
+            case HABIT:
+            default:
+                return String.format(Locale.getDefault(), "🔄 %d habit %s", count, count == 1 ? "check" : "checks");
+        }
+    }
+}
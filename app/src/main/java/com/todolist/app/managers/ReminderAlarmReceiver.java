@@ -0,0 +1,45 @@
+package com.todolist.app.managers;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import java.io.File;
+
+// The one system alarm standing in for every persisted reminder. It is always set
+// for the earliest entry of the ReminderQueue and replaced, never added to, when
+// that changes. While ReminderManager runs it delivers reminders itself and the
+// alarm has nothing to do; otherwise the alarm started the process, and the due
+// entries at the head of the queue are shown as one digest before the alarm moves
+// on to the next entry. Alarms do not survive a reboot, so boot re-arms it too.
+public class ReminderAlarmReceiver extends BroadcastReceiver {
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        // Reading the queue is file I/O, so it runs on the manager's scheduler
+        // thread, which owns the queue; the broadcast stays open until it is done
+        PendingResult result = goAsync();
+        boolean boot = Intent.ACTION_BOOT_COMPLETED.equals(intent.getAction());
+        ReminderManager.getInstance().onAlarm(context, boot, result::finish);
+    }
+
+    static ReminderQueue queueFor(Context context) {
+        return new ReminderQueue(new File(context.getFilesDir(), "reminders"));
+    }
+
+    // Sets the alarm for fireAt, replacing any earlier one; Long.MAX_VALUE cancels it
+    static void arm(Context context, long fireAt) {
+        AlarmManager alarms = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        if (alarms == null) return;
+
+        Intent intent = new Intent(context, ReminderAlarmReceiver.class);
+        PendingIntent pending = PendingIntent.getBroadcast(context, 0, intent,
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+        if (fireAt == Long.MAX_VALUE) {
+            alarms.cancel(pending);
+        } else {
+            // Inexact is fine for reminders and needs no exact-alarm permission
+            alarms.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, fireAt, pending);
+        }
+    }
+}
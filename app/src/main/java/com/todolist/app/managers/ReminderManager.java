@@ -2,25 +2,100 @@ package com.todolist.app.managers;
 
 import android.content.Context;
 import android.os.Handler;
+import android.os.HandlerThread;
 import android.os.Looper;
+import android.os.Process;
 import android.widget.Toast;
 import com.todolist.app.models.TaskItem;
+import com.todolist.app.utils.LongMap;
+import com.todolist.app.utils.TimeLabels;
+import java.io.IOException;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
+// Reminder evaluation runs on a dedicated background thread that owns the
+// scheduler. Task changes reach it as immutable ReminderTarget snapshots, and
+// each evaluation pass hands its results back to the main thread in one post.
+// Pending events are also mirrored to a ReminderQueue on disk, with a single
+// system alarm for the earliest, so reminders still arrive after the process dies.
+// The scheduler thread is the queue's only reader and writer, for the alarm too.
+//
+// At startup only the tasks behind the next queue entries are armed; tasks whose
+// entries come later stay on disk until the scheduler catches up with them.
 public class ReminderManager {
+    // A custom reminder still fires if we are at most this late for it
+    private static final long CUSTOM_REMINDER_GRACE_MS = 60000;
+    // Queue entries whose tasks are armed per pass, at startup and each time the
+    // scheduler catches up with the tasks armed so far
+    private static final int ARM_WINDOW = 256;
+    // Scheduler changes are written to the queue at most this often
+    private static final long PERSIST_DELAY_MS = 2000;
+    // Tasks snapshotted per main-thread pass when there is no queue to start from
+    private static final int REARM_BATCH = 256;
+
     private static ReminderManager instance;
-    private Context context;
-    private Handler handler;
-    private Map<String, Runnable> activeReminders;
+    private volatile Context context;
+    private final Handler mainHandler;
+    // Started once and kept for the life of the process; shutdown() only deactivates it
+    private HandlerThread schedulerThread;
+    private volatile Handler handler; // scheduler thread
+    private final ReminderScheduler scheduler; // only touched on the scheduler thread
+    // Escalation progress per task id, kept across re-arms so thresholds never repeat;
+    // only touched on the scheduler thread
+    private final LongMap<ReminderState> dueStates = new LongMap<>();
+    // Reminder time last shown per task id, until the task is saved without it;
+    // scheduler thread only
+    private final LongMap<Long> shownReminders = new LongMap<>();
+    // Tasks the scheduler speaks for: armed, changed or removed since startup.
+    // Queue entries of any other task are still only on disk. Scheduler thread only.
+    private final LongMap<Boolean> armedTasks = new LongMap<>();
+    // Fire time of the earliest queue entry whose task is not armed, or Long.MAX_VALUE
+    private long nextUnarmedAt = Long.MAX_VALUE;
+    private boolean armingWindow;
+    // Reminders collected since the last toast; scheduler thread only
+    private final NotificationDigest pendingDigest = new NotificationDigest();
+    private final Runnable flushDigest = this::onFlushDigest;
+    // The persisted mirror of the scheduler; set on the main thread before the
+    // scheduler thread starts, then scheduler thread only
+    private ReminderQueue queue;
+    private long persistedVersion = -1;
+    private boolean persistPending;
+    // Set until startup has armed its first tasks, when the scheduler is incomplete
+    private boolean rearming;
+    private final Runnable persistQueue = this::persistQueue;
     private TaskManager taskManager;
     private GameManager gameManager;
-    private boolean isActive;
+    private volatile boolean isActive;
+    private final Runnable tick = this::onTick;
+
+    // Listener callbacks arrive on the main thread; snapshot there, evaluate on the scheduler thread
+    private final TaskManager.TaskListener taskListener = new TaskManager.TaskListener() {
+        @Override
+        public void onTaskChanged(TaskItem task) {
+            ReminderTarget target = ReminderTarget.of(task);
+            runOnScheduler(() -> {
+                long now = System.currentTimeMillis();
+                armTask(target, now, now);
+                armTimer();
+            });
+        }
+
+        @Override
+        public void onTaskRemoved(TaskItem task) {
+            long taskId = task.getId();
+            runOnScheduler(() -> {
+                scheduler.cancelAll(taskId);
+                dueStates.remove(taskId);
+                shownReminders.remove(taskId);
+                // Its entries still on disk are dropped with the next rewrite
+                armedTasks.put(taskId, Boolean.TRUE);
+                armTimer();
+            });
+        }
+    };
 
     private ReminderManager() {
-        handler = new Handler(Looper.getMainLooper());
-        activeReminders = new ConcurrentHashMap<>();
-        isActive = true;
+        mainHandler = new Handler(Looper.getMainLooper());
+        scheduler = new ReminderScheduler();
     }
 
     public static ReminderManager getInstance() {
@@ -31,226 +106,564 @@ public class ReminderManager {
     }
 
     public void initialize(Context context) {
-        this.context = context;
         this.taskManager = TaskManager.getInstance();
         this.gameManager = GameManager.getInstance();
+        isActive = true;
+        startSchedulerThread(context);
+        taskManager.addTaskListener(taskListener);
         startReminderSystem();
     }
 
-    private void startReminderSystem() {
-        // Check for reminders every minute
-        Runnable reminderChecker = new Runnable() {
-            @Override
-            public void run() {
-                if (isActive) {
-                    checkAllReminders();
-                    updateOverdueStatus();
-                    handler.postDelayed(this, 60000); // Check every minute
+    // Called by ReminderAlarmReceiver on the main thread, possibly in a process the
+    // alarm just started. A running manager delivers by itself; otherwise the due
+    // head of the queue is delivered on the scheduler thread. done runs after that.
+    void onAlarm(Context context, boolean boot, Runnable done) {
+        startSchedulerThread(context);
+        handler.post(() -> {
+            try {
+                if (!isActive) {
+                    deliverFromQueue(boot);
                 }
+            } finally {
+                done.run();
             }
-        };
-        handler.post(reminderChecker);
+        });
     }
 
-    public void scheduleReminder(TaskItem task) {
-        if (task.getReminderTime() == null || !task.hasReminder()) return;
+    private void startSchedulerThread(Context context) {
+        if (this.context == null) {
+            this.context = context.getApplicationContext();
+            this.queue = ReminderAlarmReceiver.queueFor(this.context);
+        }
+        if (schedulerThread != null) return;
 
-        cancelReminder(task.getId());
+        schedulerThread = new HandlerThread("ReminderScheduler", Process.THREAD_PRIORITY_BACKGROUND);
+        schedulerThread.start();
+        handler = new Handler(schedulerThread.getLooper());
+    }
 
-        long currentTime = System.currentTimeMillis();
-        long reminderTime = task.getReminderTime().getTime();
-        long delay = reminderTime - currentTime;
+    // Settles and shows what the queue delivered while the manager was stopped, then
+    // arms the tasks behind the next queue entries. Without a readable queue, every
+    // task is armed once instead. After that the timer only wakes up for the next
+    // scheduled event instead of scanning all tasks each minute.
+    private void startReminderSystem() {
+        runOnScheduler(() -> {
+            rearming = true;
+            armedTasks.clear();
+            nextUnarmedAt = Long.MAX_VALUE;
+            // A window left in flight by shutdown() never lands
+            armingWindow = false;
+            if (deliverMissed(System.currentTimeMillis())) {
+                armWindow();
+            } else {
+                mainHandler.post(() -> rearmBatch(taskManager.getAllTasks().iterator()));
+            }
+        });
+    }
 
-        if (delay > 0) {
-            Runnable reminderRunnable = () -> showReminder(task);
-            handler.postDelayed(reminderRunnable, delay);
-            activeReminders.put(task.getId(), reminderRunnable);
+    // Main thread: snapshots the next slice of tasks, so a large list never holds
+    // up the UI for long. The task snapshot is immutable and safe to walk across posts.
+    private void rearmBatch(Iterator<TaskItem> tasks) {
+        List<ReminderTarget> targets = new ArrayList<>(REARM_BATCH);
+        while (tasks.hasNext() && targets.size() < REARM_BATCH) {
+            TaskItem task = tasks.next();
+            // Removed since the snapshot was taken; the listener has already cancelled it
+            if (taskManager.getTask(task.getId()) != task) continue;
+            targets.add(ReminderTarget.of(task));
         }
-    }
+        boolean last = !tasks.hasNext();
 
-    public void cancelReminder(String taskId) {
-        Runnable reminder = activeReminders.remove(taskId);
-        if (reminder != null) {
-            handler.removeCallbacks(reminder);
+        runOnScheduler(() -> {
+            long now = System.currentTimeMillis();
+            for (ReminderTarget target : targets) {
+                armTask(target, now, now);
+            }
+            if (last) {
+                rearming = false;
+            }
+            armTimer();
+        });
+        if (!last) {
+            mainHandler.post(() -> rearmBatch(tasks));
         }
     }
 
-    private void checkAllReminders() {
-        if (taskManager == null) return;
-
-        List<TaskItem> allTasks = taskManager.getAllTasks();
-        Date currentTime = new Date();
-
-        for (TaskItem task : allTasks) {
-            if (task.getStatus() != TaskItem.TaskStatus.PENDING) continue;
-
-            // Check for due date reminders
-            if (task.getDueDate() != null) {
-                checkDueDateReminders(task, currentTime);
+    // Arms the tasks behind the next ARM_WINDOW queue entries the scheduler does not
+    // speak for yet, snapshotted on the main thread. Each is armed as of just before
+    // its first entry, so that entry still fires if the window comes late.
+    private void armWindow() {
+        List<ReminderQueue.Entry> entries;
+        try {
+            entries = queue.readUpcoming(ARM_WINDOW + 1, armedTasks::containsKey);
+        } catch (IOException e) {
+            System.err.println("ReminderManager: failed to read reminder queue - " + e);
+            nextUnarmedAt = Long.MAX_VALUE;
+            rearming = false;
+            armTimer();
+            return;
+        }
+        long following = entries.size() > ARM_WINDOW ? entries.remove(ARM_WINDOW).fireAt : Long.MAX_VALUE;
+
+        armingWindow = true;
+        mainHandler.post(() -> {
+            List<ReminderTarget> targets = new ArrayList<>(entries.size());
+            for (ReminderQueue.Entry entry : entries) {
+                TaskItem task = taskManager.getTask(entry.taskId);
+                targets.add(task != null ? ReminderTarget.of(task) : null);
             }
+            runOnScheduler(() -> {
+                armingWindow = false;
+                long now = System.currentTimeMillis();
+                for (int i = 0; i < entries.size(); i++) {
+                    ReminderQueue.Entry entry = entries.get(i);
+                    // Armed by an earlier entry or by a newer snapshot from the listener
+                    if (armedTasks.containsKey(entry.taskId)) continue;
+
+                    ReminderTarget target = targets.get(i);
+                    if (target != null) {
+                        armTask(target, now, Math.min(now, entry.fireAt - 1));
+                    } else {
+                        // Gone with the process; its entries are dropped with the next rewrite
+                        armedTasks.put(entry.taskId, Boolean.TRUE);
+                    }
+                }
+                nextUnarmedAt = following;
+                rearming = false;
+                armTimer();
+            });
+        });
+    }
 
-            // Check for custom reminders
-            if (task.hasReminder() && task.getReminderTime() != null) {
-                checkCustomReminder(task, currentTime);
+    // Records what was delivered from the queue while the manager was stopped and
+    // shows what came due since, moving the alarm past it. Both are settled on the
+    // tasks, so arming them afterwards repeats neither. Returns false if there is
+    // no readable queue.
+    private boolean deliverMissed(long now) {
+        List<ReminderQueue.Entry> delivered = new ArrayList<>();
+        ReminderQueue.Visitor settle = entry -> {
+            recordDelivered(entry);
+            if (entry.category == NotificationDigest.Category.REMINDER
+                || entry.category == NotificationDigest.Category.OVERDUE) {
+                delivered.add(entry);
             }
-
-            // Check for recurring reminders
-            if (task.isRecurring()) {
-                checkRecurringReminder(task, currentTime);
+        };
+        try {
+            if (!queue.exists()) return false;
+
+            queue.forEachDelivered(settle);
+            long next = queue.deliverDue(now, entry -> {
+                settle.visit(entry);
+                pendingDigest.add(entry.category, entry.title, ReminderQueue.detailOf(entry, now));
+            });
+            ReminderAlarmReceiver.arm(context, next);
+        } catch (IOException e) {
+            System.err.println("ReminderManager: failed to read reminder queue - " + e);
+            return false;
+        } finally {
+            if (!delivered.isEmpty()) {
+                mainHandler.post(() -> settleDelivered(delivered));
+            }
+            if (!pendingDigest.isEmpty()) {
+                handler.post(flushDigest);
             }
         }
+        return true;
     }
 
-    private void checkDueDateReminders(TaskItem task, Date currentTime) {
-        if (task.getDueDate() == null) return;
+    // With the manager stopped: shows the due head of the queue as one digest and
+    // moves the alarm to the next entry. A reminder missed while the device was off
+    // is delivered by the alarm boot sets for it.
+    private void deliverFromQueue(boolean boot) {
+        long now = System.currentTimeMillis();
+        NotificationDigest digest = new NotificationDigest();
+        long next;
+        try {
+            next = boot ? queue.nextFireTime() : queue.deliverDue(now, entry -> {
+                recordDelivered(entry);
+                digest.add(entry.category, entry.title, ReminderQueue.detailOf(entry, now));
+            });
+        } catch (IOException e) {
+            System.err.println("ReminderManager: failed to read reminder queue - " + e);
+            return;
+        }
+        Context currentContext = context;
+        ReminderAlarmReceiver.arm(currentContext, next);
 
-        long timeUntilDue = task.getDueDate().getTime() - currentTime.getTime();
-        long hours = timeUntilDue / (1000 * 60 * 60);
+        String message = digest.build();
+        if (message != null) {
+            // A toast stands in for a proper notification, as in deliverResults
+            mainHandler.post(() -> Toast.makeText(currentContext, message, Toast.LENGTH_LONG).show());
+        }
+    }
 
-        // Remind at different intervals based on urgency
-        if (hours == 24) {
-            showUrgencyReminder(task, "📅 Due Tomorrow!", "Your quest '" + task.getTitle() + "' is due tomorrow!");
-        } else if (hours == 2) {
-            showUrgencyReminder(task, "⚠️ Due Soon!", "Your quest '" + task.getTitle() + "' is due in 2 hours!");
-        } else if (hours == 0 && timeUntilDue > 0 && timeUntilDue <= 60 * 60 * 1000) {
-            showUrgencyReminder(task, "🔥 Due Now!", "Your quest '" + task.getTitle() + "' is due within an hour!");
-        } else if (timeUntilDue < 0) {
-            showUrgencyReminder(task, "💀 Overdue!", "Quest '" + task.getTitle() + "' is overdue! Your character is in danger!");
+    // A threshold or reminder delivered from the queue counts as announced, so
+    // re-arming the task does not announce it again
+    private void recordDelivered(ReminderQueue.Entry entry) {
+        switch (entry.category) {
+            case REMINDER:
+                shownReminders.put(entry.taskId, entry.fireAt);
+                break;
+            case DUE_24H:
+            case DUE_2H:
+            case DUE_1H:
+            case OVERDUE:
+                ReminderState state = dueStates.get(entry.taskId);
+                if (state != null && state.isFor(entry.dueAt)) {
+                    state.advance(entry.fireAt);
+                }
+                break;
+            default:
+                break;
         }
     }
 
-    private void checkCustomReminder(TaskItem task, Date currentTime) {
-        long timeDiff = Math.abs(task.getReminderTime().getTime() - currentTime.getTime());
+    public void scheduleReminder(TaskItem task) {
+        if (task.getReminderTime() == null || !task.hasReminder()) return;
 
-        // If within 1 minute of reminder time
-        if (timeDiff <= 60000) {
-            showReminder(task);
-            task.setHasReminder(false); // Mark as shown
+        ReminderTarget target = ReminderTarget.of(task);
+        runOnScheduler(() -> {
+            scheduler.cancel(target.taskId, ReminderScheduler.Kind.CUSTOM);
+            if (target.reminderAt > System.currentTimeMillis()) {
+                scheduler.schedule(target, ReminderScheduler.Kind.CUSTOM, target.reminderAt);
+            }
+            armTimer();
+        });
+    }
+
+    public void cancelReminder(long taskId) {
+        runOnScheduler(() -> {
+            scheduler.cancel(taskId, ReminderScheduler.Kind.CUSTOM);
+            armTimer();
+        });
+    }
+
+    private void runOnScheduler(Runnable work) {
+        Handler schedulerHandler = handler;
+        if (schedulerHandler != null) {
+            schedulerHandler.post(work);
         }
     }
 
-    private void checkRecurringReminder(TaskItem task, Date currentTime) {
-        if (task.getType() == TaskItem.TaskType.DAILY_ACTIVITY) {
-            // Daily reminder at 9 AM
-            Calendar cal = Calendar.getInstance();
-            if (cal.get(Calendar.HOUR_OF_DAY) == 9 && cal.get(Calendar.MINUTE) == 0) {
-                showRecurringReminder(task, "🌅 Daily Quest Available!",
-                    "Time for your daily quest: " + task.getTitle());
+    // Events are worked out as of asOf, which is now except for tasks armed late
+    // from the queue, whose first pending entry must still fire
+    private void armTask(ReminderTarget target, long now, long asOf) {
+        armedTasks.put(target.taskId, Boolean.TRUE);
+        scheduler.cancelAll(target.taskId);
+        if (!target.pending || target.dueAt == ReminderTarget.NO_TIME) {
+            dueStates.remove(target.taskId);
+        }
+        if (!target.pending || !target.hasReminder) {
+            shownReminders.remove(target.taskId);
+        }
+        if (!target.pending) return;
+
+        if (target.dueAt != ReminderTarget.NO_TIME) {
+            ReminderState state = dueStates.get(target.taskId);
+            if (state == null || !state.isFor(target.dueAt)) {
+                // New or moved due date: restart escalation from where the clock is now
+                state = new ReminderState(target.dueAt, asOf, target.overdue);
+                dueStates.put(target.taskId, state);
             }
-        } else if (task.getType() == TaskItem.TaskType.HABIT) {
-            // Habit reminder every few hours
-            Calendar cal = Calendar.getInstance();
-            int hour = cal.get(Calendar.HOUR_OF_DAY);
-            if ((hour == 10 || hour == 14 || hour == 18) && cal.get(Calendar.MINUTE) == 0) {
-                showRecurringReminder(task, "🔄 Habit Check!",
-                    "Don't forget your habit: " + task.getTitle());
+            scheduleNextDueThreshold(target, state, now);
+        }
+
+        if (target.hasReminder && target.reminderAt != ReminderTarget.NO_TIME && !wasShown(target)) {
+            if (target.reminderAt + CUSTOM_REMINDER_GRACE_MS >= asOf) {
+                scheduler.schedule(target, ReminderScheduler.Kind.CUSTOM, Math.max(target.reminderAt, now));
             }
         }
+
+        if (target.recurrence != null) {
+            scheduleNextRecurring(target, asOf);
+        }
     }
 
-    private void updateOverdueStatus() {
-        if (taskManager == null) return;
+    // Whether this reminder time was already shown, while the task saying so may
+    // not have been saved yet
+    private boolean wasShown(ReminderTarget target) {
+        Long shownAt = shownReminders.get(target.taskId);
+        if (shownAt == null) return false;
+        if (target.reminderAt <= shownAt) return true;
 
-        List<TaskItem> allTasks = taskManager.getAllTasks();
-        for (TaskItem task : allTasks) {
-            task.updateOverdueStatus();
+        shownReminders.remove(target.taskId);
+        return false;
+    }
 
-            if (task.isOverdue() && task.getStatus() == TaskItem.TaskStatus.PENDING) {
-                // Apply overdue penalty
-                applyOverduePenalty(task);
-            }
+    private void scheduleNextDueThreshold(ReminderTarget target, ReminderState state, long now) {
+        long next = state.getNextThresholdAt();
+        if (next != Long.MAX_VALUE) {
+            scheduler.schedule(target, ReminderScheduler.Kind.DUE, Math.max(next, now));
         }
     }
 
-    private void applyOverduePenalty(TaskItem task) {
-        if (gameManager != null) {
-            // Increase penalty for overdue tasks
-            int overduePenalty = task.getCoinPenalty() / 2;
-            // Apply gradual penalty but don't complete the task
-            showUrgencyReminder(task, "⚡ Overdue Penalty!",
-                "Lost " + overduePenalty + " coins for overdue quest: " + task.getTitle());
+    // Only the next reminder of the series is ever queued; firing it queues the one after
+    private void scheduleNextRecurring(ReminderTarget target, long now) {
+        long next = target.recurrence.nextReminderAfter(now);
+        scheduler.schedule(target, ReminderScheduler.Kind.RECURRING, next);
+    }
+
+    // Posts a single wake-up for the earliest pending event
+    private void armTimer() {
+        handler.removeCallbacks(tick);
+        if (!persistPending && !rearming && scheduler.version() != persistedVersion) {
+            persistPending = true;
+            handler.postDelayed(persistQueue, PERSIST_DELAY_MS);
+        }
+        if (!isActive) return;
+
+        long next = scheduler.nextFireTime();
+        // Caught up with the armed tasks: arm the next ones before their entries come due
+        if (nextUnarmedAt != Long.MAX_VALUE && next >= nextUnarmedAt && !armingWindow) {
+            armWindow();
+        }
+        if (next != Long.MAX_VALUE) {
+            handler.postDelayed(tick, Math.max(0, next - System.currentTimeMillis()));
         }
     }
 
-    private void showReminder(TaskItem task) {
-        if (context == null) return;
+    // Work per wake-up is proportional to the events that are due, not to the task count
+    private void onTick() {
+        if (!isActive) return;
+
+        long now = System.currentTimeMillis();
+        List<TaskItem> becameOverdue = new ArrayList<>();
+        List<TaskItem> remindersShown = new ArrayList<>();
+
+        for (ReminderScheduler.Event event : scheduler.pollDue(now)) {
+            ReminderTarget target = event.target;
+            switch (event.kind) {
+                case DUE:
+                    ReminderState state = dueStates.get(target.taskId);
+                    if (state == null) break;
+
+                    ReminderState.Stage reached = state.advance(now);
+                    if (reached != null) {
+                        fireDueThreshold(target, reached);
+                        if (reached == ReminderState.Stage.OVERDUE) {
+                            becameOverdue.add(target.task);
+                        }
+                    }
+                    scheduleNextDueThreshold(target, state, now);
+                    break;
+                case CUSTOM:
+                    showReminder(target, now);
+                    shownReminders.put(target.taskId, target.reminderAt);
+                    remindersShown.add(target.task);
+                    break;
+                case RECURRING:
+                    fireRecurringReminder(target);
+                    scheduleNextRecurring(target, now);
+                    break;
+            }
+        }
+        armTimer();
 
-        String title = "🔔 Quest Reminder!";
-        String message = "Time to work on: " + task.getTitle();
+        String digest = takeDigestIfAllowed(now);
+        if (digest != null || !becameOverdue.isEmpty() || !remindersShown.isEmpty()) {
+            mainHandler.post(() -> deliverResults(digest, becameOverdue, remindersShown));
+        }
+    }
 
-        if (task.getDueDate() != null) {
-            message += "\nDue: " + task.getTimeUntilDue();
+    // Rewrites the queue from the scheduler and points the system alarm at its head.
+    // Only each task's next events are pending, so the queue holds no more than
+    // those, plus the entries of tasks not armed yet, carried over as they are.
+    private void persistQueue() {
+        persistPending = false;
+        Context currentContext = context;
+        if (rearming || queue == null || currentContext == null) return;
+
+        long version = scheduler.version();
+        List<ReminderQueue.Entry> entries = new ArrayList<>(scheduler.size());
+        for (ReminderScheduler.Event event : scheduler.liveEvents()) {
+            addEntries(event, entries);
         }
+        try {
+            if (nextUnarmedAt != Long.MAX_VALUE || armingWindow) {
+                queue.forEachUpcoming(entry -> {
+                    if (!armedTasks.containsKey(entry.taskId)) {
+                        entries.add(entry);
+                    }
+                });
+            }
+            queue.write(entries);
+        } catch (IOException e) {
+            System.err.println("ReminderManager: failed to save reminder queue - " + e);
+            return;
+        }
+        persistedVersion = version;
+        long first = Long.MAX_VALUE;
+        for (ReminderQueue.Entry entry : entries) {
+            first = Math.min(first, entry.fireAt);
+        }
+        ReminderAlarmReceiver.arm(currentContext, first);
+    }
 
-        showNotification(title, message, task);
+    // The digest lines an event will produce when it fires. A due event stands for
+    // every threshold still ahead, so escalation goes on from the queue while the
+    // process is gone.
+    private void addEntries(ReminderScheduler.Event event, List<ReminderQueue.Entry> entries) {
+        ReminderTarget target = event.target;
+        switch (event.kind) {
+            case DUE:
+                ReminderState state = dueStates.get(target.taskId);
+                if (state == null) return;
+
+                for (ReminderState.Stage stage : state.getStagesAhead()) {
+                    String detail = stage == ReminderState.Stage.OVERDUE ? overduePenaltyDetail(target) : null;
+                    long fireAt = Math.max(state.getThresholdAt(stage), event.fireAt);
+                    entries.add(new ReminderQueue.Entry(fireAt, target.taskId, categoryOf(stage),
+                        target.title, detail, target.dueAt));
+                }
+                break;
+            case CUSTOM:
+                entries.add(new ReminderQueue.Entry(event.fireAt, target.taskId, NotificationDigest.Category.REMINDER,
+                    target.title, null, target.dueAt));
+                break;
+            case RECURRING:
+                entries.add(new ReminderQueue.Entry(event.fireAt, target.taskId, recurringCategory(target),
+                    target.title, null, target.dueAt));
+                break;
+        }
     }
 
-    private void showUrgencyReminder(TaskItem task, String title, String message) {
-        if (context == null) return;
-        showNotification(title, message, task);
+    // Returns the pending digest unless one was shown too recently, in which case
+    // it keeps collecting and a flush is scheduled for when the window reopens
+    private String takeDigestIfAllowed(long now) {
+        String digest = pendingDigest.take(now);
+        if (digest == null && !pendingDigest.isEmpty()) {
+            handler.removeCallbacks(flushDigest);
+            handler.postDelayed(flushDigest, pendingDigest.nextAllowedAt() - now);
+        }
+        return digest;
     }
 
-    private void showRecurringReminder(TaskItem task, String title, String message) {
-        if (context == null) return;
-        showNotification(title, message, task);
+    private void onFlushDigest() {
+        if (!isActive) return;
+
+        String digest = takeDigestIfAllowed(System.currentTimeMillis());
+        if (digest != null) {
+            mainHandler.post(() -> deliverResults(digest, Collections.emptyList(), Collections.emptyList()));
+        }
     }
 
-    private void showNotification(String title, String message, TaskItem task) {
+    // Main thread: apply task state changes and show at most one toast per pass.
+    // Changes go through TaskManager so they are journaled: a task saved as overdue
+    // is not announced again after a restart, nor a reminder saved as shown.
+    private void deliverResults(String digest, List<TaskItem> becameOverdue,
+                                List<TaskItem> remindersShown) {
+        for (TaskItem task : becameOverdue) {
+            if (!isStored(task)) continue;
+            task.updateOverdueStatus();
+            taskManager.updateTask(task);
+        }
+        for (TaskItem task : remindersShown) {
+            if (!isStored(task)) continue;
+            task.setHasReminder(false); // Mark as shown
+            taskManager.updateTask(task);
+        }
+
+        Context currentContext = context;
+        if (digest == null || currentContext == null) return;
         // Show toast notification (in a real app, you'd use proper notifications)
-        handler.post(() -> {
-            if (context != null) {
-                String fullMessage = title + "\n" + message;
-                Toast.makeText(context, fullMessage, Toast.LENGTH_LONG).show();
+        Toast.makeText(currentContext, digest, Toast.LENGTH_LONG).show();
+    }
+
+    // Main thread: the same for what was delivered from the queue, matched by id
+    // since only the entries are left. A task changed since no longer matches.
+    private void settleDelivered(List<ReminderQueue.Entry> delivered) {
+        for (ReminderQueue.Entry entry : delivered) {
+            TaskItem task = taskManager.getTask(entry.taskId);
+            if (task == null || task.getStatus() != TaskItem.TaskStatus.PENDING) continue;
+
+            if (entry.category == NotificationDigest.Category.OVERDUE) {
+                if (task.isOverdue() || task.getDueDate() == null || task.getDueDate().getTime() != entry.dueAt) continue;
+                task.updateOverdueStatus();
+            } else {
+                if (!task.hasReminder() || task.getReminderTime() == null
+                    || task.getReminderTime().getTime() > entry.fireAt) continue;
+                task.setHasReminder(false); // Mark as shown
             }
-        });
+            taskManager.updateTask(task);
+        }
+    }
 
-        // Log reminder for debugging
-        System.out.println("REMINDER: " + title + " - " + message);
+    // False once the task was removed after the event fired; updating it would add it back
+    private boolean isStored(TaskItem task) {
+        return taskManager != null && taskManager.getTask(task.getId()) == task;
     }
 
-    public List<TaskItem> getUpcomingTasks(int hoursAhead) {
-        List<TaskItem> upcomingTasks = new ArrayList<>();
-        if (taskManager == null) return upcomingTasks;
+    private void fireDueThreshold(ReminderTarget target, ReminderState.Stage stage) {
+        String detail = stage == ReminderState.Stage.OVERDUE ? overduePenaltyDetail(target) : null;
+        pendingDigest.add(categoryOf(stage), target.title, detail);
+    }
 
-        long currentTime = System.currentTimeMillis();
-        long timeAhead = hoursAhead * 60 * 60 * 1000;
+    private static NotificationDigest.Category categoryOf(ReminderState.Stage stage) {
+        switch (stage) {
+            case DUE_24H: return NotificationDigest.Category.DUE_24H;
+            case DUE_2H: return NotificationDigest.Category.DUE_2H;
+            case DUE_1H: return NotificationDigest.Category.DUE_1H;
+            case OVERDUE: return NotificationDigest.Category.OVERDUE;
+            default: throw new IllegalArgumentException("No announcement for " + stage);
+        }
+    }
 
-        for (TaskItem task : taskManager.getAllTasks()) {
-            if (task.getStatus() != TaskItem.TaskStatus.PENDING) continue;
+    private void fireRecurringReminder(ReminderTarget target) {
+        pendingDigest.add(recurringCategory(target), target.title, null);
+    }
 
-            if (task.getDueDate() != null) {
-                long timeToDue = task.getDueDate().getTime() - currentTime;
-                if (timeToDue > 0 && timeToDue <= timeAhead) {
-                    upcomingTasks.add(task);
-                }
-            }
-        }
+    private static NotificationDigest.Category recurringCategory(ReminderTarget target) {
+        return target.type == TaskItem.TaskType.DAILY_ACTIVITY
+            ? NotificationDigest.Category.DAILY
+            : NotificationDigest.Category.HABIT;
+    }
 
-        // Sort by due date
-        upcomingTasks.sort((t1, t2) -> t1.getDueDate().compareTo(t2.getDueDate()));
-        return upcomingTasks;
+    private String overduePenaltyDetail(ReminderTarget target) {
+        if (gameManager == null) return null;
+        // Increase penalty for overdue tasks
+        int overduePenalty = target.coinPenalty / 2;
+        // Apply gradual penalty but don't complete the task
+        return "Lost " + overduePenalty + " coins for overdue quest";
     }
 
-    public List<TaskItem> getOverdueTasks() {
-        List<TaskItem> overdueTasks = new ArrayList<>();
-        if (taskManager == null) return overdueTasks;
+    private void showReminder(ReminderTarget target, long now) {
+        String due = target.dueAt != ReminderTarget.NO_TIME
+            ? TimeLabels.untilDue(target.taskId, target.dueAt, now)
+            : null;
+        pendingDigest.add(NotificationDigest.Category.REMINDER, target.title, due);
+    }
 
-        for (TaskItem task : taskManager.getAllTasks()) {
-            if (task.getStatus() == TaskItem.TaskStatus.PENDING && task.isOverdue()) {
-                overdueTasks.add(task);
-            }
-        }
+    public List<TaskItem> getUpcomingTasks(int hoursAhead) {
+        if (taskManager == null) return new ArrayList<>();
+        return taskManager.getTasksDueWithin(System.currentTimeMillis(), hoursAhead * 60L * 60 * 1000);
+    }
 
-        return overdueTasks;
+    public List<TaskItem> getOverdueTasks() {
+        if (taskManager == null) return new ArrayList<>();
+        return taskManager.getOverdueTasks();
     }
 
     public void setActive(boolean active) {
         this.isActive = active;
+        runOnScheduler(this::armTimer);
     }
 
     public void shutdown() {
         isActive = false;
-        handler.removeCallbacksAndMessages(null);
-        activeReminders.clear();
+        if (taskManager != null) {
+            taskManager.removeTaskListener(taskListener);
+        }
+        mainHandler.removeCallbacksAndMessages(null);
+        runOnScheduler(() -> {
+            handler.removeCallbacks(tick);
+            handler.removeCallbacks(flushDigest);
+            handler.removeCallbacks(persistQueue);
+            // Save before clearing: from here on the system alarm delivers from the queue
+            persistQueue();
+            scheduler.clear();
+            persistedVersion = scheduler.version();
+            pendingDigest.clear();
+            armedTasks.clear();
+            nextUnarmedAt = Long.MAX_VALUE;
+        });
     }
 }
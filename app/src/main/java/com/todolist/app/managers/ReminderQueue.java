@@ -0,0 +1,343 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.persistence.SnapshotFile;
+import com.todolist.app.persistence.TaskRecordCodec;
+import com.todolist.app.utils.TimeLabels;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongPredicate;
+
+// Upcoming reminders on disk, earliest first, so they outlive the process that
+// scheduled them. ReminderManager owns the file: it rewrites it from its
+// scheduler, and when the alarm starts the process it delivers what is due from
+// the head and finds the next alarm time. Reading stops after the entries asked
+// for, so the cost of a wake-up does not grow with the number of scheduled
+// reminders.
+//
+// Entries delivered from the file are not removed from it; a small cursor file
+// records the byte offset just past the last one, and readers seek straight
+// there. Every written queue gets a new random generation, and a cursor of
+// another generation is ignored, so rewriting the queue forgets what was
+// delivered. Not thread-safe: callers confine it to one thread.
+class ReminderQueue {
+    private static final int MAGIC = 0x524D4451; // "RMDQ"
+    private static final int CURSOR_MAGIC = 0x524D4443; // "RMDC"
+    private static final int VERSION = 2;
+    // Magic, version, generation and entry count
+    private static final long HEADER_BYTES = 4 + 4 + 8 + 4;
+
+    static final Comparator<Entry> ORDER = (a, b) -> {
+        if (a.fireAt != b.fireAt) return Long.compare(a.fireAt, b.fireAt);
+        if (a.taskId != b.taskId) return Long.compare(a.taskId, b.taskId);
+        return Integer.compare(a.category.ordinal(), b.category.ordinal());
+    };
+
+    interface Visitor {
+        void visit(Entry entry);
+    }
+
+    static final class Entry {
+        final long fireAt;
+        final long taskId;
+        final NotificationDigest.Category category;
+        final String title;
+        // Extra line for the digest, or null; reminders work out their due label when shown
+        final String detail;
+        final long dueAt;
+
+        Entry(long fireAt, long taskId, NotificationDigest.Category category, String title, String detail, long dueAt) {
+            this.fireAt = fireAt;
+            this.taskId = taskId;
+            this.category = category;
+            this.title = title;
+            this.detail = detail;
+            this.dueAt = dueAt;
+        }
+    }
+
+    private static final NotificationDigest.Category[] CATEGORIES = NotificationDigest.Category.values();
+
+    private final File directory;
+    private final SnapshotFile queue;
+    private final SnapshotFile cursor;
+
+    ReminderQueue(File directory) {
+        this.directory = directory;
+        this.queue = new SnapshotFile(new File(directory, "queue"), MAGIC, VERSION);
+        this.cursor = new SnapshotFile(new File(directory, "delivered"), CURSOR_MAGIC, VERSION);
+    }
+
+    // Whether a queue was ever written here, readable or not
+    boolean exists() {
+        return queue.getFile().exists();
+    }
+
+    // Replaces the whole queue. If the process dies before the old cursor is
+    // removed, its generation no longer matches and it is ignored.
+    void write(List<Entry> entries) throws IOException {
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(ORDER);
+        long generation = ThreadLocalRandom.current().nextLong();
+        directory.mkdirs();
+        queue.write(out -> {
+            out.writeLong(generation);
+            out.writeInt(sorted.size());
+            for (Entry entry : sorted) {
+                out.writeLong(entry.fireAt);
+                out.writeLong(entry.taskId);
+                out.writeByte(entry.category.ordinal());
+                TaskRecordCodec.writeString(out, entry.title);
+                TaskRecordCodec.writeString(out, entry.detail);
+                out.writeLong(entry.dueAt);
+            }
+        });
+        cursor.getFile().delete();
+    }
+
+    // The first undelivered entries, at most limit of them
+    List<Entry> readUpcoming(int limit) throws IOException {
+        return readUpcoming(limit, taskId -> false);
+    }
+
+    // The first undelivered entries of tasks that skipped does not match, at most
+    // limit of them; entries of skipped tasks are read past without counting
+    List<Entry> readUpcoming(int limit, LongPredicate skipped) throws IOException {
+        List<Entry> upcoming = new ArrayList<>(Math.min(limit, 64));
+        try (Walk walk = Walk.open(this)) {
+            if (walk == null) return upcoming;
+
+            walk.skipDelivered();
+            while (walk.hasNext() && upcoming.size() < limit) {
+                Entry entry = walk.next();
+                if (!skipped.test(entry.taskId)) {
+                    upcoming.add(entry);
+                }
+            }
+        }
+        return upcoming;
+    }
+
+    // Every undelivered entry, in order
+    void forEachUpcoming(Visitor visitor) throws IOException {
+        try (Walk walk = Walk.open(this)) {
+            if (walk == null) return;
+
+            walk.skipDelivered();
+            while (walk.hasNext()) {
+                visitor.visit(walk.next());
+            }
+        }
+    }
+
+    // Every entry already delivered from the current queue, in order
+    void forEachDelivered(Visitor visitor) throws IOException {
+        try (Walk walk = Walk.open(this)) {
+            if (walk == null) return;
+
+            int delivered = walk.deliveredCount();
+            while (walk.index < delivered) {
+                visitor.visit(walk.next());
+            }
+        }
+    }
+
+    // Hands the undelivered entries due at or before now to the visitor in one
+    // sequential read, then records them as delivered with a single cursor write.
+    // Returns when the next one is due, or Long.MAX_VALUE.
+    long deliverDue(long now, Visitor visitor) throws IOException {
+        try (Walk walk = Walk.open(this)) {
+            if (walk == null) return Long.MAX_VALUE;
+
+            walk.skipDelivered();
+            int start = walk.index;
+            int delivered = start;
+            long deliveredThrough = walk.offset();
+            long next = Long.MAX_VALUE;
+            while (walk.hasNext()) {
+                Entry entry = walk.next();
+                if (entry.fireAt > now) {
+                    next = entry.fireAt;
+                    break;
+                }
+                visitor.visit(entry);
+                delivered = walk.index;
+                deliveredThrough = walk.offset();
+            }
+            if (delivered > start) {
+                writeCursor(walk.generation, deliveredThrough, delivered);
+            }
+            return next;
+        }
+    }
+
+    // Fire time of the first undelivered entry, or Long.MAX_VALUE
+    long nextFireTime() throws IOException {
+        List<Entry> first = readUpcoming(1);
+        return first.isEmpty() ? Long.MAX_VALUE : first.get(0).fireAt;
+    }
+
+    static String detailOf(Entry entry, long now) {
+        if (entry.category == NotificationDigest.Category.REMINDER && entry.dueAt != ReminderTarget.NO_TIME) {
+            return TimeLabels.untilDue(entry.taskId, entry.dueAt, now);
+        }
+        return entry.detail;
+    }
+
+    private void writeCursor(long generation, long offset, int delivered) throws IOException {
+        cursor.write(out -> {
+            out.writeLong(generation);
+            out.writeLong(offset);
+            out.writeInt(delivered);
+        });
+    }
+
+    // The cursor of the given generation as {offset, delivered count}, or null.
+    // An unreadable cursor only means entries are delivered again, so it is ignored.
+    private long[] readCursor(long generation) {
+        long[] position = new long[2];
+        boolean[] matches = new boolean[1];
+        try {
+            cursor.read(in -> {
+                matches[0] = in.readLong() == generation;
+                position[0] = in.readLong();
+                position[1] = in.readInt();
+            });
+        } catch (IOException e) {
+            System.err.println("ReminderQueue: ignoring unreadable cursor - " + e);
+            return null;
+        }
+        return matches[0] ? position : null;
+    }
+
+    private static Entry readEntry(DataInputStream in) throws IOException {
+        long fireAt = in.readLong();
+        long taskId = in.readLong();
+        NotificationDigest.Category category = TaskRecordCodec.readEnum(in, CATEGORIES);
+        String title = TaskRecordCodec.readString(in);
+        String detail = TaskRecordCodec.readString(in);
+        return new Entry(fireAt, taskId, category, title, detail, in.readLong());
+    }
+
+    // One pass over the queue file. The file is opened directly rather than
+    // through SnapshotFile.read so the pass can seek to the cursor.
+    private static final class Walk implements Closeable {
+        private final FileInputStream file;
+        private final long[] cursor;
+        final long generation;
+        private final int count;
+        private long base;
+        private CountingInputStream counted;
+        private DataInputStream in;
+        // Entries before the read position
+        int index;
+
+        private Walk(FileInputStream file, long generation, int count, long[] cursor) {
+            this.file = file;
+            this.generation = generation;
+            this.count = count;
+            this.cursor = cursor;
+            readFrom(HEADER_BYTES, 0);
+        }
+
+        // Null when no queue was written yet
+        static Walk open(ReminderQueue owner) throws IOException {
+            File path = owner.queue.getFile();
+            if (!path.exists()) return null;
+
+            FileInputStream file = new FileInputStream(path);
+            try {
+                DataInputStream header = new DataInputStream(file);
+                if (header.readInt() != MAGIC) {
+                    throw new IOException("Not a reminder queue: " + path);
+                }
+                int version = header.readInt();
+                if (version != VERSION) {
+                    throw new IOException("Unsupported reminder queue version " + version + " in " + path);
+                }
+                long generation = header.readLong();
+                int count = header.readInt();
+                return new Walk(file, generation, count, owner.readCursor(generation));
+            } catch (IOException | RuntimeException e) {
+                file.close();
+                throw e;
+            }
+        }
+
+        int deliveredCount() {
+            return cursor != null ? (int) cursor[1] : 0;
+        }
+
+        void skipDelivered() throws IOException {
+            if (cursor == null) return;
+            file.getChannel().position(cursor[0]);
+            readFrom(cursor[0], (int) cursor[1]);
+        }
+
+        boolean hasNext() {
+            return index < count;
+        }
+
+        Entry next() throws IOException {
+            Entry entry = readEntry(in);
+            index++;
+            return entry;
+        }
+
+        // File offset just past the last entry read
+        long offset() {
+            return base + counted.count;
+        }
+
+        private void readFrom(long offset, int entryIndex) {
+            base = offset;
+            index = entryIndex;
+            counted = new CountingInputStream(new BufferedInputStream(file));
+            in = new DataInputStream(counted);
+        }
+
+        @Override
+        public void close() throws IOException {
+            file.close();
+        }
+    }
+
+    // Counts the bytes handed to the reader, which the buffer below may have read ahead of
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) count += read;
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.utils.LongMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Min-heap of upcoming reminder events ordered by fire time. Each task holds at
+// most one pending event per kind; rescheduling or cancelling marks the old
+// event dead and it is dropped when it reaches the top of the heap.
+// Not thread-safe: ReminderManager confines it to its scheduler thread.
+class ReminderScheduler {
+    enum Kind {
+        DUE, CUSTOM, RECURRING
+    }
+
+    static final class Event {
+        final ReminderTarget target;
+        final long taskId;
+        final Kind kind;
+        final long fireAt;
+        private boolean cancelled;
+
+        Event(ReminderTarget target, Kind kind, long fireAt) {
+            this.target = target;
+            this.taskId = target.taskId;
+            this.kind = kind;
+            this.fireAt = fireAt;
+        }
+    }
+
+    private static final int KIND_COUNT = Kind.values().length;
+
+    private final PriorityQueue<Event> queue = new PriorityQueue<>(
+        (e1, e2) -> Long.compare(e1.fireAt, e2.fireAt));
+    private final LongMap<Event[]> pendingByTask = new LongMap<>();
+    private int cancelledCount;
+    // Bumped on every change, so callers can tell whether the pending set moved
+    private long version;
+
+    void schedule(ReminderTarget target, Kind kind, long fireAt) {
+        long taskId = target.taskId;
+        Event[] events = pendingByTask.get(taskId);
+        if (events == null) {
+            events = new Event[KIND_COUNT];
+            pendingByTask.put(taskId, events);
+        }
+        markCancelled(events[kind.ordinal()]);
+
+        Event event = new Event(target, kind, fireAt);
+        events[kind.ordinal()] = event;
+        queue.add(event);
+        version++;
+    }
+
+    void cancel(long taskId, Kind kind) {
+        Event[] events = pendingByTask.get(taskId);
+        if (events == null) return;
+
+        markCancelled(events[kind.ordinal()]);
+        events[kind.ordinal()] = null;
+        if (isEmpty(events)) {
+            pendingByTask.remove(taskId);
+        }
+        version++;
+    }
+
+    void cancelAll(long taskId) {
+        Event[] events = pendingByTask.remove(taskId);
+        if (events == null) return;
+
+        for (Event event : events) {
+            markCancelled(event);
+        }
+        version++;
+    }
+
+    void clear() {
+        queue.clear();
+        pendingByTask.clear();
+        cancelledCount = 0;
+        version++;
+    }
+
+    // Fire time of the earliest live event, or Long.MAX_VALUE when idle
+    long nextFireTime() {
+        dropCancelledHead();
+        Event head = queue.peek();
+        return head != null ? head.fireAt : Long.MAX_VALUE;
+    }
+
+    // Removes and returns every live event due at or before now, earliest first
+    List<Event> pollDue(long now) {
+        List<Event> due = new ArrayList<>();
+        while (true) {
+            dropCancelledHead();
+            Event head = queue.peek();
+            if (head == null || head.fireAt > now) break;
+
+            queue.poll();
+            detach(head);
+            due.add(head);
+        }
+        if (!due.isEmpty()) {
+            version++;
+        }
+        return due;
+    }
+
+    // Every live event, earliest first
+    List<Event> liveEvents() {
+        List<Event> live = new ArrayList<>(size());
+        pendingByTask.forEach((taskId, events) -> {
+            for (Event event : events) {
+                if (event != null) {
+                    live.add(event);
+                }
+            }
+        });
+        live.sort(queue.comparator());
+        return live;
+    }
+
+    int size() {
+        return queue.size() - cancelledCount;
+    }
+
+    long version() {
+        return version;
+    }
+
+    private void detach(Event event) {
+        Event[] events = pendingByTask.get(event.taskId);
+        if (events == null || events[event.kind.ordinal()] != event) return;
+
+        events[event.kind.ordinal()] = null;
+        if (isEmpty(events)) {
+            pendingByTask.remove(event.taskId);
+        }
+    }
+
+    private void markCancelled(Event event) {
+        if (event == null || event.cancelled) return;
+
+        event.cancelled = true;
+        cancelledCount++;
+        // Keep dead entries from dominating the heap when tasks are edited a lot
+        if (cancelledCount > 64 && cancelledCount > queue.size() / 2) {
+            queue.removeIf(e -> e.cancelled);
+            cancelledCount = 0;
+        }
+    }
+
+    private void dropCancelledHead() {
+        while (!queue.isEmpty() && queue.peek().cancelled) {
+            queue.poll();
+            cancelledCount--;
+        }
+    }
+
+    private static boolean isEmpty(Event[] events) {
+        for (Event event : events) {
+            if (event != null) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,87 @@
+package com.todolist.app.managers;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Due-date escalation for one task: SCHEDULED -> DUE_24H -> DUE_2H -> DUE_1H -> OVERDUE.
+// The stage only moves forward, so each threshold is announced at most once no
+// matter how often the task is re-armed; stages that were already behind us when
+// the state was created are recorded as reached without being announced.
+final class ReminderState {
+    private static final long HOUR_MS = 60 * 60 * 1000;
+
+    enum Stage {
+        SCHEDULED(Long.MAX_VALUE),
+        DUE_24H(24 * HOUR_MS),
+        DUE_2H(2 * HOUR_MS),
+        DUE_1H(HOUR_MS),
+        OVERDUE(0);
+
+        // How long before the due date this stage begins
+        final long leadTime;
+
+        Stage(long leadTime) {
+            this.leadTime = leadTime;
+        }
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+
+    private final long dueAt;
+    private Stage stage;
+    private long nextThresholdAt;
+
+    ReminderState(long dueAt, long now, boolean alreadyOverdue) {
+        this.dueAt = dueAt;
+        this.stage = stageAt(now);
+        // An overdue task that was never flagged still gets its overdue announcement
+        if (stage == Stage.OVERDUE && !alreadyOverdue) {
+            stage = Stage.DUE_1H;
+        }
+        computeNextThreshold();
+    }
+
+    boolean isFor(long dueAt) {
+        return this.dueAt == dueAt;
+    }
+
+    // Moves to the latest stage whose threshold has passed. Returns that stage if
+    // it should be announced, or null when nothing new was reached.
+    Stage advance(long now) {
+        Stage reached = stageAt(now);
+        if (reached.ordinal() <= stage.ordinal()) return null;
+
+        stage = reached;
+        computeNextThreshold();
+        return reached;
+    }
+
+    // Time of the next escalation, or Long.MAX_VALUE once overdue
+    long getNextThresholdAt() {
+        return nextThresholdAt;
+    }
+
+    // Every stage still ahead, in order
+    List<Stage> getStagesAhead() {
+        return Arrays.asList(STAGES).subList(stage.ordinal() + 1, STAGES.length);
+    }
+
+    long getThresholdAt(Stage stage) {
+        return dueAt - stage.leadTime;
+    }
+
+    private Stage stageAt(long now) {
+        Stage reached = Stage.SCHEDULED;
+        for (int i = 1; i < STAGES.length; i++) {
+            if (dueAt - STAGES[i].leadTime <= now) {
+                reached = STAGES[i];
+            }
+        }
+        return reached;
+    }
+
+    private void computeNextThreshold() {
+        int next = stage.ordinal() + 1;
+        nextThresholdAt = next < STAGES.length ? dueAt - STAGES[next].leadTime : Long.MAX_VALUE;
+    }
+}
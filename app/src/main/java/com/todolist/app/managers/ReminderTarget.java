@@ -0,0 +1,41 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.Recurrence;
+import com.todolist.app.models.TaskItem;
+
+// Immutable copy of the task fields reminder evaluation needs. TaskItem is
+// mutated on the main thread, so the scheduler thread only ever reads these
+// snapshots; the task reference itself is only dereferenced back on the main thread.
+final class ReminderTarget {
+    static final long NO_TIME = Long.MIN_VALUE;
+
+    final TaskItem task;
+    final long taskId;
+    final String title;
+    final TaskItem.TaskType type;
+    final boolean pending;
+    final long dueAt;
+    final long reminderAt;
+    final boolean hasReminder;
+    final Recurrence recurrence; // null unless the task repeats
+    final boolean overdue;
+    final int coinPenalty;
+
+    private ReminderTarget(TaskItem task) {
+        this.task = task;
+        this.taskId = task.getId();
+        this.title = task.getTitle();
+        this.type = task.getType();
+        this.pending = task.getStatus() == TaskItem.TaskStatus.PENDING;
+        this.dueAt = task.getDueDate() != null ? task.getDueDate().getTime() : NO_TIME;
+        this.reminderAt = task.getReminderTime() != null ? task.getReminderTime().getTime() : NO_TIME;
+        this.hasReminder = task.hasReminder();
+        this.recurrence = task.getRecurrence();
+        this.overdue = task.isOverdue();
+        this.coinPenalty = task.getCoinPenalty();
+    }
+
+    static ReminderTarget of(TaskItem task) {
+        return new ReminderTarget(task);
+    }
+}
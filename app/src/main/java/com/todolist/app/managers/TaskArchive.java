@@ -0,0 +1,388 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.TaskItem;
+import com.todolist.app.utils.EpochDays;
+import com.todolist.app.utils.LongIntMap;
+import com.todolist.app.utils.LongMap;
+import com.todolist.app.persistence.TaskRecordCodec;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+// Finished tasks stored column by column: one primitive array per field and one
+// row per task, in the order they were settled. Timestamps are epoch millis,
+// enums their ordinals, and titles, descriptions and habit ids codes into a
+// shared string table, so the many instances of a habit or daily activity keep
+// their text once. Against a list of TaskItems this saves an object header,
+// four Dates and the cached day fields per task, and the calendar and analytics
+// scan a few contiguous arrays instead of chasing one object per task.
+// Coin rewards and penalties are not stored; a task's are fixed by its type.
+//
+// The local days of each timestamp sit in int columns alongside, and every day
+// keeps the rows scheduled and completed on it, so a day lookup visits only its
+// own rows; both are recomputed after a zone change. Rows are only ever
+// appended, and a task id finds its row through a map. An archive can be written
+// out column by column and read back at its exact size, which is how ColdHistory
+// stores its segments. Not thread-safe: each owner guards its own.
+class TaskArchive {
+    static final long NONE = Long.MIN_VALUE;
+    private static final int NO_DAY = Integer.MIN_VALUE;
+    private static final int NO_STRING = -1;
+    private static final int INITIAL_ROWS = 64;
+    // Every column's slot for one row: the id, three string codes, four
+    // timestamps, four bytes, two ints and three days
+    private static final long ROW_BYTES = 8 + 3 * 4 + 4 * 8 + 4 + 2 * 4 + 3 * 4;
+    // Its entries in the day and id indexes, roughly
+    private static final long INDEX_BYTES = 3 * 4 + 2 * 12;
+
+    private static final byte HAS_REMINDER = 1;
+    private static final byte RECURRING = 2;
+    private static final byte OVERDUE = 4;
+
+    private static final TaskItem.TaskStatus[] STATUSES = TaskItem.TaskStatus.values();
+    private static final TaskItem.TaskType[] TYPES = TaskItem.TaskType.values();
+    private static final TaskItem.Priority[] PRIORITIES = TaskItem.Priority.values();
+
+    // Every distinct string in the archive, by code
+    private final Map<String, Integer> stringCodes = new HashMap<>();
+    private String[] strings = new String[INITIAL_ROWS];
+    private int stringCount;
+
+    private int size;
+    private long[] ids = new long[INITIAL_ROWS];
+    private int[] titles = new int[INITIAL_ROWS];
+    private int[] descriptions = new int[INITIAL_ROWS];
+    private int[] habitIds = new int[INITIAL_ROWS];
+    private long[] createdAt = new long[INITIAL_ROWS];
+    private long[] dueAt = new long[INITIAL_ROWS];
+    private long[] completedAt = new long[INITIAL_ROWS];
+    private long[] reminderAt = new long[INITIAL_ROWS];
+    private byte[] statuses = new byte[INITIAL_ROWS];
+    private byte[] types = new byte[INITIAL_ROWS];
+    private byte[] priorities = new byte[INITIAL_ROWS];
+    private byte[] flags = new byte[INITIAL_ROWS];
+    private int[] recurringDays = new int[INITIAL_ROWS];
+    private int[] streakCounts = new int[INITIAL_ROWS];
+
+    // Local epoch days of createdAt, dueAt and completedAt, or NO_DAY
+    private int[] createdDays = new int[INITIAL_ROWS];
+    private int[] dueDays = new int[INITIAL_ROWS];
+    private int[] completedDays = new int[INITIAL_ROWS];
+    private int zoneVersion = EpochDays.zoneVersion();
+
+    // Rows created or due on each day, and rows completed on it, ascending
+    private final DayRows scheduledRows = new DayRows();
+    private final DayRows completedRows = new DayRows();
+    private final LongIntMap rowById = new LongIntMap();
+
+    // Copies the task's current state into a new row
+    void add(TaskItem task) {
+        ensureCurrentZone();
+        if (size == ids.length) {
+            grow();
+        }
+
+        int row = size++;
+        ids[row] = task.getId();
+        titles[row] = encode(task.getTitle());
+        descriptions[row] = encode(task.getDescription());
+        habitIds[row] = encode(task.getHabitId());
+        createdAt[row] = millis(task.getCreatedDate());
+        dueAt[row] = millis(task.getDueDate());
+        completedAt[row] = millis(task.getCompletedDate());
+        reminderAt[row] = millis(task.getReminderTime());
+        statuses[row] = (byte) task.getStatus().ordinal();
+        types[row] = (byte) task.getType().ordinal();
+        priorities[row] = (byte) task.getPriority().ordinal();
+        flags[row] = (byte) ((task.hasReminder() ? HAS_REMINDER : 0)
+            | (task.isRecurring() ? RECURRING : 0)
+            | (task.isOverdue() ? OVERDUE : 0));
+        recurringDays[row] = task.getRecurringDays();
+        streakCounts[row] = task.getStreakCount();
+        rowById.put(ids[row], row);
+        fileDays(row);
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Rows of tasks created or due on the given local day, in the order they were
+    // archived; O(rows on that day)
+    void forEachScheduledOn(long day, IntConsumer visitor) {
+        ensureCurrentZone();
+        if (day == EpochDays.NONE) return;
+
+        scheduledRows.forEach(day, visitor);
+    }
+
+    // Rows of tasks completed on the given local day
+    void forEachCompletedOn(long day, IntConsumer visitor) {
+        ensureCurrentZone();
+        if (day == EpochDays.NONE) return;
+
+        completedRows.forEach(day, visitor);
+    }
+
+    // Adds the row's contribution to the counters, counted as DayAggregates counts a task
+    void count(int row, int sign, DayAggregates.Counter counter) {
+        ensureCurrentZone();
+        TaskItem.TaskType type = TYPES[types[row]];
+        DayAggregates.contribute(day(createdDays[row]), day(dueDays[row]), day(completedDays[row]),
+            STATUSES[statuses[row]], type, TaskItem.getCoinRewardByType(type),
+            TaskItem.getCoinPenaltyByType(type), sign, counter);
+    }
+
+    // A detached TaskItem with the row's state, for callers that need one
+    TaskItem toTaskItem(int row) {
+        Date created = createdAt[row] != NONE ? new Date(createdAt[row]) : null;
+        TaskItem task = new TaskItem(ids[row], decode(titles[row]), TYPES[types[row]], created);
+        task.setDescription(decode(descriptions[row]));
+        task.setHabitId(decode(habitIds[row]));
+        task.setStatus(STATUSES[statuses[row]]);
+        task.setPriority(PRIORITIES[priorities[row]]);
+        task.setDueDate(date(dueAt[row]));
+        task.setCompletedDate(date(completedAt[row]));
+        task.setReminderTime(date(reminderAt[row]));
+        task.setHasReminder((flags[row] & HAS_REMINDER) != 0);
+        task.setRecurring((flags[row] & RECURRING) != 0);
+        task.setOverdue((flags[row] & OVERDUE) != 0);
+        task.setRecurringDays(recurringDays[row]);
+        task.setStreakCount(streakCounts[row]);
+        return task;
+    }
+
+    long getId(int row) { return ids[row]; }
+    String getTitle(int row) { return decode(titles[row]); }
+    String getHabitId(int row) { return decode(habitIds[row]); }
+    TaskItem.TaskStatus getStatus(int row) { return STATUSES[statuses[row]]; }
+    TaskItem.TaskType getType(int row) { return TYPES[types[row]]; }
+    // Epoch millis, or NONE when the date was unset
+    long getCreatedAt(int row) { return createdAt[row]; }
+    long getDueAt(int row) { return dueAt[row]; }
+    long getCompletedAt(int row) { return completedAt[row]; }
+    // The latest of the three, or NONE
+    long getLatestAt(int row) { return Math.max(createdAt[row], Math.max(dueAt[row], completedAt[row])); }
+
+    // Row of the task, or -1
+    int find(long taskId) {
+        return rowById.getOrDefault(taskId, -1);
+    }
+
+    // Distinct strings kept for titles, descriptions and habit ids
+    int stringCount() {
+        return stringCount;
+    }
+
+    // Rough heap size of the columns and strings, for memory budgets
+    long estimatedBytes() {
+        long bytes = ids.length * ROW_BYTES + size * INDEX_BYTES + strings.length * 4L;
+        for (int code = 0; code < stringCount; code++) {
+            bytes += stringBytes(strings[code]) + 32; // plus its dictionary entry
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        return 40 + 2L * value.length();
+    }
+
+    // Column by column, so similar values sit together for the compressor; the
+    // day columns are left out and recomputed on reading
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(stringCount);
+        for (int code = 0; code < stringCount; code++) {
+            TaskRecordCodec.writeString(out, strings[code]);
+        }
+        out.writeInt(size);
+        for (int row = 0; row < size; row++) out.writeLong(ids[row]);
+        for (int row = 0; row < size; row++) out.writeInt(titles[row]);
+        for (int row = 0; row < size; row++) out.writeInt(descriptions[row]);
+        for (int row = 0; row < size; row++) out.writeInt(habitIds[row]);
+        for (int row = 0; row < size; row++) out.writeLong(createdAt[row]);
+        for (int row = 0; row < size; row++) out.writeLong(dueAt[row]);
+        for (int row = 0; row < size; row++) out.writeLong(completedAt[row]);
+        for (int row = 0; row < size; row++) out.writeLong(reminderAt[row]);
+        out.write(statuses, 0, size);
+        out.write(types, 0, size);
+        out.write(priorities, 0, size);
+        out.write(flags, 0, size);
+        for (int row = 0; row < size; row++) out.writeInt(recurringDays[row]);
+        for (int row = 0; row < size; row++) out.writeInt(streakCounts[row]);
+    }
+
+    static TaskArchive readFrom(DataInputStream in) throws IOException {
+        TaskArchive archive = new TaskArchive();
+        int stringCount = in.readInt();
+        archive.strings = new String[Math.max(1, stringCount)];
+        for (int code = 0; code < stringCount; code++) {
+            String value = TaskRecordCodec.readString(in);
+            archive.strings[code] = value;
+            archive.stringCodes.put(value, code);
+        }
+        archive.stringCount = stringCount;
+
+        int size = in.readInt();
+        archive.resize(Math.max(1, size));
+        archive.size = size;
+        for (int row = 0; row < size; row++) {
+            archive.ids[row] = in.readLong();
+            archive.rowById.put(archive.ids[row], row);
+        }
+        for (int row = 0; row < size; row++) archive.titles[row] = in.readInt();
+        for (int row = 0; row < size; row++) archive.descriptions[row] = in.readInt();
+        for (int row = 0; row < size; row++) archive.habitIds[row] = in.readInt();
+        for (int row = 0; row < size; row++) archive.createdAt[row] = in.readLong();
+        for (int row = 0; row < size; row++) archive.dueAt[row] = in.readLong();
+        for (int row = 0; row < size; row++) archive.completedAt[row] = in.readLong();
+        for (int row = 0; row < size; row++) archive.reminderAt[row] = in.readLong();
+        in.readFully(archive.statuses, 0, size);
+        in.readFully(archive.types, 0, size);
+        in.readFully(archive.priorities, 0, size);
+        in.readFully(archive.flags, 0, size);
+        checkOrdinals(archive.statuses, size, STATUSES.length);
+        checkOrdinals(archive.types, size, TYPES.length);
+        checkOrdinals(archive.priorities, size, PRIORITIES.length);
+        for (int row = 0; row < size; row++) archive.recurringDays[row] = in.readInt();
+        for (int row = 0; row < size; row++) archive.streakCounts[row] = in.readInt();
+        for (int row = 0; row < size; row++) archive.fileDays(row);
+        return archive;
+    }
+
+    // The columns carry no checksum; a corrupt ordinal fails the read instead of a later lookup
+    private static void checkOrdinals(byte[] column, int size, int bound) throws IOException {
+        for (int row = 0; row < size; row++) {
+            if (column[row] < 0 || column[row] >= bound) {
+                throw new IOException("Unknown ordinal " + column[row] + " in archived row " + row);
+            }
+        }
+    }
+
+    private int encode(String value) {
+        if (value == null) return NO_STRING;
+
+        Integer code = stringCodes.get(value);
+        if (code != null) return code;
+
+        if (stringCount == strings.length) {
+            strings = Arrays.copyOf(strings, stringCount * 2);
+        }
+        strings[stringCount] = value;
+        stringCodes.put(value, stringCount);
+        return stringCount++;
+    }
+
+    private String decode(int code) {
+        return code == NO_STRING ? null : strings[code];
+    }
+
+    // Rows must be filed in ascending order, so each day's rows stay sorted
+    private void fileDays(int row) {
+        int created = dayOf(createdAt[row]);
+        int due = dayOf(dueAt[row]);
+        int completed = dayOf(completedAt[row]);
+        createdDays[row] = created;
+        dueDays[row] = due;
+        completedDays[row] = completed;
+
+        if (created != NO_DAY) {
+            scheduledRows.add(created, row);
+        }
+        if (due != NO_DAY && due != created) {
+            scheduledRows.add(due, row);
+        }
+        if (completed != NO_DAY && statuses[row] == TaskItem.TaskStatus.COMPLETED.ordinal()) {
+            completedRows.add(completed, row);
+        }
+    }
+
+    // Day boundaries move with the zone, so every day column and index is
+    // recomputed after a zone change
+    private void ensureCurrentZone() {
+        int current = EpochDays.zoneVersion();
+        if (zoneVersion == current) return;
+
+        zoneVersion = current;
+        scheduledRows.clear();
+        completedRows.clear();
+        for (int row = 0; row < size; row++) {
+            fileDays(row);
+        }
+    }
+
+    private void grow() {
+        resize(ids.length * 2);
+    }
+
+    private void resize(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        habitIds = Arrays.copyOf(habitIds, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        dueAt = Arrays.copyOf(dueAt, capacity);
+        completedAt = Arrays.copyOf(completedAt, capacity);
+        reminderAt = Arrays.copyOf(reminderAt, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        types = Arrays.copyOf(types, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        recurringDays = Arrays.copyOf(recurringDays, capacity);
+        streakCounts = Arrays.copyOf(streakCounts, capacity);
+        createdDays = Arrays.copyOf(createdDays, capacity);
+        dueDays = Arrays.copyOf(dueDays, capacity);
+        completedDays = Arrays.copyOf(completedDays, capacity);
+    }
+
+    private static int dayOf(long millis) {
+        return millis != NONE ? (int) EpochDays.of(millis) : NO_DAY;
+    }
+
+    private static long day(int day) {
+        return day != NO_DAY ? day : EpochDays.NONE;
+    }
+
+    private static long millis(Date date) {
+        return date != null ? date.getTime() : NONE;
+    }
+
+    private static Date date(long millis) {
+        return millis != NONE ? new Date(millis) : null;
+    }
+
+    // Row numbers per day. Each day's rows sit in an int array whose first slot
+    // holds how many follow, grown by doubling
+    private static final class DayRows {
+        private final LongMap<int[]> byDay = new LongMap<>();
+
+        void add(int day, int row) {
+            int[] rows = byDay.get(day);
+            if (rows == null) {
+                rows = new int[4];
+                byDay.put(day, rows);
+            } else if (rows[0] + 1 == rows.length) {
+                rows = Arrays.copyOf(rows, rows.length * 2);
+                byDay.put(day, rows);
+            }
+            rows[++rows[0]] = row;
+        }
+
+        void forEach(long day, IntConsumer visitor) {
+            int[] rows = byDay.get(day);
+            if (rows == null) return;
+
+            for (int i = 1; i <= rows[0]; i++) {
+                visitor.accept(rows[i]);
+            }
+        }
+
+        void clear() {
+            byDay.clear();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.Recurrence;
+import com.todolist.app.models.TaskItem;
+import com.todolist.app.utils.EpochDays;
+import com.todolist.app.utils.LongMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Buckets tasks by the local day they were created, are due and were completed.
+// The days each task was filed under are remembered, so a task whose dates
+// changed in place can still be pulled out of its old buckets. Pending recurring
+// tasks are also kept aside, so the days they repeat on can be answered from
+// their Recurrence instead of from a stored instance per day.
+//
+// Day lookups take no lock. A bucket is a concurrent skip list keyed by the
+// order tasks were filed in, so readers walk it while the writer adds and
+// removes in O(log n), however crowded the day. The buckets of one zone form a
+// Days table, and a zone change refiles every task into a new table before
+// publishing it. The ids of indexed tasks sit in a primitive set behind its own
+// monitor, held only for one probe. Everything else belongs to the writer.
+class TaskDayIndex {
+    private static final int CREATED = 0;
+    private static final int DUE = 1;
+    private static final int COMPLETED = 2;
+    // Slot of the filing order in a task's indexed days
+    private static final int ORDER = 3;
+
+    private static final class Days {
+        final int zoneVersion;
+        final Map<Long, ConcurrentSkipListMap<Long, TaskItem>> byCreatedDay = new ConcurrentHashMap<>();
+        // Only tasks due on another day than they were created, so a day lists each task once
+        final Map<Long, ConcurrentSkipListMap<Long, TaskItem>> byDueDay = new ConcurrentHashMap<>();
+        final Map<Long, ConcurrentSkipListMap<Long, TaskItem>> byCompletedDay = new ConcurrentHashMap<>();
+
+        Days(int zoneVersion) {
+            this.zoneVersion = zoneVersion;
+        }
+    }
+
+    private volatile Days days = new Days(EpochDays.zoneVersion());
+    private final Map<TaskItem, long[]> indexedDays = new IdentityHashMap<>();
+    // Ids of indexed tasks, for readers; guarded by itself
+    private final LongMap<Boolean> heldIds = new LongMap<>();
+    private final Set<TaskItem> recurring = new LinkedHashSet<>();
+    private long nextOrder;
+
+    void add(TaskItem task) {
+        ensureCurrentZone();
+        remove(task);
+
+        long[] taskDays = daysOf(task, nextOrder++);
+        indexedDays.put(task, taskDays);
+        synchronized (heldIds) {
+            heldIds.put(task.getId(), Boolean.TRUE);
+        }
+        fileAll(days, task, taskDays);
+        if (task.getStatus() == TaskItem.TaskStatus.PENDING && task.getRecurrence() != null) {
+            recurring.add(task);
+        }
+    }
+
+    void remove(TaskItem task) {
+        long[] taskDays = indexedDays.remove(task);
+        if (taskDays == null) return;
+
+        synchronized (heldIds) {
+            heldIds.remove(task.getId());
+        }
+        recurring.remove(task);
+        Days current = days;
+        unfile(current.byCreatedDay, taskDays[CREATED], taskDays[ORDER]);
+        if (taskDays[DUE] != taskDays[CREATED]) {
+            unfile(current.byDueDay, taskDays[DUE], taskDays[ORDER]);
+        }
+        unfile(current.byCompletedDay, taskDays[COMPLETED], taskDays[ORDER]);
+    }
+
+    // Whether lookups answer in the current zone; if not, the writer has to call
+    // ensureCurrentZone() first
+    boolean isCurrentZone() {
+        return days.zoneVersion == EpochDays.zoneVersion();
+    }
+
+    // Whether a task with this id is indexed; safe from any thread
+    boolean holds(long id) {
+        synchronized (heldIds) {
+            return heldIds.containsKey(id);
+        }
+    }
+
+    // Appends tasks created or due on the given day; safe from any thread
+    void collectScheduledOn(long day, List<TaskItem> out) {
+        Days current = days;
+        out.addAll(bucket(current.byCreatedDay, day));
+        out.addAll(bucket(current.byDueDay, day));
+    }
+
+    // Safe from any thread
+    void collectCompletedOn(long day, List<TaskItem> out) {
+        for (TaskItem task : bucket(days.byCompletedDay, day)) {
+            if (task.getStatus() == TaskItem.TaskStatus.COMPLETED) {
+                out.add(task);
+            }
+        }
+    }
+
+    // Appends one pending task per series (habit id, or task id) that repeats on
+    // the given day without already being created or due on it
+    void collectOccurrencesOn(long day, List<TaskItem> out) {
+        ensureCurrentZone();
+        Set<String> series = new HashSet<>();
+        for (TaskItem task : recurring) {
+            Recurrence recurrence = task.getRecurrence();
+            if (recurrence == null || !recurrence.occursOn(day) || isScheduledOn(task, day)) continue;
+
+            String seriesId = task.getHabitId() != null ? task.getHabitId() : Long.toString(task.getId());
+            if (series.add(seriesId)) {
+                out.add(task);
+            }
+        }
+    }
+
+    // Day boundaries move with the zone, so every task is refiled into a new
+    // table after a zone change; readers keep the old one until it is complete
+    void ensureCurrentZone() {
+        int current = EpochDays.zoneVersion();
+        if (days.zoneVersion == current) return;
+
+        Days refiled = new Days(current);
+        for (Map.Entry<TaskItem, long[]> entry : indexedDays.entrySet()) {
+            long[] taskDays = daysOf(entry.getKey(), entry.getValue()[ORDER]);
+            entry.setValue(taskDays);
+            fileAll(refiled, entry.getKey(), taskDays);
+        }
+        days = refiled;
+    }
+
+    private boolean isScheduledOn(TaskItem task, long day) {
+        long[] taskDays = indexedDays.get(task);
+        return taskDays != null && (taskDays[CREATED] == day || taskDays[DUE] == day);
+    }
+
+    private static long[] daysOf(TaskItem task, long order) {
+        return new long[] {
+            task.getCreatedEpochDay(),
+            task.getDueEpochDay(),
+            task.getCompletedEpochDay(),
+            order
+        };
+    }
+
+    private static void fileAll(Days table, TaskItem task, long[] taskDays) {
+        file(table.byCreatedDay, taskDays[CREATED], task, taskDays[ORDER]);
+        if (taskDays[DUE] != taskDays[CREATED]) {
+            file(table.byDueDay, taskDays[DUE], task, taskDays[ORDER]);
+        }
+        file(table.byCompletedDay, taskDays[COMPLETED], task, taskDays[ORDER]);
+    }
+
+    private static void file(Map<Long, ConcurrentSkipListMap<Long, TaskItem>> buckets, long day,
+                             TaskItem task, long order) {
+        if (day == EpochDays.NONE) return;
+        ConcurrentSkipListMap<Long, TaskItem> bucket = buckets.get(day);
+        if (bucket == null) {
+            bucket = new ConcurrentSkipListMap<>();
+            buckets.put(day, bucket);
+        }
+        bucket.put(order, task);
+    }
+
+    private static void unfile(Map<Long, ConcurrentSkipListMap<Long, TaskItem>> buckets, long day,
+                               long order) {
+        if (day == EpochDays.NONE) return;
+        ConcurrentSkipListMap<Long, TaskItem> bucket = buckets.get(day);
+        if (bucket != null) {
+            bucket.remove(order);
+            if (bucket.isEmpty()) {
+                buckets.remove(day);
+            }
+        }
+    }
+
+    private static Collection<TaskItem> bucket(Map<Long, ConcurrentSkipListMap<Long, TaskItem>> buckets, long day) {
+        ConcurrentSkipListMap<Long, TaskItem> bucket = buckets.get(day);
+        return bucket != null ? bucket.values() : Collections.<TaskItem>emptyList();
+    }
+}
@@ -0,0 +1,449 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.TaskItem;
+import com.todolist.app.persistence.SnapshotFile;
+import com.todolist.app.persistence.TaskJournal;
+import com.todolist.app.utils.EpochDays;
+import com.todolist.app.utils.IdGenerator;
+import com.todolist.app.utils.LongIntMap;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongPredicate;
+
+// Every settled task, in two tiers. Recently settled tasks sit in a TaskArchive
+// and are journaled as they arrive, so the history survives a restart. Tasks
+// whose dates all lie further back than the hot window move in batches to
+// ColdHistory segments, on a background thread. Per-day counters and a search
+// index cover both tiers; their cold part is written to a summary after every
+// move, so startup reads the summary and the recent journal and never inflates
+// a segment. Only segments the summary does not cover yet, left by a move that
+// was cut short, are read once and folded in.
+//
+// Cold counters are days of the zone they were counted in; after a zone change
+// they are recounted from the segments in the background, and until then the
+// old days are served. Without a directory everything stays recent and
+// memory-only. Synchronized, since tasks settle on the main thread while the
+// calendar reads from its own; segments are read and written outside the lock.
+class TaskHistory {
+    static final int DEFAULT_HOT_WINDOW_DAYS = 90;
+
+    private static final int SUMMARY_MAGIC = 0x4853554D; // "HSUM"
+    private static final int SUMMARY_VERSION = 1;
+    // Fewer aged tasks than this wait for the next move, so segments do not fragment
+    private static final int MIN_SEGMENT_TASKS = 256;
+    private static final int MAX_SEGMENT_TASKS = 4096;
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    // Segment number the search index files recent tasks under
+    private static final int RECENT = Integer.MAX_VALUE;
+
+    private final int hotWindowDays;
+    private final ColdHistory cold;
+    private final TaskJournal journal;
+    private final SnapshotFile summary;
+    // Moves and recounts run one at a time, without holding the history's own lock
+    private final Object moveLock = new Object();
+    private ExecutorService background;
+
+    private TaskArchive recent = new TaskArchive();
+    private final DayCounters recentCounts = new DayCounters();
+    private DayCounters coldCounts = new DayCounters();
+    private TaskSearchIndex index = new TaskSearchIndex();
+    private int coldSize;
+    // Highest cold task id, so ids are never reissued after a restart
+    private long maxColdId = Long.MIN_VALUE;
+    // Highest segment the summary accounts for, or -1
+    private int summarizedSegment = -1;
+    private int zoneVersion = EpochDays.zoneVersion();
+
+    TaskHistory() {
+        this(null, DEFAULT_HOT_WINDOW_DAYS, ColdHistory.DEFAULT_CACHE_BYTES);
+    }
+
+    TaskHistory(File directory, int hotWindowDays, long coldCacheBytes) {
+        this.hotWindowDays = hotWindowDays;
+        if (directory != null) {
+            cold = new ColdHistory(directory, coldCacheBytes);
+            journal = new TaskJournal(new File(directory, "recent"));
+            summary = new SnapshotFile(new File(directory, "history.summary"), SUMMARY_MAGIC, SUMMARY_VERSION);
+        } else {
+            cold = null;
+            journal = null;
+            summary = null;
+        }
+    }
+
+    // Reads the summary, folds in any segment it misses and replays the recent
+    // tasks; a task found in both tiers (after an interrupted move) stays cold
+    synchronized void load() {
+        if (cold == null) return;
+
+        cold.load();
+        String zoneId = null;
+        try {
+            String[] read = new String[1];
+            summary.read(in -> read[0] = readSummary(in));
+            zoneId = read[0];
+        } catch (IOException e) {
+            System.err.println("TaskHistory: failed to read history summary - " + e);
+        }
+        IdGenerator.observe(maxColdId);
+
+        int summarized = summarizedSegment;
+        cold.forEachTask(summarized + 1, (task, segment) -> {
+            IdGenerator.observe(task.getId());
+            count(task, 1, coldCounts);
+            index.putCold(task, segment);
+            coldSize++;
+            maxColdId = Math.max(maxColdId, task.getId());
+            summarizedSegment = Math.max(summarizedSegment, segment);
+        });
+        if (summarizedSegment != summarized) {
+            zoneId = EpochDays.zoneId();
+            writeSummary(summaryBytes());
+        }
+
+        try {
+            for (TaskItem task : journal.load().values()) {
+                IdGenerator.observe(task.getId());
+                if (index.segmentOf(task.getId()) >= 0) {
+                    journal.recordRemove(task.getId());
+                } else {
+                    addRecent(task);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("TaskHistory: failed to load recent history - " + e);
+        }
+
+        if (coldSize > 0 && zoneId != null && !zoneId.equals(EpochDays.zoneId())) {
+            recountColdInBackground();
+        }
+    }
+
+    synchronized void add(TaskItem task) {
+        addRecent(task);
+        if (journal == null) return;
+        try {
+            journal.recordPut(task);
+            if (journal.shouldSnapshot()) {
+                journal.snapshot(recentTasks());
+            }
+        } catch (IOException e) {
+            System.err.println("TaskHistory: failed to journal settled task " + task.getId() + " - " + e);
+        }
+    }
+
+    private void addRecent(TaskItem task) {
+        ensureCurrentZone();
+        recent.add(task);
+        recent.count(recent.size() - 1, 1, recentCounts);
+        index.putCold(task, RECENT);
+    }
+
+    private List<TaskItem> recentTasks() {
+        List<TaskItem> tasks = new ArrayList<>(recent.size());
+        for (int row = 0; row < recent.size(); row++) {
+            tasks.add(recent.toTaskItem(row));
+        }
+        return tasks;
+    }
+
+    synchronized int size() {
+        return recent.size() + coldSize;
+    }
+
+    synchronized DayStats get(long day) {
+        ensureCurrentZone();
+        return recentCounts.get(day).plus(coldCounts.get(day));
+    }
+
+    // Sums over [fromDay, toDay], both inclusive
+    synchronized DayStats range(long fromDay, long toDay) {
+        ensureCurrentZone();
+        return recentCounts.range(fromDay, toDay).plus(coldCounts.range(fromDay, toDay));
+    }
+
+    // Day lookups as in TaskManager.getTasksByDate. Recent rows are copied out
+    // under the lock and cold ones after it; a task moving in between is seen
+    // in the recent tier first, and held then skips its cold copy.
+    void collectScheduledOn(long day, List<TaskItem> out, LongPredicate held) {
+        synchronized (this) {
+            recent.forEachScheduledOn(day, row -> {
+                if (!held.test(recent.getId(row))) {
+                    out.add(recent.toTaskItem(row));
+                }
+            });
+        }
+        if (cold != null) {
+            cold.collectScheduledOn(day, out, held);
+        }
+    }
+
+    void collectCompletedOn(long day, List<TaskItem> out, LongPredicate held) {
+        synchronized (this) {
+            recent.forEachCompletedOn(day, row -> {
+                if (!held.test(recent.getId(row))) {
+                    out.add(recent.toTaskItem(row));
+                }
+            });
+        }
+        if (cold != null) {
+            cold.collectCompletedOn(day, out, held);
+        }
+    }
+
+    // Best matches first; cold tasks are loaded after the lock is released
+    List<TaskItem> search(String query, int limit) {
+        List<TaskSearchIndex.Hit> hits;
+        TaskItem[] found;
+        synchronized (this) {
+            hits = index.hits(query, limit, true);
+            found = new TaskItem[hits.size()];
+            for (int i = 0; i < found.length; i++) {
+                TaskSearchIndex.Hit hit = hits.get(i);
+                int row = hit.segment == RECENT ? recent.find(hit.taskId) : -1;
+                found[i] = row >= 0 ? recent.toTaskItem(row) : null;
+            }
+        }
+
+        List<TaskItem> results = new ArrayList<>(found.length);
+        for (int i = 0; i < found.length; i++) {
+            TaskSearchIndex.Hit hit = hits.get(i);
+            TaskItem task = found[i];
+            if (task == null && hit.segment != RECENT && cold != null) {
+                task = cold.find(hit.segment, hit.taskId);
+            }
+            if (task != null) {
+                results.add(task);
+            }
+        }
+        return results;
+    }
+
+    // Runs moveToColdStorage on the history's background thread
+    synchronized void moveToColdStorageInBackground(long now) {
+        if (cold == null) return;
+        background().execute(() -> moveToColdStorage(now));
+    }
+
+    // Writes recent tasks whose dates all lie more than the hot window before now
+    // to cold segments, oldest first, and drops them from the recent tier.
+    // Returns how many moved. Blocks only other moves; the segment and summary
+    // are written without holding the history's lock.
+    int moveToColdStorage(long now) {
+        if (cold == null) return 0;
+
+        synchronized (moveLock) {
+            long cutoff = now - hotWindowDays * DAY_MS;
+            List<TaskItem> aged = new ArrayList<>();
+            synchronized (this) {
+                for (int row = 0; row < recent.size(); row++) {
+                    if (recent.getLatestAt(row) < cutoff) {
+                        aged.add(recent.toTaskItem(row));
+                    }
+                }
+            }
+            if (aged.size() < MIN_SEGMENT_TASKS) return 0;
+
+            aged.sort((a, b) -> Long.compare(latestOf(a), latestOf(b)));
+            // Even batches, so no segment is left with a small remainder
+            int batches = (aged.size() + MAX_SEGMENT_TASKS - 1) / MAX_SEGMENT_TASKS;
+            int perBatch = (aged.size() + batches - 1) / batches;
+            int moved = 0;
+            for (int from = 0; from < aged.size(); from += perBatch) {
+                List<TaskItem> batch = aged.subList(from, Math.min(aged.size(), from + perBatch));
+                int segment;
+                try {
+                    segment = cold.write(batch);
+                } catch (IOException e) {
+                    System.err.println("TaskHistory: failed to write cold history segment - " + e);
+                    break;
+                }
+
+                byte[] summaryBytes;
+                synchronized (this) {
+                    ensureCurrentZone();
+                    for (TaskItem task : batch) {
+                        count(task, 1, coldCounts);
+                        index.relocate(task.getId(), segment);
+                        maxColdId = Math.max(maxColdId, task.getId());
+                    }
+                    coldSize += batch.size();
+                    summarizedSegment = segment;
+                    dropRecent(batch);
+                    summaryBytes = summaryBytes();
+                }
+                // The summary lands before the journal forgets the tasks, so a
+                // crash leaves them in both tiers at worst
+                writeSummary(summaryBytes);
+                synchronized (this) {
+                    forgetRecent(batch);
+                }
+                moved += batch.size();
+            }
+            return moved;
+        }
+    }
+
+    private static long latestOf(TaskItem task) {
+        long latest = TaskArchive.NONE;
+        for (Date date : new Date[] {task.getCreatedDate(), task.getDueDate(), task.getCompletedDate()}) {
+            if (date != null) {
+                latest = Math.max(latest, date.getTime());
+            }
+        }
+        return latest;
+    }
+
+    // Rebuilds the recent archive without the moved tasks; rows only ever append,
+    // so the rest are copied over
+    private void dropRecent(List<TaskItem> moved) {
+        LongIntMap movedIds = new LongIntMap(moved.size());
+        for (TaskItem task : moved) {
+            movedIds.put(task.getId(), 1);
+        }
+        TaskArchive kept = new TaskArchive();
+        for (int row = 0; row < recent.size(); row++) {
+            if (movedIds.containsKey(recent.getId(row))) {
+                recent.count(row, -1, recentCounts);
+            } else {
+                kept.add(recent.toTaskItem(row));
+            }
+        }
+        recent = kept;
+    }
+
+    private void forgetRecent(List<TaskItem> moved) {
+        try {
+            for (TaskItem task : moved) {
+                journal.recordRemove(task.getId());
+            }
+            if (journal.shouldSnapshot()) {
+                journal.snapshot(recentTasks());
+            }
+        } catch (IOException e) {
+            System.err.println("TaskHistory: failed to journal moved history - " + e);
+        }
+    }
+
+    // The zone moved day boundaries: recent counters are recounted from memory
+    // now, cold ones from the segments in the background
+    private void ensureCurrentZone() {
+        int current = EpochDays.zoneVersion();
+        if (zoneVersion == current) return;
+
+        zoneVersion = current;
+        recentCounts.clear();
+        for (int row = 0; row < recent.size(); row++) {
+            recent.count(row, 1, recentCounts);
+        }
+        if (coldSize > 0) {
+            recountColdInBackground();
+        }
+    }
+
+    private void recountColdInBackground() {
+        background().execute(this::recountCold);
+    }
+
+    private void recountCold() {
+        synchronized (moveLock) {
+            int version;
+            int through;
+            synchronized (this) {
+                version = zoneVersion;
+                through = summarizedSegment;
+            }
+            DayCounters counts = new DayCounters();
+            cold.forEachTask(0, (task, segment) -> {
+                if (segment <= through) {
+                    count(task, 1, counts);
+                }
+            });
+
+            byte[] summaryBytes;
+            synchronized (this) {
+                // A later zone change has queued another recount
+                if (version != zoneVersion) return;
+                coldCounts = counts;
+                summaryBytes = summaryBytes();
+            }
+            writeSummary(summaryBytes);
+        }
+    }
+
+    private synchronized ExecutorService background() {
+        if (background == null) {
+            background = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "TaskHistory");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return background;
+    }
+
+    private static void count(TaskItem task, int sign, DayAggregates.Counter counter) {
+        DayAggregates.contribute(task.getCreatedEpochDay(), task.getDueEpochDay(), task.getCompletedEpochDay(),
+            task.getStatus(), task.getType(), task.getCoinReward(), task.getCoinPenalty(), sign, counter);
+    }
+
+    // The zone, segment count and cold counters, then the cold part of the index.
+    // Serialized under the lock and written after it.
+    private byte[] summaryBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeUTF(EpochDays.zoneId());
+            out.writeInt(summarizedSegment);
+            out.writeInt(coldSize);
+            out.writeLong(maxColdId);
+            coldCounts.writeTo(out);
+            index.writeCold(out, segment -> segment != RECENT);
+            out.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // in memory, cannot happen
+        }
+        return bytes.toByteArray();
+    }
+
+    private void writeSummary(byte[] bytes) {
+        try {
+            summary.write(out -> out.write(bytes));
+        } catch (IOException e) {
+            System.err.println("TaskHistory: failed to write history summary - " + e);
+        }
+    }
+
+    // Returns the zone the counters were counted in. Nothing is kept unless the
+    // whole summary reads, so a damaged one leaves every segment to be folded in.
+    private String readSummary(DataInputStream in) throws IOException {
+        String zoneId = in.readUTF();
+        int segment = in.readInt();
+        int size = in.readInt();
+        long maxId = in.readLong();
+        DayCounters counts = DayCounters.readFrom(in);
+        TaskSearchIndex coldIndex = new TaskSearchIndex();
+        coldIndex.readCold(in);
+
+        summarizedSegment = segment;
+        coldSize = size;
+        maxColdId = maxId;
+        coldCounts = counts;
+        index = coldIndex;
+        return zoneId;
+    }
+
+    // Segments inflated for lookups so far, i.e. cold cache misses
+    int getInflateCount() {
+        return cold != null ? cold.getInflateCount() : 0;
+    }
+}
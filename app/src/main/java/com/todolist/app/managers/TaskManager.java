@@ -1,137 +1,368 @@
 package com.todolist.app.managers;
 
 import com.todolist.app.models.TaskItem;
+import com.todolist.app.persistence.TaskJournal;
+import com.todolist.app.utils.EpochDays;
+import com.todolist.app.utils.IdGenerator;
+import com.todolist.app.utils.LongMap;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Calendar;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongPredicate;
 
 public class TaskManager {
-    private static TaskManager instance;
-    private List<TaskItem> allTasks;
-    private List<TaskItem> todayTasks;
-    private List<TaskItem> habitTasks;
-    private List<TaskItem> planningTasks;
+    // Notified after a task is added, updated or removed
+    public interface TaskListener {
+        void onTaskChanged(TaskItem task);
+        void onTaskRemoved(TaskItem task);
+    }
+
+    private final TaskStore store;
+    // Serializes writers only; snapshot readers never take it
+    private final Object writeLock = new Object();
+    private final TaskDayIndex dayIndex;
+    // Counts pending tasks only; settled ones are counted by GameManager's history
+    private final DayAggregates dayStats = new DayAggregates();
+    // Indexes pending tasks only, like dayStats. Guarded by its own monitor, so
+    // searches wait on other index changes but never on the journal.
+    private final TaskSearchIndex searchIndex = new TaskSearchIndex();
+    // Owns the settled history the day lookups and counters fall back on
+    private final GameManager game;
+    private final List<TaskListener> listeners = new CopyOnWriteArrayList<>();
+    private TaskJournal journal;
+    // Memory-only until initialize() swaps in the persisted streaks
+    private volatile HabitStreaks streaks = new HabitStreaks();
+
+    // Package-private so benchmarks and tests can build an isolated instance
+    TaskManager() {
+        this(GameManager.getInstance());
+    }
+
+    TaskManager(GameManager game) {
+        store = new TaskStore();
+        dayIndex = new TaskDayIndex();
+        this.game = game;
+    }
 
-    private TaskManager() {
-        allTasks = new ArrayList<>();
-        todayTasks = new ArrayList<>();
-        habitTasks = new ArrayList<>();
-        planningTasks = new ArrayList<>();
+    private static final class Holder {
+        static final TaskManager INSTANCE = new TaskManager();
     }
 
     public static TaskManager getInstance() {
-        if (instance == null) {
-            instance = new TaskManager();
+        return Holder.INSTANCE;
+    }
+
+    // Loads persisted tasks from dataDir; later changes are journaled there. The
+    // journal is published only once loading has finished. If the tasks cannot be
+    // read, changes stay in memory: journaling on top of a failed load would
+    // snapshot the near-empty store over the unreadable files.
+    public void initialize(File dataDir) {
+        synchronized (writeLock) {
+            if (journal != null) return;
+
+            HabitStreaks loaded = new HabitStreaks(new File(dataDir, "habits"));
+            try {
+                loaded.load();
+            } catch (IOException e) {
+                System.err.println("TaskManager: failed to load habit streaks, keeping them in memory - " + e);
+                loaded = new HabitStreaks();
+            }
+            streaks = loaded;
+
+            TaskJournal loading = new TaskJournal(new File(dataDir, "tasks"));
+            Map<Long, TaskItem> tasks;
+            try {
+                tasks = loading.load();
+            } catch (IOException e) {
+                System.err.println("TaskManager: failed to load tasks, keeping changes in memory - " + e);
+                return;
+            }
+            for (TaskItem task : tasks.values()) {
+                IdGenerator.observe(task.getId());
+                assignHabitId(task);
+                store.put(task, categoryOf(task));
+                dayIndex.add(task);
+                trackPending(task);
+            }
+            journal = loading;
         }
-        return instance;
     }
 
     public void addTask(TaskItem task) {
-        allTasks.add(task);
-        categorizeTask(task);
+        synchronized (writeLock) {
+            replaceStale(task);
+            trackHabit(task);
+            store.put(task, categoryOf(task));
+            dayIndex.add(task);
+            trackPending(task);
+            persistPut(task);
+        }
+        notifyChanged(task);
+    }
+
+    // New habit instances join the series of earlier ones with the same title;
+    // restored ones re-register the id they were given
+    private void assignHabitId(TaskItem task) {
+        if (task.getType() != TaskItem.TaskType.HABIT) return;
+
+        String candidate = task.getHabitId() != null ? task.getHabitId() : Long.toString(task.getId());
+        String habitId = streaks.resolveHabitId(task.getTitle(), candidate);
+        if (task.getHabitId() == null) {
+            task.setHabitId(habitId);
+        }
+    }
+
+    // Folds a settled habit instance into its streak and stamps the habit's
+    // current streak on the instance
+    private void trackHabit(TaskItem task) {
+        if (task.getType() != TaskItem.TaskType.HABIT) return;
+
+        assignHabitId(task);
+        try {
+            streaks.record(task);
+        } catch (IOException e) {
+            System.err.println("TaskManager: failed to journal habit outcome for " + task.getId() + " - " + e);
+        }
+        HabitStreaks.Streak streak = streaks.get(task.getHabitId());
+        task.setStreakCount(streak != null ? streak.getCurrent() : 0);
+    }
+
+    // Only pending tasks are counted and searchable here; once settled, a task is
+    // counted and searched through the history it has joined instead
+    private void trackPending(TaskItem task) {
+        if (task.getStatus() == TaskItem.TaskStatus.PENDING) {
+            dayStats.put(task);
+            synchronized (searchIndex) {
+                searchIndex.put(task);
+            }
+        } else {
+            dayStats.remove(task.getId());
+            synchronized (searchIndex) {
+                searchIndex.remove(task.getId());
+            }
+        }
     }
 
-    private void categorizeTask(TaskItem task) {
+    private static TaskStore.Category categoryOf(TaskItem task) {
         // Categorize tasks
         switch (task.getType()) {
             case TODO:
             case DAILY_ACTIVITY:
-                if (isToday(task.getCreatedDate())) {
-                    todayTasks.add(task);
-                }
-                break;
+                return task.getCreatedEpochDay() == EpochDays.today() ? TaskStore.Category.TODAY : null;
             case HABIT:
-                habitTasks.add(task);
-                break;
+                return TaskStore.Category.HABIT;
             case PLANNING:
-                planningTasks.add(task);
-                break;
+                return TaskStore.Category.PLANNING;
+            default:
+                return null;
+        }
+    }
+
+    // A different instance carrying the same id takes over its slot; drop the old one from the day index
+    private void replaceStale(TaskItem task) {
+        TaskItem existing = store.get(task.getId());
+        if (existing != null && existing != task) {
+            dayIndex.remove(existing);
         }
     }
 
     public void removeTask(TaskItem task) {
-        allTasks.remove(task);
-        todayTasks.remove(task);
-        habitTasks.remove(task);
-        planningTasks.remove(task);
+        TaskItem removed;
+        synchronized (writeLock) {
+            removed = store.remove(task.getId());
+            if (removed == null) return;
+
+            dayIndex.remove(removed);
+            dayStats.remove(removed.getId());
+            synchronized (searchIndex) {
+                searchIndex.remove(removed.getId());
+            }
+            persistRemove(removed);
+        }
+        for (TaskListener listener : listeners) {
+            listener.onTaskRemoved(removed);
+        }
     }
 
     public void updateTask(TaskItem task) {
-        // This method ensures the task is properly updated in all lists
-        if (!allTasks.contains(task)) {
-            allTasks.add(task);
+        // Adds the task if it is not stored yet, then re-categorizes it
+        synchronized (writeLock) {
+            replaceStale(task);
+            trackHabit(task);
+            store.put(task, categoryOf(task));
+            dayIndex.add(task);
+            trackPending(task);
+            persistPut(task);
         }
+        notifyChanged(task);
+    }
 
-        // Re-categorize after update
-        todayTasks.remove(task);
-        habitTasks.remove(task);
-        planningTasks.remove(task);
-        categorizeTask(task);
+    public void addTaskListener(TaskListener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+        }
     }
 
-    public List<TaskItem> getTasksByDate(Date date) {
-        List<TaskItem> tasks = new ArrayList<>();
+    public void removeTaskListener(TaskListener listener) {
+        listeners.remove(listener);
+    }
 
-        // Include tasks from GameManager history as well
-        GameManager gameManager = GameManager.getInstance();
-        List<TaskItem> allHistoryTasks = new ArrayList<>(allTasks);
-        allHistoryTasks.addAll(gameManager.getTaskHistory());
+    private void notifyChanged(TaskItem task) {
+        for (TaskListener listener : listeners) {
+            listener.onTaskChanged(task);
+        }
+    }
 
-        for (TaskItem task : allHistoryTasks) {
-            if (isSameDay(task.getCreatedDate(), date) ||
-                (task.getDueDate() != null && isSameDay(task.getDueDate(), date))) {
-                tasks.add(task);
-            }
+    private void persistPut(TaskItem task) {
+        if (journal == null) return;
+        try {
+            journal.recordPut(task);
+            snapshotIfNeeded();
+        } catch (IOException e) {
+            System.err.println("TaskManager: failed to journal task " + task.getId() + " - " + e);
         }
+    }
+
+    private void persistRemove(TaskItem task) {
+        if (journal == null) return;
+        try {
+            journal.recordRemove(task.getId());
+            snapshotIfNeeded();
+        } catch (IOException e) {
+            System.err.println("TaskManager: failed to journal removal of " + task.getId() + " - " + e);
+        }
+    }
+
+    private void snapshotIfNeeded() throws IOException {
+        if (journal.shouldSnapshot()) {
+            journal.snapshot(store.all());
+        }
+    }
+
+    // Both lookups read only the day's buckets; finished tasks that have already
+    // left the active lists are copied out of GameManager's settled history, each
+    // task once. Neither takes the write lock: the day index is read from its
+    // published buckets and the history guards itself, so the calendar can run
+    // them off the main thread, cold segments included.
+    public List<TaskItem> getTasksByDate(Date date) {
+        long day = EpochDays.of(date);
+        List<TaskItem> tasks = new ArrayList<>();
+        ensureCurrentZone();
+        dayIndex.collectScheduledOn(day, tasks);
+        game.collectHistoryScheduledOn(day, tasks, heldOrSeen());
         return tasks;
     }
 
     public List<TaskItem> getCompletedTasksByDate(Date date) {
+        long day = EpochDays.of(date);
         List<TaskItem> completedTasks = new ArrayList<>();
+        ensureCurrentZone();
+        dayIndex.collectCompletedOn(day, completedTasks);
+        game.collectHistoryCompletedOn(day, completedTasks, heldOrSeen());
+        return completedTasks;
+    }
+
+    // The one day lookup after a zone change refiles the day index as a writer
+    private void ensureCurrentZone() {
+        if (dayIndex.isCurrentZone()) return;
+        synchronized (writeLock) {
+            dayIndex.ensureCurrentZone();
+        }
+    }
 
-        // Include tasks from GameManager history
-        GameManager gameManager = GameManager.getInstance();
-        List<TaskItem> allHistoryTasks = new ArrayList<>(allTasks);
-        allHistoryTasks.addAll(gameManager.getTaskHistory());
+    // True for ids of held tasks, which the day index already answered for, and
+    // for ids an earlier tier already listed
+    private LongPredicate heldOrSeen() {
+        LongMap<Boolean> seen = new LongMap<>();
+        return id -> dayIndex.holds(id) || seen.put(id, Boolean.TRUE) != null;
+    }
 
-        for (TaskItem task : allHistoryTasks) {
-            if (task.getStatus() == TaskItem.TaskStatus.COMPLETED &&
-                task.getCompletedDate() != null &&
-                isSameDay(task.getCompletedDate(), date)) {
-                completedTasks.add(task);
-            }
+    // Pending quests whose title or description words start with every word of
+    // the query, best match first; settled ones are searched through
+    // GameManager.searchHistory. Nothing is read from disk; safe from any thread.
+    public List<TaskItem> searchPending(String query, int limit) {
+        synchronized (searchIndex) {
+            return searchIndex.search(query, limit);
         }
-        return completedTasks;
     }
 
-    public List<TaskItem> getHabitStreak(String habitTitle) {
-        List<TaskItem> streak = new ArrayList<>();
-        for (TaskItem task : habitTasks) {
-            if (task.getTitle().equals(habitTitle) &&
-                task.getStatus() == TaskItem.TaskStatus.COMPLETED) {
-                streak.add(task);
+    // Counters for one day, or summed over [from, to]: the pending tasks' plus
+    // the settled history's, which outlive a restart in its summary and journal.
+    // A day is O(1), a range O(log D) for D days counted; safe from any thread
+    public DayStats getDayStats(Date date) {
+        long day = EpochDays.of(date);
+        return dayStats.get(day).plus(game.getHistoryStats(day));
+    }
+
+    public DayStats getDayStats(Date from, Date to) {
+        long fromDay = EpochDays.of(from);
+        long toDay = EpochDays.of(to);
+        return dayStats.range(fromDay, toDay).plus(game.getHistoryStats(fromDay, toDay));
+    }
+
+    // Recurring tasks that repeat on the given day (today or later) without an
+    // instance created or due then; each stands in for that day's occurrence
+    public List<TaskItem> getOccurrencesOn(Date date) {
+        long day = EpochDays.of(date);
+        List<TaskItem> occurrences = new ArrayList<>();
+        if (day >= EpochDays.today()) {
+            synchronized (writeLock) {
+                dayIndex.collectOccurrencesOn(day, occurrences);
             }
         }
-        return streak;
+        return occurrences;
+    }
+
+    // Null if no instance of the habit has been completed, failed or skipped yet;
+    // safe from any thread
+    public HabitStreaks.Streak getHabitStreak(String habitId) {
+        return streaks.get(habitId);
     }
 
-    private boolean isToday(Date date) {
-        return isSameDay(date, new Date());
+    public Collection<HabitStreaks.Streak> getHabitStreaks() {
+        return streaks.all();
     }
 
-    private boolean isSameDay(Date date1, Date date2) {
-        Calendar cal1 = Calendar.getInstance();
-        Calendar cal2 = Calendar.getInstance();
-        cal1.setTime(date1);
-        cal2.setTime(date2);
-        return cal1.get(Calendar.YEAR) == cal2.get(Calendar.YEAR) &&
-               cal1.get(Calendar.DAY_OF_YEAR) == cal2.get(Calendar.DAY_OF_YEAR);
+    // Pending tasks due within (now, now + windowMs], soonest first
+    public List<TaskItem> getTasksDueWithin(long now, long windowMs) {
+        List<TaskItem> upcomingTasks = new ArrayList<>();
+        for (TaskItem task : store.snapshot()) {
+            if (task.getStatus() != TaskItem.TaskStatus.PENDING) continue;
+
+            if (task.getDueDate() != null) {
+                long timeToDue = task.getDueDate().getTime() - now;
+                if (timeToDue > 0 && timeToDue <= windowMs) {
+                    upcomingTasks.add(task);
+                }
+            }
+        }
+
+        // Sort by due date
+        upcomingTasks.sort((t1, t2) -> t1.getDueDate().compareTo(t2.getDueDate()));
+        return upcomingTasks;
+    }
+
+    public List<TaskItem> getOverdueTasks() {
+        List<TaskItem> overdueTasks = new ArrayList<>();
+        for (TaskItem task : store.snapshot()) {
+            if (task.getStatus() == TaskItem.TaskStatus.PENDING && task.isOverdue()) {
+                overdueTasks.add(task);
+            }
+        }
+        return overdueTasks;
     }
 
-    // Getters
-    public List<TaskItem> getAllTasks() { return allTasks; }
-    public List<TaskItem> getTodayTasks() { return todayTasks; }
-    public List<TaskItem> getHabitTasks() { return habitTasks; }
-    public List<TaskItem> getPlanningTasks() { return planningTasks; }
+    // getAllTasks and the due/overdue queries read an immutable snapshot and are
+    // safe from any thread, as are the day lookups above; the category views are main-thread only
+    public TaskSnapshot getAllTasks() { return store.snapshot(); }
+    public Collection<TaskItem> getTodayTasks() { return store.inCategory(TaskStore.Category.TODAY); }
+    public Collection<TaskItem> getHabitTasks() { return store.inCategory(TaskStore.Category.HABIT); }
+    public Collection<TaskItem> getPlanningTasks() { return store.inCategory(TaskStore.Category.PLANNING); }
+    public TaskItem getTask(long id) { return store.get(id); }
+    public int getTaskCount() { return store.size(); }
 }
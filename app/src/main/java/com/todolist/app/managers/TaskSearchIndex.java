@@ -0,0 +1,476 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.TaskItem;
+import com.todolist.app.utils.LongIntMap;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+// Inverted index over task titles and descriptions. Text is split into lower-case
+// runs of letters and digits; every query word must match the start of some
+// word of the task, so results narrow as the user types. Results are ranked by
+// how well the words hit: a title word counts more than a description word, a
+// whole word more than a prefix, and a rare word more than a common one.
+//
+// Each (re)indexed task gets a new document number, so postings only ever grow at
+// the end and stay sorted. A task whose text changed leaves its old document dead;
+// dead postings are skipped on lookup and, once they make up half of the index,
+// dropped and the live documents renumbered, much as ReminderScheduler treats
+// cancelled events. Cold documents keep only a task id and the segment number
+// the owner files the task under, and are loaded back if they make the results;
+// their postings can be written out and read back without the tasks.
+// Not thread-safe: each owner guards its own.
+class TaskSearchIndex {
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float PREFIX_FACTOR = 0.5f;
+    private static final int MIN_COMPACTION_ENTRIES = 1024;
+
+    private static final class Postings {
+        int[] docs = new int[4];
+        float[] weights = new float[4];
+        int size;
+        // Entries whose document is still live; the term is dropped at 0
+        int live;
+
+        void add(int doc, float weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = doc;
+            weights[size] = weight;
+            size++;
+            live++;
+        }
+    }
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    // Loads a task that is only indexed by the cold segment it was archived in
+    interface ColdLoader {
+        TaskItem load(int segment, long taskId);
+    }
+
+    // One ranked match: the task itself, or for a cold document its id and segment
+    static final class Hit {
+        final long taskId;
+        final int segment;
+        final TaskItem task;
+
+        Hit(long taskId, int segment, TaskItem task) {
+            this.taskId = taskId;
+            this.segment = segment;
+            this.task = task;
+        }
+    }
+
+    private static final int NO_DOC = -1;
+
+    private final LongIntMap docByTaskId = new LongIntMap();
+    // Indexed by document number; the terms are null once the document is dead
+    private long[] docIds = new long[64];
+    private String[][] docTerms = new String[64][];
+    // The task, or null for a cold task, which has the segment number instead of -1
+    private TaskItem[] docTasks = new TaskItem[64];
+    private int[] docSegments = new int[64];
+    // The text each live document was built from, to skip re-indexing unchanged tasks
+    private String[] docTitles = new String[64];
+    private String[] docDescriptions = new String[64];
+    private int docCount;
+    private int liveDocs;
+    private int totalEntries;
+    private int deadEntries;
+
+    // Per-query scratch, indexed by document number; stamps avoid clearing between words
+    private int[] wordStamp = new int[64];
+    private float[] wordScore = new float[64];
+    private int stamp;
+
+    void put(TaskItem task) {
+        int doc = docByTaskId.getOrDefault(task.getId(), NO_DOC);
+        if (doc != NO_DOC) {
+            if (docTasks[doc] == task && equal(docTitles[doc], task.getTitle())
+                    && equal(docDescriptions[doc], task.getDescription())) {
+                return;
+            }
+            kill(doc);
+        }
+        index(task, -1);
+    }
+
+    // Indexes the task's text without keeping the task itself; segment is the
+    // owner's, any value but -1
+    void putCold(TaskItem task, int segment) {
+        remove(task.getId());
+        index(task, segment);
+    }
+
+    // Files a cold document under another segment, e.g. once its task has moved
+    void relocate(long taskId, int segment) {
+        int doc = docByTaskId.getOrDefault(taskId, NO_DOC);
+        if (doc != NO_DOC && docTasks[doc] == null) {
+            docSegments[doc] = segment;
+        }
+    }
+
+    // Segment of the task's cold document, or -1 if it is hot or not indexed
+    int segmentOf(long taskId) {
+        int doc = docByTaskId.getOrDefault(taskId, NO_DOC);
+        return doc != NO_DOC && docTasks[doc] == null ? docSegments[doc] : -1;
+    }
+
+    private void index(TaskItem task, int segment) {
+
+        int doc = docCount++;
+        ensureDocCapacity(docCount);
+        // A word weighs the same however often it repeats within a field
+        Map<String, Float> weights = new HashMap<>();
+        for (String token : tokenize(task.getTitle())) {
+            weights.put(token, TITLE_WEIGHT);
+        }
+        for (String token : new HashSet<>(tokenize(task.getDescription()))) {
+            weights.merge(token, DESCRIPTION_WEIGHT, Float::sum);
+        }
+
+        String[] indexed = new String[weights.size()];
+        int i = 0;
+        for (Map.Entry<String, Float> entry : weights.entrySet()) {
+            Postings postings = terms.get(entry.getKey());
+            if (postings == null) {
+                postings = new Postings();
+                terms.put(entry.getKey(), postings);
+            }
+            postings.add(doc, entry.getValue());
+            indexed[i++] = entry.getKey();
+        }
+        totalEntries += indexed.length;
+
+        boolean hot = segment == -1;
+        docIds[doc] = task.getId();
+        docTerms[doc] = indexed;
+        docTasks[doc] = hot ? task : null;
+        docSegments[doc] = segment;
+        docTitles[doc] = hot ? task.getTitle() : null;
+        docDescriptions[doc] = hot ? task.getDescription() : null;
+        docByTaskId.put(task.getId(), doc);
+        liveDocs++;
+    }
+
+    void remove(long taskId) {
+        int doc = docByTaskId.removeOrDefault(taskId, NO_DOC);
+        if (doc != NO_DOC) {
+            kill(doc);
+        }
+    }
+
+    int size() {
+        return liveDocs;
+    }
+
+    private void kill(int doc) {
+        for (String term : docTerms[doc]) {
+            Postings postings = terms.get(term);
+            if (--postings.live == 0) {
+                // Nothing live is left under the term; its entries go with it
+                deadEntries -= postings.size - 1;
+                totalEntries -= postings.size;
+                terms.remove(term);
+            } else {
+                deadEntries++;
+            }
+        }
+        docTerms[doc] = null;
+        docTasks[doc] = null;
+        docTitles[doc] = null;
+        docDescriptions[doc] = null;
+        liveDocs--;
+        if (deadEntries > MIN_COMPACTION_ENTRIES && deadEntries > totalEntries / 2) {
+            compact();
+        }
+    }
+
+    // Drops dead entries and renumbers the live documents densely, in their old
+    // order, so every postings list stays sorted
+    private void compact() {
+        // New number of each old document, or -1 if it is dead
+        int[] renumbered = new int[docCount];
+        Arrays.fill(renumbered, -1);
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (docTerms[doc] == null) continue;
+
+            renumbered[doc] = next;
+            docIds[next] = docIds[doc];
+            docTerms[next] = docTerms[doc];
+            docTasks[next] = docTasks[doc];
+            docSegments[next] = docSegments[doc];
+            docTitles[next] = docTitles[doc];
+            docDescriptions[next] = docDescriptions[doc];
+            docByTaskId.put(docIds[next], next);
+            next++;
+        }
+        Arrays.fill(docTerms, next, docCount, null);
+        Arrays.fill(docTasks, next, docCount, null);
+        Arrays.fill(docTitles, next, docCount, null);
+        Arrays.fill(docDescriptions, next, docCount, null);
+
+        for (Postings postings : terms.values()) {
+            int kept = 0;
+            for (int i = 0; i < postings.size; i++) {
+                int doc = renumbered[postings.docs[i]];
+                if (doc >= 0) {
+                    postings.docs[kept] = doc;
+                    postings.weights[kept] = postings.weights[i];
+                    kept++;
+                }
+            }
+            postings.size = kept;
+        }
+        docCount = next;
+        totalEntries -= deadEntries;
+        deadEntries = 0;
+    }
+
+    // Best matches first, at most limit of them; cold tasks are left out
+    List<TaskItem> search(String query, int limit) {
+        return search(query, limit, null);
+    }
+
+    // As above, loading cold tasks through the loader; any it cannot find are skipped
+    List<TaskItem> search(String query, int limit, ColdLoader cold) {
+        List<TaskItem> results = new ArrayList<>();
+        for (Hit hit : hits(query, limit, cold != null)) {
+            TaskItem task = hit.task != null ? hit.task : cold.load(hit.segment, hit.taskId);
+            if (task != null) {
+                results.add(task);
+            }
+        }
+        return results;
+    }
+
+    // Best matches first without loading anything, so an owner can load cold
+    // tasks after letting go of its lock
+    List<Hit> hits(String query, int limit, boolean includeCold) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty() || limit <= 0) return new ArrayList<>();
+
+        // Documents matching every word so far, with their summed scores
+        int[] candidates = null;
+        float[] scores = null;
+        int candidateCount = 0;
+        for (String word : words) {
+            stamp++;
+            int[] matched = new int[16];
+            int matchedCount = 0;
+            float idfBase = liveDocs + 1f;
+
+            for (Map.Entry<String, Postings> entry : prefixRange(word).entrySet()) {
+                Postings postings = entry.getValue();
+                float factor = entry.getKey().length() == word.length() ? 1f : PREFIX_FACTOR;
+                float idf = (float) Math.log(idfBase / postings.live);
+                for (int i = 0; i < postings.size; i++) {
+                    int doc = postings.docs[i];
+                    if (docTerms[doc] == null || (docTasks[doc] == null && !includeCold)) continue;
+
+                    float score = postings.weights[i] * factor * (1f + idf);
+                    if (wordStamp[doc] != stamp) {
+                        wordStamp[doc] = stamp;
+                        wordScore[doc] = score;
+                        if (matchedCount == matched.length) {
+                            matched = Arrays.copyOf(matched, matchedCount * 2);
+                        }
+                        matched[matchedCount++] = doc;
+                    } else if (score > wordScore[doc]) {
+                        wordScore[doc] = score;
+                    }
+                }
+            }
+
+            if (candidates == null) {
+                candidates = matched;
+                candidateCount = matchedCount;
+                scores = new float[matchedCount];
+                for (int i = 0; i < matchedCount; i++) {
+                    scores[i] = wordScore[matched[i]];
+                }
+            } else {
+                // Keep only the candidates this word matched too
+                int kept = 0;
+                for (int i = 0; i < candidateCount; i++) {
+                    int doc = candidates[i];
+                    if (wordStamp[doc] == stamp) {
+                        candidates[kept] = doc;
+                        scores[kept] = scores[i] + wordScore[doc];
+                        kept++;
+                    }
+                }
+                candidateCount = kept;
+            }
+            if (candidateCount == 0) return new ArrayList<>();
+        }
+
+        return topResults(candidates, scores, candidateCount, limit);
+    }
+
+    private SortedMap<String, Postings> prefixRange(String prefix) {
+        return terms.subMap(prefix, prefix + Character.MAX_VALUE);
+    }
+
+    // Partial sort through a bounded min-heap; ties go to the more recently indexed task
+    private List<Hit> topResults(int[] docs, float[] scores, int count, int limit) {
+        Comparator<Integer> ranking = (a, b) -> {
+            int byScore = Float.compare(scores[a], scores[b]);
+            return byScore != 0 ? byScore : Integer.compare(docs[a], docs[b]);
+        };
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.min(count, limit) + 1, ranking);
+        for (int i = 0; i < count; i++) {
+            if (heap.size() < limit) {
+                heap.add(i);
+            } else if (ranking.compare(i, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(i);
+            }
+        }
+
+        Hit[] ranked = new Hit[heap.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            int doc = docs[heap.poll()];
+            ranked[i] = new Hit(docIds[doc], docSegments[doc], docTasks[doc]);
+        }
+        return Arrays.asList(ranked);
+    }
+
+    // The cold documents filed under the given segments: the documents first, then
+    // every term with its postings among them, which readCold turns back into an index
+    void writeCold(DataOutputStream out, IntPredicate segments) throws IOException {
+        // Position of each written document, or -1
+        int[] written = new int[docCount];
+        int count = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            boolean cold = docTerms[doc] != null && docTasks[doc] == null && segments.test(docSegments[doc]);
+            written[doc] = cold ? count++ : -1;
+        }
+        out.writeInt(count);
+        for (int doc = 0; doc < docCount; doc++) {
+            if (written[doc] < 0) continue;
+            out.writeLong(docIds[doc]);
+            out.writeInt(docSegments[doc]);
+        }
+
+        List<Map.Entry<String, Postings>> used = new ArrayList<>();
+        for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+            Postings postings = entry.getValue();
+            for (int i = 0; i < postings.size; i++) {
+                if (written[postings.docs[i]] >= 0) {
+                    used.add(entry);
+                    break;
+                }
+            }
+        }
+        out.writeInt(used.size());
+        for (Map.Entry<String, Postings> entry : used) {
+            Postings postings = entry.getValue();
+            int entries = 0;
+            for (int i = 0; i < postings.size; i++) {
+                if (written[postings.docs[i]] >= 0) entries++;
+            }
+            out.writeUTF(entry.getKey());
+            out.writeInt(entries);
+            for (int i = 0; i < postings.size; i++) {
+                int position = written[postings.docs[i]];
+                if (position < 0) continue;
+                out.writeInt(position);
+                out.writeFloat(postings.weights[i]);
+            }
+        }
+    }
+
+    // Adds documents written by writeCold; none of their tasks may be indexed yet
+    void readCold(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        int first = docCount;
+        ensureDocCapacity(first + count);
+        List<List<String>> docWords = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int doc = first + i;
+            docIds[doc] = in.readLong();
+            docSegments[doc] = in.readInt();
+            docByTaskId.put(docIds[doc], doc);
+            docWords.add(new ArrayList<>());
+        }
+
+        int termCount = in.readInt();
+        for (int t = 0; t < termCount; t++) {
+            String term = in.readUTF();
+            Postings postings = terms.get(term);
+            if (postings == null) {
+                postings = new Postings();
+                terms.put(term, postings);
+            }
+            int entries = in.readInt();
+            for (int i = 0; i < entries; i++) {
+                int position = in.readInt();
+                postings.add(first + position, in.readFloat());
+                docWords.get(position).add(term);
+            }
+            totalEntries += entries;
+        }
+
+        for (int i = 0; i < count; i++) {
+            docTerms[first + i] = docWords.get(i).toArray(new String[0]);
+        }
+        docCount = first + count;
+        liveDocs += count;
+    }
+
+    private void ensureDocCapacity(int capacity) {
+        if (capacity <= docTasks.length) return;
+
+        int grown = Math.max(capacity, docTasks.length * 2);
+        docIds = Arrays.copyOf(docIds, grown);
+        docTerms = Arrays.copyOf(docTerms, grown);
+        docTasks = Arrays.copyOf(docTasks, grown);
+        docSegments = Arrays.copyOf(docSegments, grown);
+        docTitles = Arrays.copyOf(docTitles, grown);
+        docDescriptions = Arrays.copyOf(docDescriptions, grown);
+        wordStamp = Arrays.copyOf(wordStamp, grown);
+        wordScore = Arrays.copyOf(wordScore, grown);
+    }
+
+    // Lower-case runs of letters and digits, in order, duplicates included
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isLetterOrDigit(codePoint)) {
+                token.appendCodePoint(Character.toLowerCase(codePoint));
+            } else if (token.length() > 0) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    private static boolean equal(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,68 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.TaskItem;
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Immutable view of a TaskStore's membership at one version. It shares its
+// segments with the store, which never writes to a slot a published snapshot can
+// see, so holding or iterating one is safe from any thread and costs no copying.
+// The tasks themselves are still mutable objects owned by the main thread.
+public final class TaskSnapshot extends AbstractCollection<TaskItem> {
+    static final int SEGMENT_SHIFT = 6;
+    static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    static final TaskSnapshot EMPTY = new TaskSnapshot(new TaskItem[0][], 0, 0, 0);
+
+    private final TaskItem[][] segments;
+    private final int slotCount;
+    private final int size;
+    private final long version;
+
+    TaskSnapshot(TaskItem[][] segments, int slotCount, int size, long version) {
+        this.segments = segments;
+        this.slotCount = slotCount;
+        this.size = size;
+        this.version = version;
+    }
+
+    // Increases with every change to the store; equal versions mean equal contents
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Tasks in insertion order; slots emptied by removals are skipped
+    @Override
+    public Iterator<TaskItem> iterator() {
+        return new Iterator<TaskItem>() {
+            private int slot = advance(0);
+
+            private int advance(int from) {
+                while (from < slotCount && segments[from >>> SEGMENT_SHIFT][from & SEGMENT_MASK] == null) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return slot < slotCount;
+            }
+
+            @Override
+            public TaskItem next() {
+                if (slot >= slotCount) throw new NoSuchElementException();
+                TaskItem task = segments[slot >>> SEGMENT_SHIFT][slot & SEGMENT_MASK];
+                slot = advance(slot + 1);
+                return task;
+            }
+        };
+    }
+}
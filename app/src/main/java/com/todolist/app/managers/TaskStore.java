@@ -0,0 +1,201 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.TaskItem;
+import com.todolist.app.utils.LongIntMap;
+import com.todolist.app.utils.LongMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Tasks keyed by id in insertion order, plus one membership map per category.
+// Lookups, adds and recategorizing are a constant number of hash operations,
+// so no operation scans the task list.
+//
+// Membership is kept in fixed-size slot segments and republished after every
+// change as an immutable TaskSnapshot. Appends fill slots no snapshot can see yet;
+// a removal copies only the affected segment and the segment table. Mutations
+// and the category views belong to a single writer; snapshot() and iteration are
+// safe from any thread and never wait on the writer.
+public class TaskStore implements Iterable<TaskItem> {
+    public enum Category {
+        TODAY, HABIT, PLANNING
+    }
+
+    // Emptied slots are compacted away once they outnumber the live tasks
+    private static final int MIN_COMPACT_SLOTS = 64;
+
+    private static final int NO_SLOT = -1;
+
+    private final LongIntMap slotById = new LongIntMap();
+    private final LongMap<Category> categoryById = new LongMap<>();
+    private final Map<Category, Map<Long, TaskItem>> byCategory = new EnumMap<>(Category.class);
+    private TaskItem[][] segments = new TaskItem[4][];
+    private int slotCount;
+    private int size;
+    private long version;
+    private volatile TaskSnapshot snapshot = TaskSnapshot.EMPTY;
+
+    public TaskStore() {
+        for (Category category : Category.values()) {
+            byCategory.put(category, new LinkedHashMap<>());
+        }
+    }
+
+    // Adds the task, or replaces the one with the same id keeping its position
+    public void put(TaskItem task) {
+        put(task, null);
+    }
+
+    public void put(TaskItem task, Category category) {
+        long id = task.getId();
+        int slot = slotById.getOrDefault(id, NO_SLOT);
+        if (slot == NO_SLOT) {
+            slotById.put(id, append(task));
+            size++;
+        } else if (taskAt(slot) != task) {
+            writeSlot(slot, task);
+        }
+        setCategory(task, category);
+        publish();
+    }
+
+    // Moves an existing task to another category (or none); no-op if unknown
+    public void setCategory(TaskItem task, Category category) {
+        long id = task.getId();
+        if (!slotById.containsKey(id)) return;
+
+        Category previous = category != null
+            ? categoryById.put(id, category)
+            : categoryById.remove(id);
+        if (previous != null && previous != category) {
+            byCategory.get(previous).remove(id);
+        }
+        if (category != null) {
+            byCategory.get(category).put(id, task);
+        }
+    }
+
+    // Returns the stored task with this id, or null if there was none
+    public TaskItem remove(long id) {
+        int slot = slotById.removeOrDefault(id, NO_SLOT);
+        if (slot == NO_SLOT) return null;
+
+        TaskItem removed = taskAt(slot);
+        writeSlot(slot, null);
+        size--;
+        Category category = categoryById.remove(id);
+        if (category != null) {
+            byCategory.get(category).remove(id);
+        }
+
+        int emptySlots = slotCount - size;
+        if (emptySlots > MIN_COMPACT_SLOTS && emptySlots > size) {
+            compact();
+        }
+        publish();
+        return removed;
+    }
+
+    public TaskItem get(long id) {
+        int slot = slotById.getOrDefault(id, NO_SLOT);
+        return slot != NO_SLOT ? taskAt(slot) : null;
+    }
+
+    public boolean contains(long id) {
+        return slotById.containsKey(id);
+    }
+
+    public Category getCategory(long id) {
+        return categoryById.get(id);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        slotById.clear();
+        categoryById.clear();
+        for (Map<Long, TaskItem> members : byCategory.values()) {
+            members.clear();
+        }
+        segments = new TaskItem[4][];
+        slotCount = 0;
+        size = 0;
+        publish();
+    }
+
+    // Current membership, in insertion order; safe to keep and read from any thread
+    public TaskSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public Collection<TaskItem> all() {
+        return snapshot;
+    }
+
+    // Live read-only view for the writer's thread
+    public Collection<TaskItem> inCategory(Category category) {
+        return Collections.unmodifiableCollection(byCategory.get(category).values());
+    }
+
+    @Override
+    public Iterator<TaskItem> iterator() {
+        return snapshot.iterator();
+    }
+
+    private TaskItem taskAt(int slot) {
+        return segments[slot >>> TaskSnapshot.SEGMENT_SHIFT][slot & TaskSnapshot.SEGMENT_MASK];
+    }
+
+    // Slots at or past the published slot count are invisible to every snapshot,
+    // so appending never copies anything except when the table itself grows
+    private int append(TaskItem task) {
+        int slot = slotCount++;
+        int segment = slot >>> TaskSnapshot.SEGMENT_SHIFT;
+        if (segment == segments.length) {
+            segments = Arrays.copyOf(segments, segments.length * 2);
+        }
+        if (segments[segment] == null) {
+            segments[segment] = new TaskItem[TaskSnapshot.SEGMENT_SIZE];
+        }
+        segments[segment][slot & TaskSnapshot.SEGMENT_MASK] = task;
+        return slot;
+    }
+
+    // A visible slot is never written in place: copy its segment and the table
+    private void writeSlot(int slot, TaskItem task) {
+        int segment = slot >>> TaskSnapshot.SEGMENT_SHIFT;
+        TaskItem[] copy = segments[segment].clone();
+        copy[slot & TaskSnapshot.SEGMENT_MASK] = task;
+        TaskItem[][] table = segments.clone();
+        table[segment] = copy;
+        segments = table;
+    }
+
+    private void compact() {
+        TaskItem[][] old = segments;
+        int oldSlotCount = slotCount;
+        int segmentCount = Math.max(4, (size >>> TaskSnapshot.SEGMENT_SHIFT) + 1);
+        segments = new TaskItem[segmentCount][];
+        slotCount = 0;
+        for (int i = 0; i < oldSlotCount; i++) {
+            TaskItem task = old[i >>> TaskSnapshot.SEGMENT_SHIFT][i & TaskSnapshot.SEGMENT_MASK];
+            if (task != null) {
+                slotById.put(task.getId(), append(task));
+            }
+        }
+    }
+
+    private void publish() {
+        snapshot = new TaskSnapshot(segments, slotCount, size, ++version);
+    }
+}
@@ -1,5 +1,7 @@
 package com.todolist.app.models;
 
+import com.todolist.app.utils.IdGenerator;
+
 public class Character {
     public enum CharacterStatus {
         ALIVE, DEAD
@@ -8,15 +10,21 @@ public class Character {
     private String id;
     private String name;
     private String imagePath;
-    private CharacterStatus status;
+    // Status, ownership and progress may be updated by background reward processing
+    private volatile CharacterStatus status;
     private int price;
-    private boolean isOwned;
+    private volatile boolean isOwned;
     private boolean isFree;
-    private int level;
-    private int experience;
+    private volatile int level;
+    private volatile int experience;
 
     public Character(String name, String imagePath, int price, boolean isFree) {
-        this.id = System.currentTimeMillis() + "_" + Math.random();
+        this(Long.toString(IdGenerator.next()), name, imagePath, price, isFree);
+    }
+
+    // Catalogue characters use fixed ids so ledger entries still match after a restart
+    public Character(String id, String name, String imagePath, int price, boolean isFree) {
+        this.id = id;
         this.name = name;
         this.imagePath = imagePath;
         this.price = price;
@@ -27,12 +35,14 @@ public class Character {
         this.experience = 0;
     }
 
-    public void gainExperience(int exp) {
+    public synchronized void gainExperience(int exp) {
         this.experience += exp;
-        // Level up logic (every 100 exp = 1 level)
-        if (this.experience >= this.level * 100) {
-            this.level++;
-        }
+        this.level = levelAfterGain(this.level, this.experience);
+    }
+
+    // Level up logic (every 100 exp = 1 level); shared with ledger replay
+    public static int levelAfterGain(int level, int experience) {
+        return experience >= level * 100 ? level + 1 : level;
     }
 
     public void kill() {
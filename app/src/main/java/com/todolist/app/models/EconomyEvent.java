@@ -0,0 +1,45 @@
+package com.todolist.app.models;
+
+// One immutable entry in the coin/XP ledger. Coin-changing events carry the
+// balance right after they were applied, so a history list needs no running sum.
+public final class EconomyEvent {
+    public enum Type {
+        REWARD, PENALTY, PURCHASE, REVIVE, KILL, XP, ACTIVATE
+    }
+
+    private final long sequence;
+    private final long timestamp;
+    private final Type type;
+    private final int coinDelta;
+    private final int xpDelta;
+    private final String characterId;
+    private final String reference;
+    private final int balanceAfter;
+
+    public EconomyEvent(long sequence, long timestamp, Type type, int coinDelta, int xpDelta,
+                        String characterId, String reference, int balanceAfter) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.type = type;
+        this.coinDelta = coinDelta;
+        this.xpDelta = xpDelta;
+        this.characterId = characterId;
+        this.reference = reference;
+        this.balanceAfter = balanceAfter;
+    }
+
+    public boolean changesCoins() {
+        return coinDelta != 0;
+    }
+
+    // Getters
+    public long getSequence() { return sequence; }
+    public long getTimestamp() { return timestamp; }
+    public Type getType() { return type; }
+    public int getCoinDelta() { return coinDelta; }
+    public int getXpDelta() { return xpDelta; }
+    public String getCharacterId() { return characterId; }
+    // Task title or id that caused the event, if any
+    public String getReference() { return reference; }
+    public int getBalanceAfter() { return balanceAfter; }
+}
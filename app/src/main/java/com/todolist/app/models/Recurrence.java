@@ -0,0 +1,85 @@
+package com.todolist.app.models;
+
+import com.todolist.app.utils.EpochDays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+// The series a recurring task repeats on: every intervalDays local days from its
+// anchor day, with reminders at fixed times on each of those days. Occurrences
+// are never stored; any day can be tested, and the next one found, with plain
+// arithmetic, so a habit costs the same whether it has run for a week or a year.
+// Immutable and safe to share across threads.
+public final class Recurrence {
+    private static final int[] DAILY_REMINDER_MINUTES = {9 * 60};
+    private static final int[] HABIT_REMINDER_MINUTES = {10 * 60, 14 * 60, 18 * 60};
+
+    private final long anchorDay;
+    private final int intervalDays;
+    // Minutes after local midnight, ascending
+    private final int[] reminderMinutes;
+
+    private Recurrence(long anchorDay, int intervalDays, int[] reminderMinutes) {
+        this.anchorDay = anchorDay;
+        this.intervalDays = intervalDays;
+        this.reminderMinutes = reminderMinutes;
+    }
+
+    // Null unless the type repeats and the interval and anchor are usable
+    public static Recurrence of(TaskItem.TaskType type, int intervalDays, long anchorDay) {
+        if (intervalDays <= 0 || anchorDay == EpochDays.NONE) return null;
+
+        switch (type) {
+            case DAILY_ACTIVITY:
+                return new Recurrence(anchorDay, intervalDays, DAILY_REMINDER_MINUTES);
+            case HABIT:
+                return new Recurrence(anchorDay, intervalDays, HABIT_REMINDER_MINUTES);
+            default:
+                return null;
+        }
+    }
+
+    public boolean occursOn(long day) {
+        return day >= anchorDay && (day - anchorDay) % intervalDays == 0;
+    }
+
+    // First occurrence on or after the given day
+    public long nextOnOrAfter(long day) {
+        if (day <= anchorDay) return anchorDay;
+        long periods = (day - anchorDay + intervalDays - 1) / intervalDays;
+        return anchorDay + periods * intervalDays;
+    }
+
+    // Occurrence days in [fromDay, toDay], ascending, computed as they are consumed
+    public PrimitiveIterator.OfLong days(long fromDay, long toDay) {
+        return new PrimitiveIterator.OfLong() {
+            private long next = nextOnOrAfter(fromDay);
+
+            @Override
+            public boolean hasNext() {
+                return next <= toDay;
+            }
+
+            @Override
+            public long nextLong() {
+                if (next > toDay) throw new NoSuchElementException();
+                long day = next;
+                next += intervalDays;
+                return day;
+            }
+        };
+    }
+
+    // Earliest reminder instant strictly after now
+    public long nextReminderAfter(long now) {
+        long day = nextOnOrAfter(EpochDays.of(now));
+        for (int minute : reminderMinutes) {
+            long at = EpochDays.toMillis(day, minute);
+            if (at > now) return at;
+        }
+        // Every reminder of that day has passed; the following occurrence's first one is next
+        return EpochDays.toMillis(nextOnOrAfter(day + 1), reminderMinutes[0]);
+    }
+
+    public long getAnchorDay() { return anchorDay; }
+    public int getIntervalDays() { return intervalDays; }
+}
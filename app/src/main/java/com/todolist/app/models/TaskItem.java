@@ -1,5 +1,8 @@
 package com.todolist.app.models;
 
+import com.todolist.app.utils.EpochDays;
+import com.todolist.app.utils.IdGenerator;
+import com.todolist.app.utils.TimeLabels;
 import java.util.Date;
 
 public class TaskItem {
@@ -15,7 +18,7 @@ public class TaskItem {
         LOW, MEDIUM, HIGH, URGENT
     }
 
-    private String id;
+    private long id;
     private String title;
     private String description;
     private TaskType type;
@@ -32,14 +35,75 @@ public class TaskItem {
     private int coinPenalty;
     private int streakCount;
     private boolean isOverdue;
+    // Shared by every instance of the same habit; null for other task types
+    private String habitId;
+
+    // Local epoch days of createdDate/dueDate/completedDate and the recurrence
+    // anchored on them, computed lazily. Each copy is immutable and remembers the
+    // zone and the fields it was computed from, and is used only while they all
+    // still match, so a copy published late by another thread (the calendar
+    // prepares days in the background) can never stand in for newer dates.
+    private static final class EpochDayCache {
+        final int zoneVersion;
+        final long createdAt;
+        final long dueAt;
+        final long completedAt;
+        final TaskType type;
+        final boolean recurring;
+        final int recurringDays;
+
+        final long createdEpochDay;
+        final long dueEpochDay;
+        final long completedEpochDay;
+        final Recurrence recurrence;
+
+        EpochDayCache(TaskItem task, int zoneVersion) {
+            this.zoneVersion = zoneVersion;
+            createdAt = millis(task.createdDate);
+            dueAt = millis(task.dueDate);
+            completedAt = millis(task.completedDate);
+            type = task.type;
+            recurring = task.isRecurring;
+            recurringDays = task.recurringDays;
+
+            createdEpochDay = EpochDays.of(task.createdDate);
+            dueEpochDay = EpochDays.of(task.dueDate);
+            completedEpochDay = EpochDays.of(task.completedDate);
+            // A series starts on its first due day, or the day it was created
+            recurrence = recurring
+                ? Recurrence.of(type, recurringDays, dueEpochDay != EpochDays.NONE ? dueEpochDay : createdEpochDay)
+                : null;
+        }
+
+        boolean matches(TaskItem task, int zoneVersion) {
+            return this.zoneVersion == zoneVersion
+                && createdAt == millis(task.createdDate)
+                && dueAt == millis(task.dueDate)
+                && completedAt == millis(task.completedDate)
+                && type == task.type
+                && recurring == task.isRecurring
+                && recurringDays == task.recurringDays;
+        }
+
+        private static long millis(Date date) {
+            return date != null ? date.getTime() : Long.MIN_VALUE;
+        }
+    }
+
+    private volatile EpochDayCache epochDays;
 
     public TaskItem(String title, TaskType type) {
-        this.id = System.currentTimeMillis() + "_" + Math.random();
+        this(IdGenerator.next(), title, type, new Date());
+    }
+
+    // Restores a task with its original identity, e.g. when loading from storage
+    public TaskItem(long id, String title, TaskType type, Date createdDate) {
+        this.id = id;
         this.title = title;
         this.type = type;
         this.status = TaskStatus.PENDING;
         this.priority = Priority.MEDIUM;
-        this.createdDate = new Date();
+        this.createdDate = createdDate;
         this.coinReward = getCoinRewardByType(type);
         this.coinPenalty = getCoinPenaltyByType(type);
         this.streakCount = 0;
@@ -49,7 +113,8 @@ public class TaskItem {
         this.isOverdue = false;
     }
 
-    private int getCoinRewardByType(TaskType type) {
+    // A task's reward and penalty are fixed by its type
+    public static int getCoinRewardByType(TaskType type) {
         switch (type) {
             case TODO: return 10;
             case HABIT: return 15;
@@ -59,7 +124,7 @@ public class TaskItem {
         }
     }
 
-    private int getCoinPenaltyByType(TaskType type) {
+    public static int getCoinPenaltyByType(TaskType type) {
         switch (type) {
             case TODO: return 5;
             case HABIT: return 10;
@@ -97,11 +162,22 @@ public class TaskItem {
         }
     }
 
+    private EpochDayCache epochDays() {
+        int zoneVersion = EpochDays.zoneVersion();
+        EpochDayCache cached = epochDays;
+        if (cached == null || !cached.matches(this, zoneVersion)) {
+            cached = new EpochDayCache(this, zoneVersion);
+            epochDays = cached;
+        }
+        return cached;
+    }
+
     public String getTimeUntilDue() {
         if (dueDate == null) return "";
+        return TimeLabels.untilDue(id, dueDate.getTime(), System.currentTimeMillis());
+    }
 
-        long currentTime = System.currentTimeMillis();
-        long dueTime = dueDate.getTime();
+    public static String formatTimeUntilDue(long dueTime, long currentTime) {
         long timeDiff = dueTime - currentTime;
 
         if (timeDiff < 0) {
@@ -122,7 +198,7 @@ public class TaskItem {
     }
 
     // Getters and Setters
-    public String getId() { return id; }
+    public long getId() { return id; }
     public String getTitle() { return title; }
     public void setTitle(String title) { this.title = title; }
     public String getDescription() { return description; }
@@ -152,4 +228,13 @@ public class TaskItem {
     public void setStreakCount(int streakCount) { this.streakCount = streakCount; }
     public boolean isOverdue() { return isOverdue; }
     public void setOverdue(boolean overdue) { isOverdue = overdue; }
+    public String getHabitId() { return habitId; }
+    public void setHabitId(String habitId) { this.habitId = habitId; }
+
+    // Local epoch days; EpochDays.NONE when the date is unset
+    public long getCreatedEpochDay() { return epochDays().createdEpochDay; }
+    public long getDueEpochDay() { return epochDays().dueEpochDay; }
+    public long getCompletedEpochDay() { return epochDays().completedEpochDay; }
+    // Null unless the task repeats
+    public Recurrence getRecurrence() { return epochDays().recurrence; }
 }
@@ -0,0 +1,260 @@
+package com.todolist.app.persistence;
+
+import com.todolist.app.models.Character;
+import com.todolist.app.models.EconomyEvent;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Append-only record of every coin and XP change. Each event is folded into a
+// projection (balance, per-character progress, active character, recent coin
+// history) as it is recorded, so reads are O(1) and never rescan the log. The
+// projection is snapshotted every snapshotInterval events and startup replays
+// only the tail after it. Without a directory the ledger is memory-only.
+public class EconomyLedger {
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 512;
+    public static final int HISTORY_CAPACITY = 200;
+
+    private static final int SNAPSHOT_MAGIC = 0x45434F4E; // "ECON"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    // Projected state of one character, as of the last applied event
+    public static final class CharacterProgress {
+        private boolean owned;
+        private boolean alive = true;
+        private int level = 1;
+        private int experience;
+
+        private CharacterProgress copy() {
+            CharacterProgress copy = new CharacterProgress();
+            copy.owned = owned;
+            copy.alive = alive;
+            copy.level = level;
+            copy.experience = experience;
+            return copy;
+        }
+
+        public boolean isOwned() { return owned; }
+        public boolean isAlive() { return alive; }
+        public int getLevel() { return level; }
+        public int getExperience() { return experience; }
+    }
+
+    private final RecordLog journal;
+    private final SnapshotFile snapshot;
+    private final int snapshotInterval;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+    private final DataOutputStream bufferOut = new DataOutputStream(buffer);
+
+    private long lastSequence;
+    private int balance;
+    private String activeCharacterId;
+    private final Map<String, CharacterProgress> characters = new HashMap<>();
+    // Ring of the most recent coin-changing events, oldest at historyStart
+    private final EconomyEvent[] history = new EconomyEvent[HISTORY_CAPACITY];
+    private int historyStart;
+    private int historySize;
+
+    public EconomyLedger() {
+        this(null, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    public EconomyLedger(File directory) {
+        this(directory, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    public EconomyLedger(File directory, int snapshotInterval) {
+        if (directory != null) {
+            this.journal = new RecordLog(new File(directory, "economy.journal"));
+            this.snapshot = new SnapshotFile(new File(directory, "economy.snapshot"), SNAPSHOT_MAGIC, SNAPSHOT_VERSION);
+        } else {
+            this.journal = null;
+            this.snapshot = null;
+        }
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    // Rebuilds the projection from the last snapshot plus the journal tail. Events
+    // the snapshot already covers are skipped, so a crash between writing the
+    // snapshot and truncating the journal does not apply anything twice.
+    public synchronized void load() throws IOException {
+        if (journal == null) return;
+
+        clearProjection();
+        snapshot.read(this::readSnapshot);
+        long snapshotSequence = lastSequence;
+        journal.replay(in -> {
+            EconomyEvent event = EconomyRecordCodec.read(in);
+            if (event.getSequence() > snapshotSequence) {
+                apply(event);
+            }
+        });
+    }
+
+    // Assigns the next sequence number and the resulting balance, folds the event
+    // into the projection and appends it. The projection is updated even if the
+    // write fails, so it keeps matching the in-memory economy.
+    public synchronized EconomyEvent record(EconomyEvent.Type type, int coinDelta, int xpDelta,
+                                            String characterId, String reference) throws IOException {
+        EconomyEvent event = new EconomyEvent(lastSequence + 1, System.currentTimeMillis(), type,
+            coinDelta, xpDelta, characterId, reference, balance + coinDelta);
+        apply(event);
+
+        if (journal != null) {
+            buffer.reset();
+            EconomyRecordCodec.write(bufferOut, event);
+            journal.append(buffer.toByteArray());
+            if (journal.getRecordCount() >= snapshotInterval) {
+                writeSnapshot();
+            }
+        }
+        return event;
+    }
+
+    private void apply(EconomyEvent event) {
+        lastSequence = event.getSequence();
+        balance += event.getCoinDelta();
+
+        String characterId = event.getCharacterId();
+        if (characterId != null) {
+            CharacterProgress progress = characters.get(characterId);
+            if (progress == null) {
+                progress = new CharacterProgress();
+                characters.put(characterId, progress);
+            }
+            switch (event.getType()) {
+                case PURCHASE:
+                    progress.owned = true;
+                    break;
+                case REVIVE:
+                    progress.alive = true;
+                    break;
+                case KILL:
+                    progress.alive = false;
+                    break;
+                case XP:
+                    progress.experience += event.getXpDelta();
+                    progress.level = Character.levelAfterGain(progress.level, progress.experience);
+                    break;
+                case ACTIVATE:
+                    activeCharacterId = characterId;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        if (event.changesCoins()) {
+            addToHistory(event);
+        }
+    }
+
+    private void addToHistory(EconomyEvent event) {
+        if (historySize < HISTORY_CAPACITY) {
+            history[(historyStart + historySize) % HISTORY_CAPACITY] = event;
+            historySize++;
+        } else {
+            history[historyStart] = event;
+            historyStart = (historyStart + 1) % HISTORY_CAPACITY;
+        }
+    }
+
+    private void writeSnapshot() throws IOException {
+        snapshot.write(out -> {
+            out.writeLong(lastSequence);
+            out.writeInt(balance);
+            TaskRecordCodec.writeString(out, activeCharacterId);
+            out.writeInt(characters.size());
+            for (Map.Entry<String, CharacterProgress> entry : characters.entrySet()) {
+                CharacterProgress progress = entry.getValue();
+                TaskRecordCodec.writeString(out, entry.getKey());
+                out.writeBoolean(progress.owned);
+                out.writeBoolean(progress.alive);
+                out.writeInt(progress.level);
+                out.writeInt(progress.experience);
+            }
+            out.writeInt(historySize);
+            for (int i = 0; i < historySize; i++) {
+                EconomyRecordCodec.write(out, history[(historyStart + i) % HISTORY_CAPACITY]);
+            }
+        });
+        journal.reset();
+    }
+
+    private void readSnapshot(DataInputStream in) throws IOException {
+        lastSequence = in.readLong();
+        balance = in.readInt();
+        activeCharacterId = TaskRecordCodec.readString(in);
+        int characterCount = in.readInt();
+        for (int i = 0; i < characterCount; i++) {
+            String id = TaskRecordCodec.readString(in);
+            CharacterProgress progress = new CharacterProgress();
+            progress.owned = in.readBoolean();
+            progress.alive = in.readBoolean();
+            progress.level = in.readInt();
+            progress.experience = in.readInt();
+            characters.put(id, progress);
+        }
+        int historyCount = in.readInt();
+        for (int i = 0; i < historyCount; i++) {
+            addToHistory(EconomyRecordCodec.read(in));
+        }
+    }
+
+    private void clearProjection() {
+        lastSequence = 0;
+        balance = 0;
+        activeCharacterId = null;
+        characters.clear();
+        historyStart = 0;
+        historySize = 0;
+    }
+
+    public synchronized boolean isEmpty() {
+        return lastSequence == 0;
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    public synchronized int getBalance() {
+        return balance;
+    }
+
+    public synchronized String getActiveCharacterId() {
+        return activeCharacterId;
+    }
+
+    // Copy of the character's projected progress, or null if no event mentioned it
+    public synchronized CharacterProgress getCharacterProgress(String characterId) {
+        CharacterProgress progress = characters.get(characterId);
+        return progress != null ? progress.copy() : null;
+    }
+
+    // Most recent coin-changing events, newest first
+    public synchronized List<EconomyEvent> getCoinHistory(int limit) {
+        int count = Math.min(limit, historySize);
+        List<EconomyEvent> recent = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            recent.add(history[(historyStart + historySize - i) % HISTORY_CAPACITY]);
+        }
+        return recent;
+    }
+
+    public synchronized int getJournalTailSize() {
+        return journal != null ? journal.getRecordCount() : 0;
+    }
+
+    public synchronized void close() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.todolist.app.persistence;
+
+import com.todolist.app.models.EconomyEvent;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Binary form of an EconomyEvent shared by the ledger journal and its snapshots.
+public final class EconomyRecordCodec {
+    private EconomyRecordCodec() {}
+
+    public static void write(DataOutput out, EconomyEvent event) throws IOException {
+        out.writeLong(event.getSequence());
+        out.writeLong(event.getTimestamp());
+        out.writeByte(event.getType().ordinal());
+        out.writeInt(event.getCoinDelta());
+        out.writeInt(event.getXpDelta());
+        TaskRecordCodec.writeString(out, event.getCharacterId());
+        TaskRecordCodec.writeString(out, event.getReference());
+        out.writeInt(event.getBalanceAfter());
+    }
+
+    public static EconomyEvent read(DataInput in) throws IOException {
+        long sequence = in.readLong();
+        long timestamp = in.readLong();
+        EconomyEvent.Type type = TaskRecordCodec.readEnum(in, EconomyEvent.Type.values());
+        int coinDelta = in.readInt();
+        int xpDelta = in.readInt();
+        String characterId = TaskRecordCodec.readString(in);
+        String reference = TaskRecordCodec.readString(in);
+        int balanceAfter = in.readInt();
+        return new EconomyEvent(sequence, timestamp, type, coinDelta, xpDelta, characterId, reference, balanceAfter);
+    }
+}
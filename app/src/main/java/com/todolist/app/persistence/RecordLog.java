@@ -0,0 +1,125 @@
+package com.todolist.app.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.zip.CRC32;
+
+// Append-only file of length-prefixed, checksummed records.
+// Layout per record: [int length][int crc32][payload bytes]
+public class RecordLog {
+    public interface RecordHandler {
+        void onRecord(DataInputStream in) throws IOException;
+    }
+
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+
+    private final File file;
+    private DataOutputStream out;
+    private int recordCount;
+
+    public RecordLog(File file) {
+        this.file = file;
+    }
+
+    // Replays every intact record in order. A torn or corrupt tail (e.g. the process
+    // died mid-append) is cut off so later appends start from a clean boundary.
+    public int replay(RecordHandler handler) throws IOException {
+        closeWriter();
+        recordCount = 0;
+        if (!file.exists()) return 0;
+
+        long validLength = 0;
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (length < 0 || length > MAX_RECORD_SIZE) break;
+
+                byte[] payload = new byte[length];
+                int checksum;
+                try {
+                    checksum = in.readInt();
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    break;
+                }
+
+                crc.reset();
+                crc.update(payload, 0, length);
+                if ((int) crc.getValue() != checksum) break;
+
+                handler.onRecord(new DataInputStream(new ByteArrayInputStream(payload)));
+                validLength += 8 + length;
+                recordCount++;
+            }
+        }
+
+        if (validLength < file.length()) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(validLength);
+            }
+        }
+        return recordCount;
+    }
+
+    public void append(byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+
+        DataOutputStream writer = writer();
+        writer.writeInt(payload.length);
+        writer.writeInt((int) crc.getValue());
+        writer.write(payload);
+        writer.flush();
+        recordCount++;
+    }
+
+    // Drops every record, typically right after a snapshot has captured them.
+    public void reset() throws IOException {
+        closeWriter();
+        try (FileOutputStream truncate = new FileOutputStream(file, false)) {
+            truncate.getFD().sync();
+        }
+        recordCount = 0;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public void close() throws IOException {
+        closeWriter();
+    }
+
+    private DataOutputStream writer() throws IOException {
+        if (out == null) {
+            File parent = file.getParentFile();
+            if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                throw new IOException("Cannot create " + parent);
+            }
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        }
+        return out;
+    }
+
+    private void closeWriter() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.todolist.app.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+// Whole-state snapshot written to a temp file and renamed into place,
+// so a reader only ever sees the previous or the new snapshot.
+public class SnapshotFile {
+    public interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    public interface Reader {
+        void read(DataInputStream in) throws IOException;
+    }
+
+    private final File file;
+    private final int magic;
+    private final int version;
+
+    public SnapshotFile(File file, int magic, int version) {
+        this.file = file;
+        this.magic = magic;
+        this.version = version;
+    }
+
+    public void write(Writer writer) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(temp)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut));
+            out.writeInt(magic);
+            out.writeInt(version);
+            writer.write(out);
+            out.flush();
+            fileOut.getFD().sync();
+        }
+
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Cannot replace snapshot " + file);
+        }
+    }
+
+    // Returns false when there is no snapshot yet.
+    public boolean read(Reader reader) throws IOException {
+        if (!file.exists()) return false;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != magic) {
+                throw new IOException("Not a snapshot: " + file);
+            }
+            int fileVersion = in.readInt();
+            if (fileVersion != version) {
+                throw new IOException("Unsupported snapshot version " + fileVersion + " in " + file);
+            }
+            reader.read(in);
+        }
+        return true;
+    }
+
+    public File getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,104 @@
+package com.todolist.app.persistence;
+
+import com.todolist.app.models.TaskItem;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Durable task storage: every add/update/remove is appended to a journal,
+// and the full task set is periodically written as a snapshot. Startup loads
+// the snapshot and replays only the journal tail written after it, so
+// recovery cost is bounded by the snapshot interval rather than by history.
+public class TaskJournal {
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 1024;
+
+    private static final int SNAPSHOT_MAGIC = 0x54534B53; // "TSKS"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+
+    private final RecordLog journal;
+    private final SnapshotFile snapshot;
+    private final int snapshotInterval;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+    private final DataOutputStream bufferOut = new DataOutputStream(buffer);
+
+    public TaskJournal(File directory) {
+        this(directory, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    public TaskJournal(File directory, int snapshotInterval) {
+        this.journal = new RecordLog(new File(directory, "tasks.journal"));
+        this.snapshot = new SnapshotFile(new File(directory, "tasks.snapshot"), SNAPSHOT_MAGIC, SNAPSHOT_VERSION);
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    // Rebuilds the task set in its original insertion order.
+    public Map<Long, TaskItem> load() throws IOException {
+        Map<Long, TaskItem> tasks = new LinkedHashMap<>();
+
+        snapshot.read(in -> {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                TaskItem task = TaskRecordCodec.read(in);
+                tasks.put(task.getId(), task);
+            }
+        });
+
+        journal.replay(in -> {
+            byte op = in.readByte();
+            if (op == OP_PUT) {
+                TaskItem task = TaskRecordCodec.read(in);
+                tasks.put(task.getId(), task);
+            } else if (op == OP_REMOVE) {
+                tasks.remove(in.readLong());
+            } else {
+                throw new IOException("Unknown journal op " + op);
+            }
+        });
+        return tasks;
+    }
+
+    public void recordPut(TaskItem task) throws IOException {
+        buffer.reset();
+        bufferOut.writeByte(OP_PUT);
+        TaskRecordCodec.write(bufferOut, task);
+        journal.append(buffer.toByteArray());
+    }
+
+    public void recordRemove(long taskId) throws IOException {
+        buffer.reset();
+        bufferOut.writeByte(OP_REMOVE);
+        bufferOut.writeLong(taskId);
+        journal.append(buffer.toByteArray());
+    }
+
+    public boolean shouldSnapshot() {
+        return journal.getRecordCount() >= snapshotInterval;
+    }
+
+    // Writes the snapshot before truncating the journal. If the process dies in
+    // between, the old tail is replayed on top of the new snapshot, which is
+    // harmless because puts and removes are idempotent.
+    public void snapshot(Collection<TaskItem> tasks) throws IOException {
+        snapshot.write(out -> {
+            out.writeInt(tasks.size());
+            for (TaskItem task : tasks) {
+                TaskRecordCodec.write(out, task);
+            }
+        });
+        journal.reset();
+    }
+
+    public int getJournalTailSize() {
+        return journal.getRecordCount();
+    }
+
+    public void close() throws IOException {
+        journal.close();
+    }
+}
@@ -0,0 +1,98 @@
+package com.todolist.app.persistence;
+
+import com.todolist.app.models.TaskItem;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+// Compact binary form of a TaskItem shared by the journal and its snapshots.
+// Coin reward/penalty are derived from the type, so they are not stored.
+public final class TaskRecordCodec {
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private TaskRecordCodec() {}
+
+    public static void write(DataOutput out, TaskItem task) throws IOException {
+        out.writeLong(task.getId());
+        writeString(out, task.getTitle());
+        writeString(out, task.getDescription());
+        out.writeByte(task.getType().ordinal());
+        out.writeByte(task.getStatus().ordinal());
+        out.writeByte(task.getPriority().ordinal());
+        writeDate(out, task.getCreatedDate());
+        writeDate(out, task.getCompletedDate());
+        writeDate(out, task.getDueDate());
+        writeDate(out, task.getReminderTime());
+        out.writeBoolean(task.hasReminder());
+        out.writeBoolean(task.isRecurring());
+        out.writeInt(task.getRecurringDays());
+        out.writeInt(task.getStreakCount());
+        out.writeBoolean(task.isOverdue());
+        writeString(out, task.getHabitId());
+    }
+
+    public static TaskItem read(DataInput in) throws IOException {
+        long id = in.readLong();
+        String title = readString(in);
+        String description = readString(in);
+        TaskItem.TaskType type = readEnum(in, TaskItem.TaskType.values());
+        TaskItem.TaskStatus status = readEnum(in, TaskItem.TaskStatus.values());
+        TaskItem.Priority priority = readEnum(in, TaskItem.Priority.values());
+        Date createdDate = readDate(in);
+
+        TaskItem task = new TaskItem(id, title, type, createdDate);
+        task.setDescription(description);
+        task.setStatus(status);
+        task.setPriority(priority);
+        task.setCompletedDate(readDate(in));
+        task.setDueDate(readDate(in));
+        task.setReminderTime(readDate(in));
+        task.setHasReminder(in.readBoolean());
+        task.setRecurring(in.readBoolean());
+        task.setRecurringDays(in.readInt());
+        task.setStreakCount(in.readInt());
+        task.setOverdue(in.readBoolean());
+        task.setHabitId(readString(in));
+        return task;
+    }
+
+    // Snapshot records carry no checksum, so a corrupt ordinal is reported like
+    // any other unreadable record rather than as an index out of bounds
+    public static <E extends Enum<E>> E readEnum(DataInput in, E[] values) throws IOException {
+        int ordinal = in.readByte();
+        if (ordinal < 0 || ordinal >= values.length) {
+            throw new IOException("Unknown " + values.getClass().getComponentType().getSimpleName()
+                + " ordinal " + ordinal);
+        }
+        return values[ordinal];
+    }
+
+    public static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDate(DataOutput out, Date date) throws IOException {
+        out.writeLong(date != null ? date.getTime() : NO_DATE);
+    }
+
+    private static Date readDate(DataInput in) throws IOException {
+        long time = in.readLong();
+        return time != NO_DATE ? new Date(time) : null;
+    }
+}
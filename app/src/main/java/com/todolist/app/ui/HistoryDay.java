@@ -0,0 +1,93 @@
+package com.todolist.app.ui;
+
+import com.todolist.app.models.TaskItem;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+// Everything the calendar lists for one local day, copied out of the tasks so it
+// can be prepared off the main thread and kept in HistoryDayCache. The day's
+// counters are not part of it; they are O(1) to read fresh from TaskManager.
+public final class HistoryDay {
+    // Immutable copy of one history card
+    public static final class Row {
+        private final long taskId;
+        private final String title;
+        private final TaskItem.TaskType type;
+        private final TaskItem.TaskStatus status;
+        private final int coinReward;
+        private final int coinPenalty;
+        private final String completedAt;
+        private final int repeatDays;
+        private final boolean occurrence;
+
+        private Row(TaskItem task, boolean occurrence, DateTimeFormatter timeFormat) {
+            this.taskId = task.getId();
+            this.title = task.getTitle();
+            this.type = task.getType();
+            this.status = task.getStatus();
+            this.coinReward = task.getCoinReward();
+            this.coinPenalty = task.getCoinPenalty();
+            this.completedAt = task.getCompletedDate() != null
+                ? timeFormat.format(Instant.ofEpochMilli(task.getCompletedDate().getTime()))
+                : null;
+            // The interval alone; the card does not need the series' anchor day
+            this.repeatDays = task.isRecurring() && task.getRecurringDays() > 0 ? task.getRecurringDays() : 0;
+            this.occurrence = occurrence;
+        }
+
+        public long getTaskId() { return taskId; }
+        public String getTitle() { return title; }
+        public TaskItem.TaskType getType() { return type; }
+        public TaskItem.TaskStatus getStatus() { return status; }
+        public int getCoinReward() { return coinReward; }
+        public int getCoinPenalty() { return coinPenalty; }
+        // "HH:mm" local time, or null if the quest was never completed
+        public String getCompletedAt() { return completedAt; }
+        // Interval of the task's recurrence, or 0 if it does not repeat
+        public int getRepeatDays() { return repeatDays; }
+        // True for a recurring task shown on a day it repeats on, not one it was scheduled for
+        public boolean isOccurrence() { return occurrence; }
+    }
+
+    private final long day;
+    private final List<Row> rows;
+    // Sorted, for binary search
+    private final long[] taskIds;
+
+    private HistoryDay(long day, List<Row> rows, long[] taskIds) {
+        this.day = day;
+        this.rows = rows;
+        this.taskIds = taskIds;
+    }
+
+    // Scheduled tasks first, then the recurring tasks standing in for the day's occurrences
+    public static HistoryDay of(long day, List<TaskItem> scheduled, List<TaskItem> occurrences) {
+        DateTimeFormatter timeFormat = DateTimeFormatter.ofPattern("HH:mm", Locale.getDefault())
+            .withZone(ZoneId.systemDefault());
+        List<Row> rows = new ArrayList<>(scheduled.size() + occurrences.size());
+        long[] taskIds = new long[scheduled.size() + occurrences.size()];
+        for (TaskItem task : scheduled) {
+            taskIds[rows.size()] = task.getId();
+            rows.add(new Row(task, false, timeFormat));
+        }
+        for (TaskItem task : occurrences) {
+            taskIds[rows.size()] = task.getId();
+            rows.add(new Row(task, true, timeFormat));
+        }
+        Arrays.sort(taskIds);
+        return new HistoryDay(day, Collections.unmodifiableList(rows), taskIds);
+    }
+
+    public boolean lists(long taskId) {
+        return Arrays.binarySearch(taskIds, taskId) >= 0;
+    }
+
+    public long getDay() { return day; }
+    public List<Row> getRows() { return rows; }
+}
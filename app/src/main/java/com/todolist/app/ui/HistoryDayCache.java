@@ -0,0 +1,163 @@
+package com.todolist.app.ui;
+
+import com.todolist.app.models.Recurrence;
+import com.todolist.app.models.TaskItem;
+import com.todolist.app.utils.EpochDays;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+// Small LRU of prepared calendar days. Around the day being shown, the days up to
+// radius before and after are loaded in the background, so paging to a neighbour
+// normally finds it ready. A changed task evicts exactly the cached days it was
+// or now is listed on, and those near the shown day are loaded again.
+//
+// Confined to the main thread; only Loader.load runs on the background executor,
+// and its results come back through the main executor.
+public class HistoryDayCache {
+    public interface Loader {
+        // Background thread; must only use thread-safe lookups
+        HistoryDay load(long day);
+    }
+
+    public interface Listener {
+        // Main thread, whenever a day finished loading in the background
+        void onDayLoaded(HistoryDay day);
+    }
+
+    private final Loader loader;
+    private final Executor background;
+    private final Executor main;
+    private final int radius;
+    private final Map<Long, HistoryDay> days;
+    // Days with a background load in flight, each with how many entries of
+    // changedWhileLoading existed when it started; a load is only stale if a
+    // later change touches its day
+    private final Map<Long, Integer> loading = new HashMap<>();
+    private final List<TaskItem> changedWhileLoading = new ArrayList<>();
+    private long focusDay = EpochDays.NONE;
+    private Listener listener;
+    private int hitCount;
+    private int missCount;
+
+    public HistoryDayCache(Loader loader, Executor background, Executor main, int radius) {
+        this.loader = loader;
+        this.background = background;
+        this.main = main;
+        this.radius = radius;
+        // Room for the neighbourhood plus a few days paged away from, in access order
+        int capacity = 4 * radius + 1;
+        this.days = new LinkedHashMap<Long, HistoryDay>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, HistoryDay> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    // The day, loading it on the calling thread if it is not cached yet, and starts
+    // prefetching its neighbours
+    public HistoryDay show(long day) {
+        focusDay = day;
+        HistoryDay cached = days.get(day);
+        if (cached != null) {
+            hitCount++;
+        } else {
+            missCount++;
+            cached = loader.load(day);
+            days.put(day, cached);
+        }
+
+        // Closest neighbours first, so the likeliest next page is ready soonest
+        for (int distance = 1; distance <= radius; distance++) {
+            prefetch(day + distance);
+            prefetch(day - distance);
+        }
+        return cached;
+    }
+
+    // Evicts every cached day the task is listed on, or would be listed on now
+    public void onTaskChanged(TaskItem task) {
+        if (!loading.isEmpty()) {
+            changedWhileLoading.add(task);
+        }
+
+        List<Long> affected = new ArrayList<>();
+        for (HistoryDay cached : days.values()) {
+            if (touches(task, cached)) {
+                affected.add(cached.getDay());
+            }
+        }
+        for (long day : affected) {
+            days.remove(day);
+            if (isNearFocus(day)) {
+                prefetch(day);
+            }
+        }
+    }
+
+    private static boolean touches(TaskItem task, HistoryDay cached) {
+        long day = cached.getDay();
+        Recurrence recurrence = task.getRecurrence();
+        return cached.lists(task.getId())
+            || day == task.getCreatedEpochDay()
+            || day == task.getDueEpochDay()
+            || day == task.getCompletedEpochDay()
+            || (recurrence != null && recurrence.occursOn(day));
+    }
+
+    private void prefetch(long day) {
+        if (days.containsKey(day) || loading.containsKey(day)) return;
+
+        loading.put(day, changedWhileLoading.size());
+        background.execute(() -> {
+            HistoryDay loaded = loader.load(day);
+            main.execute(() -> onLoaded(loaded));
+        });
+    }
+
+    private void onLoaded(HistoryDay loaded) {
+        long day = loaded.getDay();
+        int firstChange = loading.remove(day);
+        boolean stale = false;
+        for (int i = firstChange; i < changedWhileLoading.size() && !stale; i++) {
+            stale = touches(changedWhileLoading.get(i), loaded);
+        }
+        if (loading.isEmpty()) {
+            changedWhileLoading.clear();
+        }
+
+        // Shown (and so loaded on the main thread) while this was in flight
+        if (days.containsKey(day)) return;
+        if (stale) {
+            if (isNearFocus(day)) {
+                prefetch(day);
+            }
+            return;
+        }
+
+        days.put(day, loaded);
+        if (listener != null) {
+            listener.onDayLoaded(loaded);
+        }
+    }
+
+    private boolean isNearFocus(long day) {
+        return focusDay != EpochDays.NONE && Math.abs(day - focusDay) <= radius;
+    }
+
+    public boolean isCached(long day) {
+        return days.containsKey(day);
+    }
+
+    public int size() { return days.size(); }
+    public int getHitCount() { return hitCount; }
+    public int getMissCount() { return missCount; }
+}
@@ -0,0 +1,293 @@
+package com.todolist.app.ui;
+
+import android.content.Context;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+import com.todolist.app.models.TaskItem;
+import com.todolist.app.utils.TimeLabels;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Quest cards for the main list. Each card's views are built once per
+// ViewHolder and only rebound as it scrolls, so the number of live views depends
+// on the screen height, not on how many quests are active.
+//
+// Callers submit the whole pending list after every change; ListAdapter diffs
+// it against the previous one on a background thread and only inserts, removes,
+// moves or rebinds the cards that differ.
+public class TaskListAdapter extends ListAdapter<TaskRow, TaskListAdapter.TaskViewHolder> {
+
+    public interface TaskActionListener {
+        void onComplete(TaskItem task);
+        void onFail(TaskItem task);
+        void onDelete(TaskItem task);
+    }
+
+    // Cards with a due date or reminder carry an extra row. Pooling them separately
+    // means a recycled card never has to add or remove child views.
+    public static final int TYPE_BASIC = 0;
+    public static final int TYPE_TIMED = 1;
+
+    // Change payload that rebinds only the due/reminder labels
+    static final Object PAYLOAD_TIME_LABELS = new Object();
+
+    private final TaskActionListener listener;
+
+    public TaskListAdapter(TaskActionListener listener) {
+        super(TaskRowDiff.INSTANCE);
+        this.listener = listener;
+        setHasStableIds(true);
+    }
+
+    // Snapshots the tasks on the calling thread; the diff runs in the background
+    public void submitTasks(Collection<TaskItem> tasks) {
+        submitList(toRows(tasks));
+    }
+
+    // Relabels the due/reminder rows. RecyclerView only rebinds the cards that are
+    // attached or cached, so this costs the same for 50 quests as for 5,000; cards
+    // scrolled in later are bound with fresh labels anyway.
+    public void refreshTimeLabels() {
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_TIME_LABELS);
+    }
+
+    static List<TaskRow> toRows(Collection<TaskItem> tasks) {
+        List<TaskRow> rows = new ArrayList<>(tasks.size());
+        for (TaskItem task : tasks) {
+            rows.add(TaskRow.of(task));
+        }
+        return rows;
+    }
+
+    // Task ids are already unique longs, so they serve as stable ids as they are
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getId();
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return getItem(position).hasTimeInfo() ? TYPE_TIMED : TYPE_BASIC;
+    }
+
+    @NonNull
+    @Override
+    public TaskViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        TaskViewHolder holder = new TaskViewHolder(parent.getContext(), viewType == TYPE_TIMED);
+        holder.completeButton.setOnClickListener(v -> dispatch(holder, 0));
+        holder.failButton.setOnClickListener(v -> dispatch(holder, 1));
+        holder.deleteButton.setOnClickListener(v -> dispatch(holder, 2));
+        return holder;
+    }
+
+    private void dispatch(TaskViewHolder holder, int action) {
+        int position = holder.getBindingAdapterPosition();
+        if (position == RecyclerView.NO_POSITION) return;
+
+        TaskItem task = getItem(position).getTask();
+        switch (action) {
+            case 0: listener.onComplete(task); break;
+            case 1: listener.onFail(task); break;
+            default: listener.onDelete(task); break;
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull TaskViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (!payloads.isEmpty() && onlyTimeLabels(payloads)) {
+            bindTimeInfo(holder, getItem(position));
+        } else {
+            onBindViewHolder(holder, position);
+        }
+    }
+
+    static boolean onlyTimeLabels(List<Object> payloads) {
+        for (Object payload : payloads) {
+            if (payload != PAYLOAD_TIME_LABELS) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull TaskViewHolder holder, int position) {
+        TaskRow row = getItem(position);
+        int typeColor = UIStyleHelper.getTaskTypeColor(row.getType().name());
+
+        UIStyleHelper.styleTaskCard(holder.card, typeColor);
+        // Apply special styling for urgent/overdue tasks
+        if (row.isOverdue()) {
+            UIStyleHelper.styleOverdueCard(holder.card);
+        } else if (row.isUrgent()) {
+            UIStyleHelper.styleUrgentCard(holder.card);
+        }
+
+        holder.taskIcon.setText(UIStyleHelper.getTaskTypeEmoji(row.getType().name()));
+        holder.taskTitle.setText(row.getTitle());
+        holder.rewardBadge.setText("💰 +" + row.getCoinReward());
+
+        String typeText = row.getType().toString().replace("_", " ");
+        holder.taskInfo.setText("🎯 " + typeText + " • Penalty: -" + row.getCoinPenalty() + " coins");
+        UIStyleHelper.stylePriorityBadge(holder.priorityBadge, row.getPriority());
+
+        bindTimeInfo(holder, row);
+    }
+
+    private void bindTimeInfo(TaskViewHolder holder, TaskRow row) {
+        if (holder.timeLayout == null) return;
+
+        boolean hasDue = row.getDueTime() != 0;
+        boolean hasReminder = row.getReminderTime() != 0;
+
+        holder.dueTimeText.setVisibility(hasDue ? View.VISIBLE : View.GONE);
+        if (hasDue) {
+            String dueLabel = TimeLabels.untilDue(row.getId(), row.getDueTime(), System.currentTimeMillis());
+            UIStyleHelper.styleTimeDisplay(holder.dueTimeText, "📅 Due: " + dueLabel, row.isUrgent());
+        }
+        holder.timeSpacing.setVisibility(hasDue && hasReminder ? View.VISIBLE : View.GONE);
+        holder.reminderText.setVisibility(hasReminder ? View.VISIBLE : View.GONE);
+        if (hasReminder) {
+            UIStyleHelper.styleTimeDisplay(holder.reminderText,
+                "🔔 " + TimeLabels.reminder(row.getId(), row.getReminderTime()), false);
+        }
+    }
+
+    // Builds the card skeleton once; everything task-specific is set in onBindViewHolder
+    static final class TaskViewHolder extends RecyclerView.ViewHolder {
+        final LinearLayout card;
+        final TextView taskIcon;
+        final TextView taskTitle;
+        final TextView rewardBadge;
+        final TextView taskInfo;
+        final TextView priorityBadge;
+        final LinearLayout timeLayout;
+        final TextView dueTimeText;
+        final View timeSpacing;
+        final TextView reminderText;
+        final Button completeButton;
+        final Button failButton;
+        final Button deleteButton;
+
+        TaskViewHolder(Context context, boolean timed) {
+            super(new LinearLayout(context));
+            card = (LinearLayout) itemView;
+            card.setOrientation(LinearLayout.VERTICAL);
+            card.setLayoutParams(new RecyclerView.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+
+            // Task header with emoji, title and reward
+            LinearLayout headerLayout = new LinearLayout(context);
+            headerLayout.setOrientation(LinearLayout.HORIZONTAL);
+            headerLayout.setGravity(Gravity.CENTER_VERTICAL);
+
+            taskIcon = new TextView(context);
+            taskIcon.setTextSize(20);
+            taskIcon.setPadding(0, 0, 12, 0);
+
+            taskTitle = new TextView(context);
+            taskTitle.setTextSize(18);
+            taskTitle.setTextColor(UIStyleHelper.Colors.DARK_GRAY);
+            taskTitle.setTypeface(null, android.graphics.Typeface.BOLD);
+            taskTitle.setLayoutParams(new LinearLayout.LayoutParams(0, LinearLayout.LayoutParams.WRAP_CONTENT, 1));
+
+            rewardBadge = new TextView(context);
+            rewardBadge.setTextSize(14);
+            rewardBadge.setTextColor(UIStyleHelper.Colors.GOLD);
+            rewardBadge.setTypeface(null, android.graphics.Typeface.BOLD);
+            rewardBadge.setBackground(UIStyleHelper.createRoundedBackground(
+                UIStyleHelper.adjustColorAlpha(UIStyleHelper.Colors.GOLD, 0.2f), 12
+            ));
+            rewardBadge.setPadding(12, 6, 12, 6);
+
+            headerLayout.addView(taskIcon);
+            headerLayout.addView(taskTitle);
+            headerLayout.addView(rewardBadge);
+
+            // Task info section with time and priority
+            LinearLayout infoLayout = new LinearLayout(context);
+            infoLayout.setOrientation(LinearLayout.HORIZONTAL);
+            infoLayout.setPadding(32, 8, 0, 8);
+
+            taskInfo = new TextView(context);
+            taskInfo.setTextSize(12);
+            taskInfo.setTextColor(UIStyleHelper.Colors.DARK_GRAY);
+            taskInfo.setLayoutParams(new LinearLayout.LayoutParams(0, LinearLayout.LayoutParams.WRAP_CONTENT, 1));
+
+            priorityBadge = new TextView(context);
+
+            infoLayout.addView(taskInfo);
+            infoLayout.addView(priorityBadge);
+
+            // Time information
+            if (timed) {
+                timeLayout = new LinearLayout(context);
+                timeLayout.setOrientation(LinearLayout.HORIZONTAL);
+                timeLayout.setPadding(32, 4, 0, 8);
+
+                dueTimeText = new TextView(context);
+                timeSpacing = new View(context);
+                timeSpacing.setLayoutParams(new LinearLayout.LayoutParams(8, LinearLayout.LayoutParams.MATCH_PARENT));
+                reminderText = new TextView(context);
+
+                timeLayout.addView(dueTimeText);
+                timeLayout.addView(timeSpacing);
+                timeLayout.addView(reminderText);
+            } else {
+                timeLayout = null;
+                dueTimeText = null;
+                timeSpacing = null;
+                reminderText = null;
+            }
+
+            // Action buttons with improved styling
+            LinearLayout buttonLayout = new LinearLayout(context);
+            buttonLayout.setOrientation(LinearLayout.HORIZONTAL);
+            buttonLayout.setPadding(0, 8, 0, 0);
+
+            completeButton = new Button(context);
+            completeButton.setText("✅ Complete");
+            completeButton.setLayoutParams(new LinearLayout.LayoutParams(0, LinearLayout.LayoutParams.WRAP_CONTENT, 1));
+            UIStyleHelper.styleSuccessButton(completeButton);
+
+            failButton = new Button(context);
+            failButton.setText("❌ Fail");
+            failButton.setLayoutParams(new LinearLayout.LayoutParams(0, LinearLayout.LayoutParams.WRAP_CONTENT, 1));
+            UIStyleHelper.styleDangerButton(failButton);
+
+            deleteButton = new Button(context);
+            deleteButton.setText("🗑️ Delete");
+            deleteButton.setLayoutParams(new LinearLayout.LayoutParams(0, LinearLayout.LayoutParams.WRAP_CONTENT, 1));
+            UIStyleHelper.styleWarningButton(deleteButton);
+
+            // Add spacing between buttons
+            View spacing1 = new View(context);
+            spacing1.setLayoutParams(new LinearLayout.LayoutParams(8, LinearLayout.LayoutParams.MATCH_PARENT));
+            View spacing2 = new View(context);
+            spacing2.setLayoutParams(new LinearLayout.LayoutParams(8, LinearLayout.LayoutParams.MATCH_PARENT));
+
+            buttonLayout.addView(completeButton);
+            buttonLayout.addView(spacing1);
+            buttonLayout.addView(failButton);
+            buttonLayout.addView(spacing2);
+            buttonLayout.addView(deleteButton);
+
+            // The time row sits above the header
+            if (timeLayout != null) {
+                card.addView(timeLayout);
+            }
+            card.addView(headerLayout);
+            card.addView(infoLayout);
+            card.addView(buttonLayout);
+
+            // Add ripple effect
+            UIStyleHelper.addRippleEffect(card);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.todolist.app.ui;
+
+import com.todolist.app.models.TaskItem;
+import java.util.Objects;
+
+// Immutable copy of what a quest card shows, taken when a list is submitted.
+// TaskItems are mutated in place, so the differ compares these snapshots rather
+// than the live objects; two rows are equal exactly when their cards would look
+// the same.
+public final class TaskRow {
+    private final TaskItem task;
+    private final long id;
+    private final TaskItem.TaskType type;
+    private final String title;
+    private final int coinReward;
+    private final int coinPenalty;
+    private final TaskItem.Priority priority;
+    private final long dueTime;
+    private final long reminderTime;
+    private final boolean overdue;
+    private final boolean urgent;
+
+    private TaskRow(TaskItem task) {
+        this.task = task;
+        this.id = task.getId();
+        this.type = task.getType();
+        this.title = task.getTitle();
+        this.coinReward = task.getCoinReward();
+        this.coinPenalty = task.getCoinPenalty();
+        this.priority = task.getPriority();
+        this.dueTime = task.getDueDate() != null ? task.getDueDate().getTime() : 0;
+        this.reminderTime = task.hasReminder() && task.getReminderTime() != null
+            ? task.getReminderTime().getTime() : 0;
+        this.overdue = task.isOverdue();
+        this.urgent = task.isUrgent();
+    }
+
+    public static TaskRow of(TaskItem task) {
+        return new TaskRow(task);
+    }
+
+    public boolean sameTask(TaskRow other) {
+        return id == other.id;
+    }
+
+    public boolean hasTimeInfo() {
+        return dueTime != 0 || reminderTime != 0;
+    }
+
+    // The live task, for handing to click handlers; not part of equality
+    public TaskItem getTask() { return task; }
+    public long getId() { return id; }
+    public TaskItem.TaskType getType() { return type; }
+    public String getTitle() { return title; }
+    public int getCoinReward() { return coinReward; }
+    public int getCoinPenalty() { return coinPenalty; }
+    public TaskItem.Priority getPriority() { return priority; }
+    // Epoch millis, or 0 when no due date is set. The relative label is not part
+    // of the row; it changes every minute and is refreshed without a diff.
+    public long getDueTime() { return dueTime; }
+    // Epoch millis, or 0 when no reminder is set
+    public long getReminderTime() { return reminderTime; }
+    public boolean isOverdue() { return overdue; }
+    public boolean isUrgent() { return urgent; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TaskRow)) return false;
+        TaskRow other = (TaskRow) o;
+        return coinReward == other.coinReward
+            && coinPenalty == other.coinPenalty
+            && dueTime == other.dueTime
+            && reminderTime == other.reminderTime
+            && overdue == other.overdue
+            && urgent == other.urgent
+            && id == other.id
+            && type == other.type
+            && priority == other.priority
+            && Objects.equals(title, other.title);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, type, title, coinReward, coinPenalty, priority, dueTime, reminderTime, overdue, urgent);
+    }
+}
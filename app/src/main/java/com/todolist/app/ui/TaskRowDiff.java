@@ -0,0 +1,21 @@
+package com.todolist.app.ui;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+// Rows match by task id and are rebound only when their snapshot changed
+final class TaskRowDiff extends DiffUtil.ItemCallback<TaskRow> {
+    static final TaskRowDiff INSTANCE = new TaskRowDiff();
+
+    private TaskRowDiff() {}
+
+    @Override
+    public boolean areItemsTheSame(@NonNull TaskRow oldRow, @NonNull TaskRow newRow) {
+        return oldRow.sameTask(newRow);
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull TaskRow oldRow, @NonNull TaskRow newRow) {
+        return oldRow.equals(newRow);
+    }
+}
@@ -3,12 +3,16 @@ package com.todolist.app.ui;
 import android.content.Context;
 import android.graphics.Color;
 import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
 import android.graphics.drawable.GradientDrawable;
+import android.util.LruCache;
 import android.view.View;
+import android.view.ViewGroup;
 import android.widget.Button;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 import com.todolist.app.models.TaskItem;
+import java.util.Arrays;
 
 public class UIStyleHelper {
 
@@ -32,52 +36,133 @@ public class UIStyleHelper {
         public static final int DAILY_COLOR = Color.parseColor("#28A745");
     }
 
+    // Backgrounds are fully described by a few colours and sizes, and a screen of
+    // cards keeps asking for the same handful. Each combination is built once and
+    // later requests get a new drawable sharing its constant state. Those instances
+    // share their colours and stroke, so call mutate() before changing one.
+    private static final int BACKGROUND_CACHE_SIZE = 64;
+    private static final LruCache<BackgroundKey, Drawable.ConstantState> backgroundCache =
+        new LruCache<>(BACKGROUND_CACHE_SIZE);
+
+    private static final int SHAPE_ROUNDED = 0;
+    private static final int SHAPE_GRADIENT = 1;
+    private static final int SHAPE_STROKED = 2;
+    private static final int SHAPE_STROKED_GRADIENT = 3;
+
+    private static final class BackgroundKey {
+        final int[] values;
+        final int hash;
+
+        BackgroundKey(int... values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof BackgroundKey && Arrays.equals(values, ((BackgroundKey) o).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
     public static GradientDrawable createRoundedBackground(int color, int cornerRadius) {
-        GradientDrawable drawable = new GradientDrawable();
-        drawable.setColor(color);
-        drawable.setCornerRadius(cornerRadius);
-        return drawable;
+        return cachedBackground(new BackgroundKey(SHAPE_ROUNDED, color, cornerRadius));
     }
 
     public static GradientDrawable createGradientBackground(int startColor, int endColor, int cornerRadius) {
-        GradientDrawable drawable = new GradientDrawable(
-            GradientDrawable.Orientation.TOP_BOTTOM,
-            new int[]{startColor, endColor}
-        );
-        drawable.setCornerRadius(cornerRadius);
-        return drawable;
+        return cachedBackground(new BackgroundKey(SHAPE_GRADIENT, startColor, endColor, cornerRadius));
     }
 
     public static GradientDrawable createStrokedBackground(int fillColor, int strokeColor, int strokeWidth, int cornerRadius) {
-        GradientDrawable drawable = new GradientDrawable();
-        drawable.setColor(fillColor);
-        drawable.setStroke(strokeWidth, strokeColor);
-        drawable.setCornerRadius(cornerRadius);
+        return cachedBackground(new BackgroundKey(SHAPE_STROKED, fillColor, strokeColor, strokeWidth, cornerRadius));
+    }
+
+    public static GradientDrawable createStrokedGradientBackground(int startColor, int endColor,
+                                                                   int strokeColor, int strokeWidth, int cornerRadius) {
+        return cachedBackground(new BackgroundKey(SHAPE_STROKED_GRADIENT,
+            startColor, endColor, strokeColor, strokeWidth, cornerRadius));
+    }
+
+    private static GradientDrawable cachedBackground(BackgroundKey key) {
+        Drawable.ConstantState state = backgroundCache.get(key);
+        if (state != null) {
+            return (GradientDrawable) state.newDrawable();
+        }
+
+        GradientDrawable drawable = buildBackground(key.values);
+        backgroundCache.put(key, drawable.getConstantState());
         return drawable;
     }
 
+    private static GradientDrawable buildBackground(int[] v) {
+        GradientDrawable drawable;
+        switch (v[0]) {
+            case SHAPE_GRADIENT:
+                drawable = new GradientDrawable(GradientDrawable.Orientation.TOP_BOTTOM, new int[]{v[1], v[2]});
+                drawable.setCornerRadius(v[3]);
+                break;
+            case SHAPE_STROKED:
+                drawable = new GradientDrawable();
+                drawable.setColor(v[1]);
+                drawable.setStroke(v[3], v[2]);
+                drawable.setCornerRadius(v[4]);
+                break;
+            case SHAPE_STROKED_GRADIENT:
+                drawable = new GradientDrawable(GradientDrawable.Orientation.TOP_BOTTOM, new int[]{v[1], v[2]});
+                drawable.setStroke(v[4], v[3]);
+                drawable.setCornerRadius(v[5]);
+                break;
+            default:
+                drawable = new GradientDrawable();
+                drawable.setColor(v[1]);
+                drawable.setCornerRadius(v[2]);
+                break;
+        }
+        return drawable;
+    }
+
+    // Cache statistics, e.g. for checking the hit rate while scrolling a long list
+    public static int getBackgroundCacheHitCount() {
+        return backgroundCache.hitCount();
+    }
+
+    public static int getBackgroundCacheMissCount() {
+        return backgroundCache.missCount();
+    }
+
+    public static int getBackgroundCacheEvictionCount() {
+        return backgroundCache.evictionCount();
+    }
+
+    public static String getBackgroundCacheStats() {
+        return backgroundCache.toString();
+    }
+
     public static void styleTaskCard(LinearLayout layout, int typeColor) {
-        // Create gradient background
-        GradientDrawable background = createGradientBackground(
+        // Create gradient background with a shadow-like stroke
+        GradientDrawable background = createStrokedGradientBackground(
             Colors.WHITE,
             adjustColorAlpha(typeColor, 0.05f),
+            adjustColorAlpha(typeColor, 0.2f),
+            2,
             24
         );
 
-        // Add shadow effect with stroke
-        background.setStroke(2, adjustColorAlpha(typeColor, 0.2f));
-
         layout.setBackground(background);
         layout.setPadding(20, 16, 20, 16);
 
-        // Add margin effect
-        LinearLayout.LayoutParams params = (LinearLayout.LayoutParams) layout.getLayoutParams();
-        if (params == null) {
-            params = new LinearLayout.LayoutParams(
+        // Add margin effect; keep the parent's params type (e.g. inside a RecyclerView)
+        ViewGroup.LayoutParams current = layout.getLayoutParams();
+        ViewGroup.MarginLayoutParams params = current instanceof ViewGroup.MarginLayoutParams
+            ? (ViewGroup.MarginLayoutParams) current
+            : new LinearLayout.LayoutParams(
                 LinearLayout.LayoutParams.MATCH_PARENT,
                 LinearLayout.LayoutParams.WRAP_CONTENT
             );
-        }
         params.setMargins(8, 8, 8, 8);
         layout.setLayoutParams(params);
 
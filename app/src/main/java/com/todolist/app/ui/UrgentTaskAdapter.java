@@ -0,0 +1,123 @@
+package com.todolist.app.ui;
+
+import android.content.Context;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+import com.todolist.app.models.TaskItem;
+import com.todolist.app.utils.TimeLabels;
+import java.util.Collection;
+import java.util.List;
+
+// Overdue and soon-due quests above the main list. Like TaskListAdapter, the
+// panel is resubmitted after every change and only the cards that differ from
+// the previous list are touched.
+public class UrgentTaskAdapter extends ListAdapter<TaskRow, UrgentTaskAdapter.UrgentViewHolder> {
+
+    public interface QuickCompleteListener {
+        void onComplete(TaskItem task);
+    }
+
+    private final QuickCompleteListener listener;
+
+    public UrgentTaskAdapter(QuickCompleteListener listener) {
+        super(TaskRowDiff.INSTANCE);
+        this.listener = listener;
+    }
+
+    public void submitTasks(Collection<TaskItem> tasks) {
+        submitList(TaskListAdapter.toRows(tasks));
+    }
+
+    public void refreshTimeLabels() {
+        notifyItemRangeChanged(0, getItemCount(), TaskListAdapter.PAYLOAD_TIME_LABELS);
+    }
+
+    @NonNull
+    @Override
+    public UrgentViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        UrgentViewHolder holder = new UrgentViewHolder(parent.getContext());
+        holder.quickCompleteButton.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (position != RecyclerView.NO_POSITION) {
+                listener.onComplete(getItem(position).getTask());
+            }
+        });
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull UrgentViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (!payloads.isEmpty() && TaskListAdapter.onlyTimeLabels(payloads)) {
+            bindMessage(holder, getItem(position));
+        } else {
+            onBindViewHolder(holder, position);
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull UrgentViewHolder holder, int position) {
+        TaskRow row = getItem(position);
+        boolean isOverdue = row.isOverdue();
+
+        if (isOverdue) {
+            UIStyleHelper.styleOverdueCard(holder.card);
+        } else {
+            UIStyleHelper.styleUrgentCard(holder.card);
+        }
+
+        holder.urgentIcon.setText(isOverdue ? "🚨" : "⚠️");
+        holder.urgentText.setTextColor(isOverdue ? UIStyleHelper.Colors.DANGER_RED : UIStyleHelper.Colors.WARNING_ORANGE);
+        bindMessage(holder, row);
+    }
+
+    private void bindMessage(UrgentViewHolder holder, TaskRow row) {
+        String message = (row.isOverdue() ? "OVERDUE: " : "URGENT: ") + row.getTitle();
+        if (row.getDueTime() != 0) {
+            message += " (" + TimeLabels.untilDue(row.getId(), row.getDueTime(), System.currentTimeMillis()) + ")";
+        }
+        holder.urgentText.setText(message);
+    }
+
+    static final class UrgentViewHolder extends RecyclerView.ViewHolder {
+        final LinearLayout card;
+        final TextView urgentIcon;
+        final TextView urgentText;
+        final Button quickCompleteButton;
+
+        UrgentViewHolder(Context context) {
+            super(new LinearLayout(context));
+            card = (LinearLayout) itemView;
+            card.setOrientation(LinearLayout.HORIZONTAL);
+            card.setPadding(16, 12, 16, 12);
+
+            urgentIcon = new TextView(context);
+            urgentIcon.setTextSize(20);
+            urgentIcon.setPadding(0, 0, 12, 0);
+
+            urgentText = new TextView(context);
+            urgentText.setTextSize(14);
+            urgentText.setTypeface(null, android.graphics.Typeface.BOLD);
+            urgentText.setLayoutParams(new LinearLayout.LayoutParams(0, LinearLayout.LayoutParams.WRAP_CONTENT, 1));
+
+            quickCompleteButton = new Button(context);
+            quickCompleteButton.setText("✅");
+            quickCompleteButton.setPadding(8, 8, 8, 8);
+            UIStyleHelper.styleSuccessButton(quickCompleteButton);
+
+            card.addView(urgentIcon);
+            card.addView(urgentText);
+            card.addView(quickCompleteButton);
+
+            RecyclerView.LayoutParams params = new RecyclerView.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT
+            );
+            params.setMargins(0, 4, 0, 4);
+            card.setLayoutParams(params);
+        }
+    }
+}
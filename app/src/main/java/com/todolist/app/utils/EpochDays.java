@@ -0,0 +1,59 @@
+package com.todolist.app.utils;
+
+import java.util.Date;
+import java.util.TimeZone;
+
+// Local calendar days as plain integers (days since 1970-01-01 in the device zone),
+// so "same day" checks become integer compares instead of Calendar round-trips.
+public final class EpochDays {
+    public static final long NONE = Long.MIN_VALUE;
+
+    private static final long MILLIS_PER_MINUTE = 60 * 1000;
+    private static final long MILLIS_PER_DAY = 24 * 60 * MILLIS_PER_MINUTE;
+
+    // TimeZone.getDefault() clones on every call, so the zone is cached and only
+    // refreshed when the system reports a change. The version lets holders of
+    // precomputed days notice that they are stale.
+    private static volatile TimeZone zone = TimeZone.getDefault();
+    private static volatile int zoneVersion;
+
+    private EpochDays() {}
+
+    public static long of(long timeMillis) {
+        TimeZone current = zone;
+        long local = timeMillis + current.getOffset(timeMillis);
+        return Math.floorDiv(local, MILLIS_PER_DAY);
+    }
+
+    public static long of(Date date) {
+        return date != null ? of(date.getTime()) : NONE;
+    }
+
+    // The instant a local wall-clock time falls on; a time skipped by a DST
+    // jump resolves to the same wall time in the earlier offset
+    public static long toMillis(long day, int minuteOfDay) {
+        TimeZone current = zone;
+        long local = day * MILLIS_PER_DAY + minuteOfDay * MILLIS_PER_MINUTE;
+        long guess = local - current.getOffset(local);
+        return local - current.getOffset(guess);
+    }
+
+    public static long today() {
+        return of(System.currentTimeMillis());
+    }
+
+    public static int zoneVersion() {
+        return zoneVersion;
+    }
+
+    // The zone days are counted in, for persisted days that must be recounted elsewhere
+    public static String zoneId() {
+        return zone.getID();
+    }
+
+    // Call when the device time zone changes (ACTION_TIMEZONE_CHANGED)
+    public static synchronized void onTimeZoneChanged() {
+        zone = TimeZone.getDefault();
+        zoneVersion++;
+    }
+}
@@ -0,0 +1,37 @@
+package com.todolist.app.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// 64-bit ids in the spirit of Snowflake: milliseconds since EPOCH_MILLIS in the
+// high bits and a sequence in the low SEQUENCE_BITS. Only one install mints ids
+// for its own data, so there is no worker field; the sequence gets those bits.
+//
+// Ids are strictly increasing within a process. Bursts in the same millisecond
+// take the next sequence numbers, and a burst that exhausts them or a clock
+// stepping backwards simply borrows from the following milliseconds. Loaders
+// pass persisted ids to observe() so that a restart after the clock went back
+// does not mint an id that is already stored.
+public final class IdGenerator {
+    public static final int SEQUENCE_BITS = 22;
+    // 2024-01-01T00:00:00Z; 41 bits of milliseconds from here last until 2093
+    public static final long EPOCH_MILLIS = 1_704_067_200_000L;
+
+    private static final AtomicLong last = new AtomicLong();
+
+    private IdGenerator() {}
+
+    public static long next() {
+        long floor = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        return last.updateAndGet(previous -> Math.max(previous + 1, floor));
+    }
+
+    // Every later next() returns a larger id than this one
+    public static void observe(long id) {
+        last.accumulateAndGet(id, Math::max);
+    }
+
+    // Approximate creation time of a generated id
+    public static long timeOf(long id) {
+        return (id >>> SEQUENCE_BITS) + EPOCH_MILLIS;
+    }
+}
@@ -0,0 +1,130 @@
+package com.todolist.app.utils;
+
+import com.todolist.app.models.TaskItem;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Due and reminder labels for quest cards, the urgent panel and reminder digests.
+// A relative label ("2h 15m", "3 days") only changes when another whole minute
+// of the remaining time has passed, so each task's label is kept together with
+// the span of time it stays correct for and rebuilt only outside it. Absolute times
+// share one formatter, rebuilt when the time zone or locale changes. Safe to call
+// from any thread.
+public final class TimeLabels {
+    private static final long MILLIS_PER_MINUTE = 60 * 1000;
+    // Labels of deleted tasks are normally dropped via forget(); this only
+    // bounds the maps if a caller never does
+    private static final int MAX_ENTRIES = 10_000;
+    private static final String DATE_TIME_PATTERN = "MMM dd, HH:mm";
+
+    private static final Map<Long, Label> dueLabels = new ConcurrentHashMap<>();
+    private static final Map<Long, Label> reminderLabels = new ConcurrentHashMap<>();
+    private static volatile Format format = new Format();
+
+    private TimeLabels() {}
+
+    private static final class Label {
+        final long time;
+        // Instants (inclusive) the text is correct for; reminder labels use the format instead
+        final long validFrom;
+        final long validUntil;
+        final Format format;
+        final String text;
+
+        Label(long time, long validFrom, long validUntil, Format format, String text) {
+            this.time = time;
+            this.validFrom = validFrom;
+            this.validUntil = validUntil;
+            this.format = format;
+            this.text = text;
+        }
+    }
+
+    private static final class Format {
+        final int zoneVersion = EpochDays.zoneVersion();
+        final Locale locale = Locale.getDefault();
+        final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DATE_TIME_PATTERN, locale)
+            .withZone(ZoneId.systemDefault());
+
+        boolean isCurrent() {
+            return zoneVersion == EpochDays.zoneVersion() && locale.equals(Locale.getDefault());
+        }
+    }
+
+    // Same text as TaskItem.formatTimeUntilDue(dueTime, now)
+    public static String untilDue(long taskId, long dueTime, long now) {
+        Label cached = dueLabels.get(taskId);
+        if (cached != null && cached.time == dueTime && now >= cached.validFrom && now <= cached.validUntil) {
+            return cached.text;
+        }
+
+        long remaining = dueTime - now;
+        long validFrom, validUntil;
+        if (remaining < 0) {
+            // Overdue stays overdue
+            validFrom = dueTime + 1;
+            validUntil = Long.MAX_VALUE;
+        } else {
+            // The text holds while the remaining time has the same number of whole minutes
+            long minutes = remaining / MILLIS_PER_MINUTE;
+            validFrom = dueTime - (minutes + 1) * MILLIS_PER_MINUTE + 1;
+            validUntil = dueTime - minutes * MILLIS_PER_MINUTE;
+        }
+        Label label = new Label(dueTime, validFrom, validUntil, null, TaskItem.formatTimeUntilDue(dueTime, now));
+        store(dueLabels, taskId, label);
+        return label.text;
+    }
+
+    public static String reminder(long taskId, long reminderTime) {
+        Format current = currentFormat();
+        Label cached = reminderLabels.get(taskId);
+        if (cached != null && cached.time == reminderTime && cached.format == current) {
+            return cached.text;
+        }
+
+        Label label = new Label(reminderTime, Long.MIN_VALUE, Long.MAX_VALUE, current,
+            current.formatter.format(Instant.ofEpochMilli(reminderTime)));
+        store(reminderLabels, taskId, label);
+        return label.text;
+    }
+
+    // "MMM dd, HH:mm" in the device zone, for one-off labels that need no caching
+    public static String dateTime(long timeMillis) {
+        return currentFormat().formatter.format(Instant.ofEpochMilli(timeMillis));
+    }
+
+    // Delay until the next wall-clock minute, for scheduling a label refresh pass
+    public static long millisUntilNextMinute(long now) {
+        return MILLIS_PER_MINUTE - Math.floorMod(now, MILLIS_PER_MINUTE);
+    }
+
+    public static void forget(long taskId) {
+        dueLabels.remove(taskId);
+        reminderLabels.remove(taskId);
+    }
+
+    public static void clear() {
+        dueLabels.clear();
+        reminderLabels.clear();
+    }
+
+    private static Format currentFormat() {
+        Format current = format;
+        if (!current.isCurrent()) {
+            current = new Format();
+            format = current;
+        }
+        return current;
+    }
+
+    private static void store(Map<Long, Label> labels, long taskId, Label label) {
+        if (labels.size() >= MAX_ENTRIES && !labels.containsKey(taskId)) {
+            labels.clear();
+        }
+        labels.put(taskId, label);
+    }
+}
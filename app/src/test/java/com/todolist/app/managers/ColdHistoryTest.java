@@ -0,0 +1,120 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.TaskItem;
+import com.todolist.app.utils.EpochDays;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class ColdHistoryTest {
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    private static final long HOUR_MS = 60L * 60 * 1000;
+    private static final long START = 1_700_000_000_000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static TaskItem finished(long id, long created) {
+        TaskItem task = new TaskItem(id, "Archived " + id, TaskItem.TaskType.TODO, new Date(created));
+        task.setStatus(TaskItem.TaskStatus.COMPLETED);
+        task.setCompletedDate(new Date(created + HOUR_MS));
+        return task;
+    }
+
+    // Five segments of 100 tasks, segment s spanning days [10s, 10s + 10) after START
+    private static List<List<TaskItem>> writeSegments(ColdHistory cold) throws Exception {
+        List<List<TaskItem>> segments = new ArrayList<>();
+        for (int s = 0; s < 5; s++) {
+            List<TaskItem> batch = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                batch.add(finished(s * 1000 + i, START + (10L * s) * DAY_MS + i * (9 * DAY_MS / 100)));
+            }
+            assertEquals(s, cold.write(batch));
+            segments.add(batch);
+        }
+        return segments;
+    }
+
+    private static Set<Long> ids(List<TaskItem> tasks) {
+        Set<Long> ids = new HashSet<>();
+        for (TaskItem task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void aDayLookupInflatesOnlyTheSegmentCoveringIt() throws Exception {
+        File dir = folder.newFolder("history");
+        List<List<TaskItem>> segments = writeSegments(new ColdHistory(dir, ColdHistory.DEFAULT_CACHE_BYTES));
+
+        // A fresh instance finds the segments from the directory alone
+        ColdHistory cold = new ColdHistory(dir, ColdHistory.DEFAULT_CACHE_BYTES);
+        cold.load();
+        assertEquals(5, cold.getSegmentCount());
+
+        TaskItem probe = segments.get(2).get(40);
+        long day = probe.getCreatedEpochDay();
+        Set<Long> expected = new HashSet<>();
+        for (TaskItem task : segments.get(2)) {
+            if (task.getCreatedEpochDay() == day) expected.add(task.getId());
+        }
+
+        List<TaskItem> scheduled = new ArrayList<>();
+        cold.collectScheduledOn(day, scheduled, id -> false);
+        assertEquals(expected, ids(scheduled));
+        assertEquals(1, cold.getInflateCount());
+
+        List<TaskItem> completed = new ArrayList<>();
+        cold.collectCompletedOn(probe.getCompletedEpochDay(), completed, id -> false);
+        assertTrue(ids(completed).contains(probe.getId()));
+        assertEquals("second lookup is served from the cache", 1, cold.getInflateCount());
+
+        TaskItem found = cold.find(2, probe.getId());
+        assertEquals(probe.getTitle(), found.getTitle());
+        assertEquals(probe.getCompletedDate(), found.getCompletedDate());
+        assertNull(cold.find(3, probe.getId()));
+
+        // A day before any segment touches none
+        int inflated = cold.getInflateCount();
+        List<TaskItem> none = new ArrayList<>();
+        cold.collectScheduledOn(EpochDays.of(START) - 30, none, id -> false);
+        assertTrue(none.isEmpty());
+        assertEquals(inflated, cold.getInflateCount());
+    }
+
+    @Test
+    public void theCacheStaysWithinItsBudget() throws Exception {
+        File dir = folder.newFolder("history");
+        List<List<TaskItem>> segments = writeSegments(new ColdHistory(dir, ColdHistory.DEFAULT_CACHE_BYTES));
+
+        ColdHistory unbounded = new ColdHistory(dir, Long.MAX_VALUE);
+        unbounded.load();
+        unbounded.collectScheduledOn(segments.get(0).get(50).getCreatedEpochDay(), new ArrayList<>(), id -> false);
+        long oneSegment = unbounded.getCachedBytes();
+        assertTrue(oneSegment > 0);
+
+        ColdHistory cold = new ColdHistory(dir, oneSegment * 2 + oneSegment / 2);
+        cold.load();
+        for (List<TaskItem> segment : segments) {
+            cold.collectScheduledOn(segment.get(50).getCreatedEpochDay(), new ArrayList<>(), id -> false);
+            assertTrue(cold.getCachedBytes() <= oneSegment * 2 + oneSegment / 2);
+        }
+        assertEquals(2, cold.getCachedSegmentCount());
+
+        // The least recently used segment was dropped, the last two are still cached
+        int inflated = cold.getInflateCount();
+        cold.collectScheduledOn(segments.get(4).get(50).getCreatedEpochDay(), new ArrayList<>(), id -> false);
+        assertEquals(inflated, cold.getInflateCount());
+        cold.collectScheduledOn(segments.get(0).get(50).getCreatedEpochDay(), new ArrayList<>(), id -> false);
+        assertEquals(inflated + 1, cold.getInflateCount());
+    }
+}
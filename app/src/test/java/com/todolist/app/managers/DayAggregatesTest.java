@@ -0,0 +1,264 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.TaskItem;
+import com.todolist.app.utils.EpochDays;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class DayAggregatesTest {
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    private static final long START = 1_700_000_000_000L;
+
+    private final TimeZone originalZone = TimeZone.getDefault();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void restoreZone() {
+        TimeZone.setDefault(originalZone);
+        EpochDays.onTimeZoneChanged();
+    }
+
+    // The reference: count the day straight from the tasks
+    private static long[] scan(List<TaskItem> tasks, long day) {
+        long[] expected = new long[DayStats.FIELDS];
+        for (TaskItem task : tasks) {
+            long created = task.getCreatedEpochDay();
+            long due = task.getDueEpochDay();
+            if (created == day || due == day) {
+                expected[DayStats.SCHEDULED]++;
+                expected[DayStats.TYPE_BASE + task.getType().ordinal()]++;
+            }
+            long outcomeDay = due != EpochDays.NONE ? due : created;
+            switch (task.getStatus()) {
+                case COMPLETED:
+                    if (task.getCompletedEpochDay() == day) {
+                        expected[DayStats.COMPLETED]++;
+                        expected[DayStats.COINS_EARNED] += task.getCoinReward();
+                    }
+                    break;
+                case FAILED:
+                    if (outcomeDay == day) {
+                        expected[DayStats.FAILED]++;
+                        expected[DayStats.COINS_LOST] += task.getCoinPenalty();
+                    }
+                    break;
+                case SKIPPED:
+                    if (outcomeDay == day) expected[DayStats.SKIPPED]++;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return expected;
+    }
+
+    private static long[] counters(DayStats stats) {
+        long[] counters = new long[DayStats.FIELDS];
+        counters[DayStats.SCHEDULED] = stats.getTotal();
+        counters[DayStats.COMPLETED] = stats.getCompleted();
+        counters[DayStats.FAILED] = stats.getFailed();
+        counters[DayStats.SKIPPED] = stats.getSkipped();
+        counters[DayStats.COINS_EARNED] = stats.getCoinsEarned();
+        counters[DayStats.COINS_LOST] = stats.getCoinsLost();
+        for (TaskItem.TaskType type : TaskItem.TaskType.values()) {
+            counters[DayStats.TYPE_BASE + type.ordinal()] = stats.getTotal(type);
+        }
+        return counters;
+    }
+
+    private static Date randomDay(Random random, int spanDays) {
+        return new Date(START + (long) (random.nextDouble() * spanDays * DAY_MS));
+    }
+
+    @Test
+    public void countersMatchAScanThroughRandomTransitions() {
+        Random random = new Random(7);
+        DayAggregates aggregates = new DayAggregates();
+        List<TaskItem> tasks = new ArrayList<>();
+        TaskItem.TaskType[] types = TaskItem.TaskType.values();
+        TaskItem.TaskStatus[] outcomes = {
+            TaskItem.TaskStatus.COMPLETED, TaskItem.TaskStatus.FAILED, TaskItem.TaskStatus.SKIPPED
+        };
+
+        for (int step = 0; step < 3_000; step++) {
+            int action = random.nextInt(10);
+            if (action < 5 || tasks.isEmpty()) {
+                TaskItem task = new TaskItem(step, "Quest " + step,
+                    types[random.nextInt(types.length)], randomDay(random, 120));
+                if (random.nextBoolean()) {
+                    task.setDueDate(randomDay(random, 150));
+                }
+                tasks.add(task);
+                aggregates.put(task);
+            } else if (action < 9) {
+                // Settle, or move the due date of, a task in place
+                TaskItem task = tasks.get(random.nextInt(tasks.size()));
+                if (task.getStatus() == TaskItem.TaskStatus.PENDING && random.nextBoolean()) {
+                    task.setStatus(outcomes[random.nextInt(outcomes.length)]);
+                    task.setCompletedDate(randomDay(random, 150));
+                } else {
+                    task.setDueDate(random.nextBoolean() ? randomDay(random, 300) : null);
+                }
+                aggregates.put(task);
+            } else {
+                TaskItem task = tasks.remove(random.nextInt(tasks.size()));
+                aggregates.remove(task.getId());
+            }
+        }
+
+        long firstDay = EpochDays.of(START) - 2;
+        long lastDay = EpochDays.of(START + 302 * DAY_MS);
+        long[] running = new long[DayStats.FIELDS];
+        for (long day = firstDay; day <= lastDay; day++) {
+            long[] expected = scan(tasks, day);
+            assertArrayEquals("day " + day, expected, counters(aggregates.get(day)));
+            for (int field = 0; field < DayStats.FIELDS; field++) {
+                running[field] += expected[field];
+            }
+            assertArrayEquals("range to " + day, running, counters(aggregates.range(firstDay, day)));
+        }
+    }
+
+    @Test
+    public void rangesStayCorrectAsEditsLandAnywhere() {
+        DayAggregates aggregates = new DayAggregates();
+        long today = EpochDays.of(START);
+        for (int i = 0; i < 30; i++) {
+            aggregates.put(new TaskItem(i, "Quest", TaskItem.TaskType.TODO, new Date(START + i * DAY_MS)));
+        }
+        assertEquals(30, aggregates.range(today, today + 29).getTotal());
+        assertEquals(7, aggregates.range(today + 10, today + 16).getTotal());
+
+        // A change far before the covered days widens them
+        TaskItem early = new TaskItem(1000, "Quest", TaskItem.TaskType.HABIT, new Date(START - 400 * DAY_MS));
+        aggregates.put(early);
+        assertEquals(31, aggregates.range(today - 400, today + 29).getTotal());
+        assertEquals(1, aggregates.range(today - 400, today - 400).getTotal(TaskItem.TaskType.HABIT));
+        assertEquals(7, aggregates.range(today + 10, today + 16).getTotal());
+
+        aggregates.remove(12);
+        assertEquals(6, aggregates.range(today + 10, today + 16).getTotal());
+        assertEquals(0, aggregates.range(today + 1000, today + 2000).getTotal());
+        assertEquals(0, aggregates.range(today + 5, today + 4).getTotal());
+    }
+
+    @Test
+    public void counterRangesMatchARowByRowSumAndRoundTrip() throws Exception {
+        DayCounters counters = new DayCounters();
+        Random random = new Random(11);
+        long[][] reference = new long[600][DayStats.FIELDS];
+        for (int i = 0; i < 5000; i++) {
+            // Days land on both sides of the first one, so the rows widen both ways
+            int day = random.nextInt(600);
+            int field = random.nextInt(DayStats.FIELDS);
+            int delta = random.nextInt(7) - 3;
+            counters.add(day - 300, field, delta);
+            reference[day][field] += delta;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        counters.writeTo(new DataOutputStream(bytes));
+        DayCounters read = DayCounters.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        for (DayCounters current : new DayCounters[] {counters, read}) {
+            for (int i = 0; i < 200; i++) {
+                int from = random.nextInt(600);
+                int to = from + random.nextInt(600 - from);
+                long[] expected = new long[DayStats.FIELDS];
+                for (int day = from; day <= to; day++) {
+                    for (int field = 0; field < DayStats.FIELDS; field++) {
+                        expected[field] += reference[day][field];
+                    }
+                }
+                DayStats range = current.range(from - 300, to - 300);
+                assertEquals(new DayStats(expected).getTotal(), range.getTotal());
+                assertEquals(new DayStats(expected).getCompleted(), range.getCompleted());
+                assertEquals(new DayStats(expected).getCoinsEarned(), range.getCoinsEarned());
+                assertEquals(new DayStats(reference[from]).getTotal(), current.get(from - 300).getTotal());
+            }
+        }
+    }
+
+    @Test
+    public void countersFollowTheZone() {
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+        EpochDays.onTimeZoneChanged();
+        DayAggregates aggregates = new DayAggregates();
+        // 23:30 UTC is already the next day in Jakarta
+        long lateEvening = EpochDays.toMillis(20_000, 23 * 60 + 30);
+        aggregates.put(new TaskItem(1, "Quest", TaskItem.TaskType.TODO, new Date(lateEvening)));
+        assertEquals(1, aggregates.get(20_000).getTotal());
+
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Jakarta"));
+        EpochDays.onTimeZoneChanged();
+        assertEquals(0, aggregates.get(20_000).getTotal());
+        assertEquals(1, aggregates.get(20_001).getTotal());
+    }
+
+    @Test
+    public void managerCountsSettledTasksFromTheHistory() {
+        GameManager game = new GameManager();
+        TaskManager manager = new TaskManager(game);
+        Date now = new Date();
+        TaskItem done = new TaskItem(1, "Quest", TaskItem.TaskType.TODO, now);
+        TaskItem dropped = new TaskItem(2, "Quest", TaskItem.TaskType.TODO, now);
+        manager.addTask(done);
+        manager.addTask(dropped);
+        assertEquals(2, manager.getDayStats(now).getTotal());
+
+        game.completeTask(done);
+        manager.updateTask(done);
+        // Held and settled at once, it is still counted once
+        assertEquals(2, manager.getDayStats(now).getTotal());
+        manager.removeTask(done);
+        manager.removeTask(dropped);
+
+        DayStats stats = manager.getDayStats(now);
+        assertEquals(1, stats.getTotal());
+        assertEquals(1, stats.getCompleted());
+        assertEquals(done.getCoinReward(), stats.getCoinsEarned());
+        assertEquals(100.0, stats.getSuccessRate(), 0.001);
+        assertEquals(1, manager.getDayStats(new Date(now.getTime() - 6 * DAY_MS), now).getCompleted());
+    }
+
+    @Test
+    public void settledCountersSurviveARestart() throws Exception {
+        File dataDir = folder.newFolder("data");
+        GameManager game = new GameManager();
+        game.initialize(dataDir);
+        TaskManager manager = new TaskManager(game);
+        Date past = new Date(System.currentTimeMillis() - 3 * DAY_MS);
+        TaskItem done = new TaskItem(1, "Quest", TaskItem.TaskType.TODO, past);
+        manager.addTask(done);
+        game.completeTask(done);
+        manager.updateTask(done);
+        manager.removeTask(done);
+        DayStats before = manager.getDayStats(past, done.getCompletedDate());
+        assertEquals(1, before.getTotal());
+        assertEquals(1, before.getCompleted());
+
+        GameManager relaunched = new GameManager();
+        relaunched.initialize(dataDir);
+        TaskManager restarted = new TaskManager(relaunched);
+        DayStats after = restarted.getDayStats(past, done.getCompletedDate());
+        assertEquals(before.getTotal(), after.getTotal());
+        assertEquals(before.getCompleted(), after.getCompleted());
+        assertEquals(before.getCoinsEarned(), after.getCoinsEarned());
+        assertEquals(1, restarted.getDayStats(past).getTotal());
+    }
+}
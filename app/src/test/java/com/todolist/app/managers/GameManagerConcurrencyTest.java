@@ -0,0 +1,138 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.Character;
+import com.todolist.app.models.TaskItem;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GameManagerConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int STARTING_COINS = 50;
+
+    // Runs the body on THREADS threads released at the same moment
+    private static void race(ThreadBody body) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            int index = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    body.run(index);
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(failure.get());
+    }
+
+    private interface ThreadBody {
+        void run(int threadIndex) throws Exception;
+    }
+
+    @Test
+    public void concurrentRewardsAreNeverLost() throws Exception {
+        GameManager game = new GameManager();
+        int perThread = 5000;
+        int reward = new TaskItem("probe", TaskItem.TaskType.TODO).getCoinReward();
+
+        race(t -> {
+            for (int i = 0; i < perThread; i++) {
+                assertTrue(game.completeTask(new TaskItem("Quest", TaskItem.TaskType.TODO)));
+            }
+        });
+
+        assertEquals(STARTING_COINS + THREADS * perThread * reward, game.getCoins());
+        assertEquals(THREADS * perThread, game.getTaskHistorySize());
+    }
+
+    @Test
+    public void aTaskIsSettledOnlyOnce() throws Exception {
+        GameManager game = new GameManager();
+        TaskItem task = new TaskItem("Contested quest", TaskItem.TaskType.TODO);
+        AtomicInteger wins = new AtomicInteger();
+
+        race(t -> {
+            if (t % 2 == 0) {
+                if (game.completeTask(task)) wins.incrementAndGet();
+            } else {
+                game.failTask(task);
+            }
+        });
+
+        int coins = game.getCoins();
+        if (task.getStatus() == TaskItem.TaskStatus.COMPLETED) {
+            assertEquals(1, wins.get());
+            assertEquals(STARTING_COINS + task.getCoinReward(), coins);
+        } else {
+            assertEquals(0, wins.get());
+            assertEquals(STARTING_COINS - task.getCoinPenalty(), coins);
+        }
+        assertEquals(1, game.getTaskHistorySize());
+    }
+
+    @Test
+    public void aSettledTaskStaysSettledAfterItsClaimIsReleased() {
+        GameManager game = new GameManager();
+        TaskItem task = new TaskItem("Finished quest", TaskItem.TaskType.TODO);
+        assertTrue(game.completeTask(task));
+        int coins = game.getCoins();
+
+        assertFalse(game.completeTask(task));
+        game.failTask(task);
+        assertEquals(coins, game.getCoins());
+        assertEquals(1, game.getTaskHistorySize());
+    }
+
+    @Test
+    public void purchasesNeverDoubleSpend() throws Exception {
+        GameManager game = new GameManager();
+        int price = 10;
+        List<Character> stock = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            stock.add(new Character("Pet " + i, "pet", price, false));
+        }
+
+        // Earners and buyers race: half the threads complete quests, half shop
+        AtomicInteger bought = new AtomicInteger();
+        race(t -> {
+            if (t % 2 == 0) {
+                for (int i = 0; i < 200; i++) {
+                    game.completeTask(new TaskItem("Quest", TaskItem.TaskType.TODO));
+                }
+            } else {
+                List<Character> order = new ArrayList<>(stock);
+                Collections.shuffle(order);
+                for (Character character : order) {
+                    if (game.buyCharacter(character)) bought.incrementAndGet();
+                }
+            }
+        });
+
+        int earned = game.getTaskHistorySize() * new TaskItem("probe", TaskItem.TaskType.TODO).getCoinReward();
+        assertTrue(game.getCoins() >= 0);
+        assertEquals(STARTING_COINS + earned - bought.get() * price, game.getCoins());
+
+        // Each character was paid for exactly once
+        HashSet<String> owned = new HashSet<>();
+        for (Character character : game.getOwnedCharacters()) {
+            assertTrue(owned.add(character.getId()));
+        }
+        assertEquals(bought.get() + 1, owned.size()); // plus the starter pet
+    }
+}
@@ -0,0 +1,79 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.Character;
+import com.todolist.app.models.EconomyEvent;
+import com.todolist.app.models.TaskItem;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class GameManagerLedgerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static Character find(GameManager game, String id) {
+        for (Character character : game.getAllCharacters()) {
+            if (character.getId().equals(id)) return character;
+        }
+        throw new AssertionError("No character " + id);
+    }
+
+    @Test
+    public void economyIsRestoredFromLedgerOnNextLaunch() {
+        File dataDir = folder.getRoot();
+        GameManager game = new GameManager();
+        game.initialize(dataDir);
+        assertEquals(50, game.getCoins());
+
+        for (int i = 0; i < 6; i++) {
+            assertTrue(game.completeTask(new TaskItem("Planning " + i, TaskItem.TaskType.PLANNING)));
+        }
+        Character dragon = find(game, "dragon");
+        assertTrue(game.buyCharacter(dragon));
+        game.setActiveCharacter(dragon);
+        game.completeTask(new TaskItem("Feed the dragon", TaskItem.TaskType.PLANNING));
+        game.failTask(new TaskItem("Skipped habit", TaskItem.TaskType.HABIT));
+        int coins = game.getCoins();
+        Character starter = find(game, "starter_pet");
+
+        GameManager relaunched = new GameManager();
+        relaunched.initialize(dataDir);
+        assertEquals(coins, relaunched.getCoins());
+        assertEquals("dragon", relaunched.getActiveCharacter().getId());
+        assertTrue(find(relaunched, "dragon").isOwned());
+        assertEquals(2, relaunched.getOwnedCharacters().size());
+        assertEquals(starter.getLevel(), find(relaunched, "starter_pet").getLevel());
+        assertEquals(starter.getExperience(), find(relaunched, "starter_pet").getExperience());
+        assertEquals(dragon.getExperience(), find(relaunched, "dragon").getExperience());
+
+        List<EconomyEvent> history = relaunched.getCoinHistory(3);
+        assertEquals(EconomyEvent.Type.PENALTY, history.get(0).getType());
+        assertEquals(coins, history.get(0).getBalanceAfter());
+        assertEquals(EconomyEvent.Type.REWARD, history.get(1).getType());
+    }
+
+    @Test
+    public void unreadableLedgerIsNeverOverwritten() throws Exception {
+        File dataDir = folder.getRoot();
+        File snapshot = new File(dataDir, "economy/economy.snapshot");
+        snapshot.getParentFile().mkdirs();
+        byte[] garbage = {9, 8, 7, 6, 5, 4, 3, 2, 1};
+        Files.write(snapshot.toPath(), garbage);
+
+        GameManager game = new GameManager();
+        game.initialize(dataDir);
+        assertEquals(50, game.getCoins());
+        // Past the snapshot interval: a durable ledger would have snapshotted by now
+        for (int i = 0; i < 600; i++) {
+            game.completeTask(new TaskItem("Planning " + i, TaskItem.TaskType.PLANNING));
+        }
+
+        assertArrayEquals(garbage, Files.readAllBytes(snapshot.toPath()));
+        assertFalse(new File(dataDir, "economy/economy.journal").exists());
+    }
+}
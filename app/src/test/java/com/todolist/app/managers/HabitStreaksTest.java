@@ -0,0 +1,161 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.TaskItem;
+import com.todolist.app.utils.EpochDays;
+import java.io.File;
+import java.util.Date;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class HabitStreaksTest {
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private int nextId;
+
+    // A daily habit instance for "Stretch" settled daysAgo days before today
+    private TaskItem settled(TaskItem.TaskStatus outcome, int daysAgo) {
+        return settled(outcome, daysAgo, 1);
+    }
+
+    private TaskItem settled(TaskItem.TaskStatus outcome, int daysAgo, int intervalDays) {
+        Date day = new Date(System.currentTimeMillis() - daysAgo * DAY_MS);
+        TaskItem task = new TaskItem(nextId++, "Stretch", TaskItem.TaskType.HABIT, day);
+        task.setHabitId("stretch");
+        task.setRecurringDays(intervalDays);
+        task.setDueDate(day);
+        task.setStatus(outcome);
+        if (outcome == TaskItem.TaskStatus.COMPLETED) {
+            task.setCompletedDate(day);
+        }
+        return task;
+    }
+
+    @Test
+    public void consecutiveDaysExtendAndGapsReset() throws Exception {
+        HabitStreaks streaks = new HabitStreaks();
+        streaks.record(settled(TaskItem.TaskStatus.COMPLETED, 6));
+        streaks.record(settled(TaskItem.TaskStatus.COMPLETED, 5));
+        streaks.record(settled(TaskItem.TaskStatus.COMPLETED, 5)); // same day again
+        streaks.record(settled(TaskItem.TaskStatus.COMPLETED, 4));
+        assertEquals(3, streaks.get("stretch").getBest());
+
+        // Day 3 was missed entirely
+        HabitStreaks.Streak streak = streaks.record(settled(TaskItem.TaskStatus.COMPLETED, 2));
+        assertEquals(3, streak.getBest());
+        assertEquals(1, streak.currentOn(EpochDays.today() - 2));
+        assertEquals(1, streak.currentOn(EpochDays.today() - 1));
+
+        // Nothing happened yesterday, so by today the streak has lapsed
+        assertEquals(0, streak.getCurrent());
+    }
+
+    @Test
+    public void skipsKeepTheStreakAndFailuresBreakIt() throws Exception {
+        HabitStreaks streaks = new HabitStreaks();
+        streaks.record(settled(TaskItem.TaskStatus.COMPLETED, 5));
+        streaks.record(settled(TaskItem.TaskStatus.SKIPPED, 4));
+        HabitStreaks.Streak streak = streaks.record(settled(TaskItem.TaskStatus.COMPLETED, 3));
+        assertEquals(2, streak.currentOn(EpochDays.today() - 3));
+
+        streak = streaks.record(settled(TaskItem.TaskStatus.FAILED, 2));
+        assertEquals(0, streak.currentOn(EpochDays.today() - 2));
+        assertEquals(2, streak.getBest());
+
+        // A late outcome for a day before the last active one changes nothing
+        assertSame(streak, streaks.record(settled(TaskItem.TaskStatus.COMPLETED, 4)));
+
+        streak = streaks.record(settled(TaskItem.TaskStatus.COMPLETED, 1));
+        assertEquals(1, streak.getCurrent());
+    }
+
+    @Test
+    public void weeklyHabitsAreJudgedByTheirInterval() throws Exception {
+        HabitStreaks streaks = new HabitStreaks();
+        streaks.record(settled(TaskItem.TaskStatus.COMPLETED, 21, 7));
+        streaks.record(settled(TaskItem.TaskStatus.COMPLETED, 14, 7));
+        HabitStreaks.Streak streak = streaks.record(settled(TaskItem.TaskStatus.COMPLETED, 7, 7));
+        assertEquals(7, streak.getIntervalDays());
+        assertEquals(3, streak.currentOn(EpochDays.today() - 7));
+
+        // Still alive on the day the next occurrence is due, lapsed the day after
+        assertEquals(3, streak.getCurrent());
+        assertEquals(0, streak.currentOn(EpochDays.today() + 1));
+
+        // A completion eight days after the last one is a fresh start
+        streak = streaks.record(settled(TaskItem.TaskStatus.COMPLETED, -1, 7));
+        assertEquals(1, streak.currentOn(EpochDays.today() + 1));
+        assertEquals(3, streak.getBest());
+    }
+
+    @Test
+    public void streaksSurviveReload() throws Exception {
+        File dir = folder.newFolder();
+        HabitStreaks streaks = new HabitStreaks(dir, 3);
+        for (int daysAgo = 9; daysAgo >= 0; daysAgo--) {
+            streaks.record(settled(TaskItem.TaskStatus.COMPLETED, daysAgo));
+        }
+
+        HabitStreaks reloaded = new HabitStreaks(dir, 3);
+        reloaded.load();
+        assertEquals(10, reloaded.get("stretch").getCurrent());
+        assertEquals(10, reloaded.get("stretch").getBest());
+        assertEquals("stretch", reloaded.resolveHabitId("  STRETCH ", "other"));
+    }
+
+    @Test
+    public void managerGroupsInstancesByTitleAndStampsStreaks() {
+        TaskManager manager = new TaskManager();
+        TaskItem monday = settled(TaskItem.TaskStatus.PENDING, 1);
+        monday.setHabitId(null);
+        manager.addTask(monday);
+        monday.setStatus(TaskItem.TaskStatus.COMPLETED);
+        monday.setCompletedDate(monday.getDueDate());
+        manager.updateTask(monday);
+
+        TaskItem tuesday = new TaskItem("Stretch", TaskItem.TaskType.HABIT);
+        manager.addTask(tuesday);
+        assertEquals(monday.getHabitId(), tuesday.getHabitId());
+        assertEquals(1, tuesday.getStreakCount());
+
+        tuesday.setStatus(TaskItem.TaskStatus.COMPLETED);
+        tuesday.setCompletedDate(new Date());
+        manager.updateTask(tuesday);
+        assertEquals(2, tuesday.getStreakCount());
+        assertEquals(2, manager.getHabitStreak(monday.getHabitId()).getCurrent());
+
+        TaskItem other = new TaskItem("Read", TaskItem.TaskType.HABIT);
+        manager.addTask(other);
+        assertNotEquals(monday.getHabitId(), other.getHabitId());
+        assertNull(manager.getHabitStreak(other.getHabitId()));
+    }
+
+    @Test
+    public void queriesStayConstantForHundredsOfHabits() throws Exception {
+        HabitStreaks streaks = new HabitStreaks();
+        for (int habit = 0; habit < 500; habit++) {
+            for (int daysAgo = 60; daysAgo >= 0; daysAgo--) {
+                TaskItem task = settled(TaskItem.TaskStatus.COMPLETED, daysAgo);
+                task.setHabitId("habit" + habit);
+                streaks.record(task);
+            }
+        }
+
+        long start = System.nanoTime();
+        long total = 0;
+        for (int round = 0; round < 1000; round++) {
+            for (int habit = 0; habit < 500; habit++) {
+                total += streaks.get("habit" + habit).getCurrent();
+            }
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(1000L * 500 * 61, total);
+        assertTrue("500k streak queries took " + elapsedMs + " ms", elapsedMs < 2_000);
+    }
+}
@@ -0,0 +1,65 @@
+package com.todolist.app.managers;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NotificationDigestTest {
+    private static final long NOW = 1_750_000_000_000L;
+
+    @Test
+    public void aLoneReminderKeepsItsFullWording() {
+        NotificationDigest digest = new NotificationDigest();
+        digest.add(NotificationDigest.Category.OVERDUE, "Write report", "Lost 5 coins for overdue quest");
+
+        String message = digest.take(NOW);
+        assertTrue(message.contains("'Write report' is overdue"));
+        assertTrue(message.contains("Lost 5 coins"));
+        assertTrue(digest.isEmpty());
+    }
+
+    @Test
+    public void aPassOfRemindersBecomesOneSummaryLine() {
+        NotificationDigest digest = new NotificationDigest();
+        for (int i = 0; i < 12; i++) {
+            digest.add(NotificationDigest.Category.OVERDUE, "Quest " + i, null);
+        }
+        for (int i = 0; i < 3; i++) {
+            digest.add(NotificationDigest.Category.DUE_2H, "Soon " + i, null);
+        }
+        digest.add(NotificationDigest.Category.HABIT, "Stretch", null);
+        assertEquals(16, digest.size());
+
+        String message = digest.take(NOW);
+        assertEquals("🔔 Quest Digest\n💀 12 quests overdue, ⚠️ 3 due in 2h, 🔄 1 habit check", message);
+        assertNull(digest.take(NOW + NotificationDigest.MIN_INTERVAL_MS));
+    }
+
+    @Test
+    public void burstsWithinTheIntervalWaitForTheNextDigest() {
+        NotificationDigest digest = new NotificationDigest();
+        digest.add(NotificationDigest.Category.REMINDER, "First", null);
+        assertNotNull(digest.take(NOW));
+
+        digest.add(NotificationDigest.Category.REMINDER, "Second", null);
+        assertNull(digest.take(NOW + 1_000));
+        digest.add(NotificationDigest.Category.REMINDER, "Third", null);
+        assertNull(digest.take(NOW + NotificationDigest.MIN_INTERVAL_MS - 1));
+        assertEquals(NOW + NotificationDigest.MIN_INTERVAL_MS, digest.nextAllowedAt());
+        assertEquals(2, digest.size());
+
+        assertEquals("🔔 Quest Digest\n🔔 2 reminders", digest.take(NOW + NotificationDigest.MIN_INTERVAL_MS));
+        assertTrue(digest.isEmpty());
+    }
+
+    @Test
+    public void anEmptyDigestIsNeverTaken() {
+        NotificationDigest digest = new NotificationDigest();
+        assertNull(digest.take(NOW));
+        assertNull(digest.build());
+
+        // Nothing was shown, so the next reminder is not held back
+        digest.add(NotificationDigest.Category.DAILY, "Walk", null);
+        assertNotNull(digest.take(NOW + 1));
+    }
+}
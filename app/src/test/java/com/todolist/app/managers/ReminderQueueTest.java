@@ -0,0 +1,143 @@
+package com.todolist.app.managers;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class ReminderQueueTest {
+    private static final long NOW = 1_750_000_000_000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static ReminderQueue.Entry reminder(long fireAt, long taskId) {
+        return new ReminderQueue.Entry(fireAt, taskId, NotificationDigest.Category.REMINDER,
+            "Quest " + taskId, null, ReminderTarget.NO_TIME);
+    }
+
+    private static ReminderQueue.Visitor into(NotificationDigest digest) {
+        return entry -> digest.add(entry.category, entry.title, entry.detail);
+    }
+
+    @Test
+    public void readsOnlyTheEarliestEntriesOfALargeQueue() throws Exception {
+        List<ReminderQueue.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            entries.add(reminder(NOW + i * 60_000L, i + 1));
+        }
+        Collections.shuffle(entries, new Random(5));
+        File dir = folder.newFolder();
+        new ReminderQueue(dir).write(entries);
+
+        List<ReminderQueue.Entry> upcoming = new ReminderQueue(dir).readUpcoming(32);
+        assertEquals(32, upcoming.size());
+        for (int i = 0; i < 32; i++) {
+            assertEquals(NOW + i * 60_000L, upcoming.get(i).fireAt);
+            assertEquals(i + 1, upcoming.get(i).taskId);
+            assertEquals("Quest " + (i + 1), upcoming.get(i).title);
+        }
+    }
+
+    @Test
+    public void deliversDueEntriesOnceAndReportsTheNextFireTime() throws Exception {
+        File dir = folder.newFolder();
+        List<ReminderQueue.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            entries.add(reminder(NOW - 1_000 - i, i + 1));
+        }
+        entries.add(new ReminderQueue.Entry(NOW - 500, 200, NotificationDigest.Category.OVERDUE,
+            "Late quest", "Lost 5 coins for overdue quest", NOW - 500));
+        entries.add(reminder(NOW + 60_000, 300));
+        new ReminderQueue(dir).write(entries);
+
+        NotificationDigest digest = new NotificationDigest();
+        long next = new ReminderQueue(dir).deliverDue(NOW, into(digest));
+        assertEquals(NOW + 60_000, next);
+        assertEquals(101, digest.size());
+
+        // A second process finds nothing left to deliver
+        NotificationDigest again = new NotificationDigest();
+        assertEquals(NOW + 60_000, new ReminderQueue(dir).deliverDue(NOW, into(again)));
+        assertTrue(again.isEmpty());
+
+        List<ReminderQueue.Entry> upcoming = new ReminderQueue(dir).readUpcoming(10);
+        assertEquals(1, upcoming.size());
+        assertEquals(300, upcoming.get(0).taskId);
+
+        assertEquals(Long.MAX_VALUE, new ReminderQueue(dir).deliverDue(NOW + 60_000, into(again)));
+        assertEquals(1, again.size());
+    }
+
+    @Test
+    public void rewritingTheQueueForgetsWhatWasDelivered() throws Exception {
+        File dir = folder.newFolder();
+        ReminderQueue queue = new ReminderQueue(dir);
+        queue.write(Collections.singletonList(reminder(NOW, 1)));
+        queue.deliverDue(NOW, into(new NotificationDigest()));
+        assertTrue(queue.readUpcoming(32).isEmpty());
+
+        // Rescheduled for the same time, it is due again
+        queue.write(Collections.singletonList(reminder(NOW, 1)));
+        NotificationDigest digest = new NotificationDigest();
+        assertEquals(Long.MAX_VALUE, queue.deliverDue(NOW, into(digest)));
+        assertEquals(1, digest.size());
+    }
+
+    @Test
+    public void eachPassResumesWhereTheLastStoppedAndRemembersWhatItDelivered() throws Exception {
+        File dir = folder.newFolder();
+        List<ReminderQueue.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            entries.add(reminder(NOW + i * 1_000L, i + 1));
+        }
+        new ReminderQueue(dir).write(entries);
+
+        List<Long> delivered = new ArrayList<>();
+        for (int pass = 0; pass < 3; pass++) {
+            long now = NOW + (pass + 1) * 100_000L - 1;
+            new ReminderQueue(dir).deliverDue(now, entry -> delivered.add(entry.taskId));
+        }
+        assertEquals(300, delivered.size());
+        for (int i = 0; i < 300; i++) {
+            assertEquals(i + 1, (long) delivered.get(i));
+        }
+
+        List<Long> settled = new ArrayList<>();
+        new ReminderQueue(dir).forEachDelivered(entry -> settled.add(entry.taskId));
+        assertEquals(delivered, settled);
+        assertEquals(Long.MAX_VALUE, new ReminderQueue(dir).nextFireTime());
+    }
+
+    @Test
+    public void skippedTasksDoNotCountTowardsTheLimit() throws Exception {
+        File dir = folder.newFolder();
+        List<ReminderQueue.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            entries.add(reminder(NOW + i, i + 1));
+        }
+        ReminderQueue queue = new ReminderQueue(dir);
+        queue.write(entries);
+        queue.deliverDue(NOW + 1, into(new NotificationDigest()));
+
+        List<ReminderQueue.Entry> upcoming = queue.readUpcoming(3, taskId -> taskId % 2 == 0);
+        assertEquals(3, upcoming.size());
+        assertEquals(3, upcoming.get(0).taskId);
+        assertEquals(5, upcoming.get(1).taskId);
+        assertEquals(7, upcoming.get(2).taskId);
+    }
+
+    @Test
+    public void emptyDirectoryHasNothingUpcoming() throws Exception {
+        ReminderQueue queue = new ReminderQueue(new File(folder.getRoot(), "missing"));
+        assertTrue(queue.readUpcoming(32).isEmpty());
+        assertEquals(Long.MAX_VALUE, queue.deliverDue(NOW, into(new NotificationDigest())));
+        assertFalse(queue.exists());
+    }
+}
@@ -0,0 +1,99 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.TaskItem;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ReminderSchedulerTest {
+    private static ReminderTarget target(String title) {
+        return ReminderTarget.of(new TaskItem(title, TaskItem.TaskType.TODO));
+    }
+
+    private static List<Long> fireTimes(List<ReminderScheduler.Event> events) {
+        List<Long> times = new ArrayList<>();
+        for (ReminderScheduler.Event event : events) {
+            times.add(event.fireAt);
+        }
+        return times;
+    }
+
+    @Test
+    public void pollsDueEventsEarliestFirst() {
+        ReminderScheduler scheduler = new ReminderScheduler();
+        Random random = new Random(4);
+        for (int i = 0; i < 500; i++) {
+            scheduler.schedule(target("Quest " + i), ReminderScheduler.Kind.DUE, random.nextInt(10_000));
+        }
+        assertEquals(500, scheduler.size());
+
+        List<ReminderScheduler.Event> due = scheduler.pollDue(5_000);
+        for (int i = 1; i < due.size(); i++) {
+            assertTrue(due.get(i - 1).fireAt <= due.get(i).fireAt);
+        }
+        for (long fireAt : fireTimes(due)) {
+            assertTrue(fireAt <= 5_000);
+        }
+        assertTrue(scheduler.nextFireTime() > 5_000);
+        assertEquals(500, due.size() + scheduler.size());
+    }
+
+    @Test
+    public void cancelledEventsNeverFire() {
+        ReminderScheduler scheduler = new ReminderScheduler();
+        ReminderTarget first = target("First");
+        ReminderTarget second = target("Second");
+        scheduler.schedule(first, ReminderScheduler.Kind.DUE, 100);
+        scheduler.schedule(first, ReminderScheduler.Kind.CUSTOM, 200);
+        scheduler.schedule(second, ReminderScheduler.Kind.CUSTOM, 300);
+
+        scheduler.cancel(first.taskId, ReminderScheduler.Kind.DUE);
+        assertEquals(200, scheduler.nextFireTime());
+        scheduler.cancelAll(first.taskId);
+        assertEquals(300, scheduler.nextFireTime());
+        assertEquals(1, scheduler.size());
+
+        List<ReminderScheduler.Event> due = scheduler.pollDue(1_000);
+        assertEquals(1, due.size());
+        assertSame(second, due.get(0).target);
+        assertEquals(Long.MAX_VALUE, scheduler.nextFireTime());
+    }
+
+    @Test
+    public void reschedulingReplacesTheEarlierEventOfTheSameKind() {
+        ReminderScheduler scheduler = new ReminderScheduler();
+        ReminderTarget quest = target("Quest");
+        scheduler.schedule(quest, ReminderScheduler.Kind.CUSTOM, 100);
+        scheduler.schedule(quest, ReminderScheduler.Kind.CUSTOM, 500);
+        scheduler.schedule(quest, ReminderScheduler.Kind.DUE, 300);
+
+        assertEquals(2, scheduler.size());
+        assertEquals(300, scheduler.nextFireTime());
+        List<ReminderScheduler.Event> due = scheduler.pollDue(1_000);
+        assertEquals(2, due.size());
+        assertEquals(ReminderScheduler.Kind.DUE, due.get(0).kind);
+        assertEquals(ReminderScheduler.Kind.CUSTOM, due.get(1).kind);
+        assertEquals(500, due.get(1).fireAt);
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    public void heavyReschedulingKeepsOnlyTheLatestEvents() {
+        ReminderScheduler scheduler = new ReminderScheduler();
+        List<ReminderTarget> targets = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            targets.add(target("Quest " + i));
+        }
+        for (int round = 0; round < 100; round++) {
+            for (int i = 0; i < targets.size(); i++) {
+                scheduler.schedule(targets.get(i), ReminderScheduler.Kind.DUE, 1_000 + round * 10 + i);
+            }
+        }
+        assertEquals(50, scheduler.size());
+        assertEquals(1_990, scheduler.nextFireTime());
+        assertEquals(50, scheduler.pollDue(Long.MAX_VALUE).size());
+    }
+}
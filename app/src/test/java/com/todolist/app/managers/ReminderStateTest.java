@@ -0,0 +1,67 @@
+package com.todolist.app.managers;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ReminderStateTest {
+    private static final long HOUR = 60 * 60 * 1000;
+    private static final long DUE = 1_750_000_000_000L;
+
+    @Test
+    public void escalatesThroughEachThresholdOnce() {
+        ReminderState state = new ReminderState(DUE, DUE - 48 * HOUR, false);
+        assertEquals(DUE - 24 * HOUR, state.getNextThresholdAt());
+
+        assertNull(state.advance(DUE - 25 * HOUR));
+        assertEquals(ReminderState.Stage.DUE_24H, state.advance(DUE - 24 * HOUR));
+        // Every later tick inside the same window stays quiet
+        for (long t = DUE - 24 * HOUR; t < DUE - 2 * HOUR; t += 60_000) {
+            assertNull(state.advance(t));
+        }
+        assertEquals(ReminderState.Stage.DUE_2H, state.advance(DUE - 2 * HOUR));
+        assertEquals(ReminderState.Stage.DUE_1H, state.advance(DUE - HOUR));
+        assertEquals(ReminderState.Stage.OVERDUE, state.advance(DUE));
+
+        assertNull(state.advance(DUE + 10 * HOUR));
+        assertEquals(Long.MAX_VALUE, state.getNextThresholdAt());
+    }
+
+    @Test
+    public void neverMovesBackwards() {
+        ReminderState state = new ReminderState(DUE, DUE - 48 * HOUR, false);
+        assertEquals(ReminderState.Stage.DUE_2H, state.advance(DUE - 90 * 60_000));
+
+        // A clock set back does not announce the passed 24h threshold again
+        assertNull(state.advance(DUE - 30 * HOUR));
+        assertNull(state.advance(DUE - 2 * HOUR));
+        assertEquals(DUE - HOUR, state.getNextThresholdAt());
+    }
+
+    @Test
+    public void thresholdsAlreadyBehindAreNotAnnounced() {
+        ReminderState state = new ReminderState(DUE, DUE - 3 * HOUR, false);
+        assertEquals(DUE - 2 * HOUR, state.getNextThresholdAt());
+        assertNull(state.advance(DUE - 3 * HOUR));
+    }
+
+    @Test
+    public void overdueIsAnnouncedOnlyIfNotRecordedYet() {
+        ReminderState unflagged = new ReminderState(DUE, DUE + HOUR, false);
+        assertEquals(DUE, unflagged.getNextThresholdAt());
+        assertEquals(ReminderState.Stage.OVERDUE, unflagged.advance(DUE + HOUR));
+        assertNull(unflagged.advance(DUE + 2 * HOUR));
+
+        // Saved as overdue before a restart: nothing left to announce
+        ReminderState flagged = new ReminderState(DUE, DUE + HOUR, true);
+        assertEquals(Long.MAX_VALUE, flagged.getNextThresholdAt());
+        assertNull(flagged.advance(DUE + 2 * HOUR));
+    }
+
+    @Test
+    public void isTiedToOneDueDate() {
+        ReminderState state = new ReminderState(DUE, DUE - 48 * HOUR, false);
+        assertTrue(state.isFor(DUE));
+        assertFalse(state.isFor(DUE + HOUR));
+    }
+}
@@ -0,0 +1,175 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.TaskItem;
+import com.todolist.app.utils.EpochDays;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TaskArchiveTest {
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    private static final long START = 1_700_000_000_000L;
+
+    private final TimeZone originalZone = TimeZone.getDefault();
+
+    @After
+    public void restoreZone() {
+        TimeZone.setDefault(originalZone);
+        EpochDays.onTimeZoneChanged();
+    }
+
+    private static TaskItem settled(long id, String title, TaskItem.TaskType type, long created, Random random) {
+        TaskItem task = new TaskItem(id, title, type, new Date(created));
+        if (random.nextBoolean()) {
+            task.setDueDate(new Date(created + (long) (random.nextDouble() * 3 * DAY_MS)));
+        }
+        if (random.nextInt(3) > 0) {
+            task.setStatus(TaskItem.TaskStatus.COMPLETED);
+            task.setCompletedDate(new Date(created + (long) (random.nextDouble() * 2 * DAY_MS)));
+        } else {
+            task.setStatus(random.nextBoolean() ? TaskItem.TaskStatus.FAILED : TaskItem.TaskStatus.SKIPPED);
+        }
+        return task;
+    }
+
+    private static List<TaskItem> history(TaskArchive archive, Random random, int count) {
+        TaskItem.TaskType[] types = TaskItem.TaskType.values();
+        List<TaskItem> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TaskItem.TaskType type = types[random.nextInt(types.length)];
+            TaskItem task = settled(i, "Quest " + random.nextInt(20), type,
+                START + (long) (random.nextDouble() * 30 * DAY_MS), random);
+            tasks.add(task);
+            archive.add(task);
+        }
+        return tasks;
+    }
+
+    @Test
+    public void rowsRoundTripEveryField() {
+        TaskItem task = new TaskItem(1, "Stretch", TaskItem.TaskType.HABIT, new Date(START));
+        task.setDescription("Ten minutes");
+        task.setHabitId("habit_stretch");
+        task.setPriority(TaskItem.Priority.URGENT);
+        task.setDueDate(new Date(START + DAY_MS));
+        task.setReminderTime(new Date(START + DAY_MS - 60_000));
+        task.setHasReminder(true);
+        task.setRecurringDays(3);
+        task.setStreakCount(4);
+        task.setOverdue(true);
+        task.setStatus(TaskItem.TaskStatus.COMPLETED);
+        task.setCompletedDate(new Date(START + 2 * DAY_MS));
+        TaskItem bare = new TaskItem(2, "Nothing set", TaskItem.TaskType.TODO, null);
+
+        TaskArchive archive = new TaskArchive();
+        archive.add(task);
+        archive.add(bare);
+
+        TaskItem copy = archive.toTaskItem(0);
+        assertNotSame(task, copy);
+        assertEquals(1, copy.getId());
+        assertEquals("Stretch", copy.getTitle());
+        assertEquals("Ten minutes", copy.getDescription());
+        assertEquals("habit_stretch", copy.getHabitId());
+        assertEquals(TaskItem.TaskType.HABIT, copy.getType());
+        assertEquals(TaskItem.TaskStatus.COMPLETED, copy.getStatus());
+        assertEquals(TaskItem.Priority.URGENT, copy.getPriority());
+        assertEquals(task.getCreatedDate(), copy.getCreatedDate());
+        assertEquals(task.getDueDate(), copy.getDueDate());
+        assertEquals(task.getCompletedDate(), copy.getCompletedDate());
+        assertEquals(task.getReminderTime(), copy.getReminderTime());
+        assertTrue(copy.hasReminder());
+        assertTrue(copy.isRecurring());
+        assertTrue(copy.isOverdue());
+        assertEquals(3, copy.getRecurringDays());
+        assertEquals(4, copy.getStreakCount());
+        assertEquals(task.getCoinReward(), copy.getCoinReward());
+
+        TaskItem bareCopy = archive.toTaskItem(1);
+        assertNull(bareCopy.getCreatedDate());
+        assertNull(bareCopy.getDueDate());
+        assertNull(bareCopy.getDescription());
+        assertNull(bareCopy.getHabitId());
+        assertEquals(TaskArchive.NONE, archive.getCompletedAt(1));
+    }
+
+    @Test
+    public void repeatedTitlesAreStoredOnce() {
+        TaskArchive archive = new TaskArchive();
+        history(archive, new Random(5), 5_000);
+        assertEquals(5_000, archive.size());
+        // 20 distinct titles, no descriptions or habit ids
+        assertEquals(20, archive.stringCount());
+    }
+
+    @Test
+    public void dayScansMatchTheTasksThroughAZoneChange() {
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        EpochDays.onTimeZoneChanged();
+        TaskArchive archive = new TaskArchive();
+        List<TaskItem> tasks = history(archive, new Random(9), 2_000);
+        assertScansMatch(archive, tasks);
+
+        // Moving a few hours east refiles tasks near midnight on other days
+        TimeZone.setDefault(TimeZone.getTimeZone("Europe/Berlin"));
+        EpochDays.onTimeZoneChanged();
+        assertScansMatch(archive, tasks);
+    }
+
+    private static void assertScansMatch(TaskArchive archive, List<TaskItem> tasks) {
+        long firstDay = EpochDays.of(START) - 1;
+        for (long day = firstDay; day < firstDay + 35; day++) {
+            List<Long> expectedScheduled = new ArrayList<>();
+            List<Long> expectedCompleted = new ArrayList<>();
+            for (TaskItem task : tasks) {
+                if (task.getCreatedEpochDay() == day || task.getDueEpochDay() == day) {
+                    expectedScheduled.add(task.getId());
+                }
+                if (task.getStatus() == TaskItem.TaskStatus.COMPLETED && task.getCompletedEpochDay() == day) {
+                    expectedCompleted.add(task.getId());
+                }
+            }
+
+            List<Long> scheduled = new ArrayList<>();
+            archive.forEachScheduledOn(day, row -> scheduled.add(archive.getId(row)));
+            List<Long> completed = new ArrayList<>();
+            archive.forEachCompletedOn(day, row -> completed.add(archive.getId(row)));
+            assertEquals("day " + day, expectedScheduled, scheduled);
+            assertEquals("day " + day, expectedCompleted, completed);
+        }
+    }
+
+    @Test
+    public void dayLookupsVisitOnlyThatDaysRows() {
+        TaskArchive archive = new TaskArchive();
+        TaskItem.TaskType[] types = TaskItem.TaskType.values();
+        for (int i = 0; i < 200_000; i++) {
+            TaskItem task = new TaskItem(i, "Quest", types[i % types.length], new Date(START + (i / 100) * DAY_MS));
+            task.setStatus(TaskItem.TaskStatus.COMPLETED);
+            task.setCompletedDate(task.getCreatedDate());
+            archive.add(task);
+        }
+        assertEquals(123_456, archive.find(123_456));
+        assertEquals(-1, archive.find(200_000));
+
+        long firstDay = EpochDays.of(START);
+        int[] visited = new int[1];
+        long start = System.nanoTime();
+        for (int round = 0; round < 100; round++) {
+            for (long day = firstDay; day < firstDay + 2_000; day++) {
+                archive.forEachScheduledOn(day, row -> visited[0]++);
+                archive.forEachCompletedOn(day, row -> visited[0]++);
+            }
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(100 * 2 * 200_000, visited[0]);
+        assertTrue("200k day lookups took " + elapsedMs + " ms", elapsedMs < 2_000);
+    }
+}
@@ -0,0 +1,140 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.TaskItem;
+import com.todolist.app.utils.EpochDays;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class TaskHistoryTest {
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    private static final long HOUR_MS = 60L * 60 * 1000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static TaskItem finished(long id, String title, long created) {
+        TaskItem task = new TaskItem(id, title, TaskItem.TaskType.TODO, new Date(created));
+        task.setStatus(TaskItem.TaskStatus.COMPLETED);
+        task.setCompletedDate(new Date(created + HOUR_MS));
+        return task;
+    }
+
+    private static TaskHistory open(File dir) {
+        TaskHistory history = new TaskHistory(dir, TaskHistory.DEFAULT_HOT_WINDOW_DAYS, ColdHistory.DEFAULT_CACHE_BYTES);
+        history.load();
+        return history;
+    }
+
+    private static Set<Long> ids(List<TaskItem> tasks) {
+        Set<Long> ids = new HashSet<>();
+        for (TaskItem task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+
+    private static List<TaskItem> scheduledOn(TaskHistory history, long day) {
+        List<TaskItem> tasks = new ArrayList<>();
+        history.collectScheduledOn(day, tasks, id -> false);
+        return tasks;
+    }
+
+    @Test
+    public void agedTasksMoveToColdStorageAndSurviveARestart() throws Exception {
+        File dir = folder.newFolder("history");
+        long now = System.currentTimeMillis();
+        long oldStart = now - 200 * DAY_MS;
+
+        TaskHistory history = open(dir);
+        List<TaskItem> old = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            TaskItem task = finished(i, "Archived oldquest" + i, oldStart + i * (10 * DAY_MS / 300));
+            old.add(task);
+            history.add(task);
+        }
+        history.add(finished(1000, "Fresh newquest", now - DAY_MS));
+
+        long oldDay = old.get(150).getCreatedEpochDay();
+        Set<Long> before = ids(scheduledOn(history, oldDay));
+        DayStats statsBefore = history.get(oldDay);
+        DayStats rangeBefore = history.range(oldDay - 5, oldDay + 5);
+        assertFalse(before.isEmpty());
+
+        assertEquals(300, history.moveToColdStorage(now));
+        assertEquals(0, history.moveToColdStorage(now));
+        assertEquals(301, history.size());
+
+        TaskHistory reopened = open(dir);
+        assertEquals("startup reads the summary, not the segments", 0, reopened.getInflateCount());
+        for (TaskHistory current : new TaskHistory[] {history, reopened}) {
+            assertEquals(301, current.size());
+            assertEquals(statsBefore.getTotal(), current.get(oldDay).getTotal());
+            assertEquals(statsBefore.getCompleted(), current.get(oldDay).getCompleted());
+            assertEquals(rangeBefore.getTotal(), current.range(oldDay - 5, oldDay + 5).getTotal());
+
+            List<TaskItem> found = current.search("oldquest150", 5);
+            assertEquals(1, found.size());
+            assertEquals(150, found.get(0).getId());
+            assertEquals(Collections.singletonList(1000L), new ArrayList<>(ids(current.search("newquest", 5))));
+            assertEquals(before, ids(scheduledOn(current, oldDay)));
+        }
+    }
+
+    @Test
+    public void aSegmentTheSummaryMissesIsFoldedInOnce() throws Exception {
+        File dir = folder.newFolder("history");
+        long created = System.currentTimeMillis() - 200 * DAY_MS;
+        TaskItem moved = finished(7, "Interrupted move", created);
+
+        // A move cut short: the segment was written, but neither the summary
+        // nor the journal caught up, so the task is in both tiers
+        TaskHistory history = open(dir);
+        history.add(moved);
+        new ColdHistory(dir, ColdHistory.DEFAULT_CACHE_BYTES).write(Collections.singletonList(moved));
+
+        TaskHistory recovered = open(dir);
+        assertEquals(1, recovered.size());
+        assertEquals(1, recovered.get(moved.getCreatedEpochDay()).getTotal());
+        assertEquals(1, recovered.search("interrupted", 5).size());
+
+        // The fold was summarized, so the next start reads nothing
+        TaskHistory again = open(dir);
+        assertEquals(0, again.getInflateCount());
+        assertEquals(1, again.size());
+        assertEquals(1, again.get(moved.getCreatedEpochDay()).getTotal());
+    }
+
+    @Test
+    public void fewAgedTasksWaitForALargerBatch() throws Exception {
+        File dir = folder.newFolder("history");
+        long now = System.currentTimeMillis();
+        TaskHistory history = open(dir);
+        for (int i = 0; i < 10; i++) {
+            history.add(finished(i, "Quest " + i, now - 200 * DAY_MS));
+        }
+        assertEquals(0, history.moveToColdStorage(now));
+        assertEquals(10, open(dir).size());
+    }
+
+    @Test
+    public void withoutADirectoryEverythingStaysInMemory() {
+        TaskHistory history = new TaskHistory();
+        history.load();
+        long created = System.currentTimeMillis() - 400 * DAY_MS;
+        for (int i = 0; i < 300; i++) {
+            history.add(finished(i, "Quest " + i, created));
+        }
+        assertEquals(0, history.moveToColdStorage(System.currentTimeMillis()));
+        assertEquals(300, history.get(EpochDays.of(created)).getTotal());
+    }
+}
@@ -0,0 +1,223 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.TaskItem;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TaskSearchIndexTest {
+    private static final String[] WORDS = {
+        "read", "reading", "write", "report", "gym", "groceries", "call", "mom", "plan",
+        "planning", "trip", "budget", "clean", "kitchen", "code", "review", "walk", "dog"
+    };
+
+    private static TaskItem task(long id, String title, String description) {
+        TaskItem task = new TaskItem(id, title, TaskItem.TaskType.TODO, new Date());
+        task.setDescription(description);
+        return task;
+    }
+
+    private static List<Long> ids(List<TaskItem> tasks) {
+        List<Long> ids = new ArrayList<>();
+        for (TaskItem task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void tokenizesIntoLowerCaseWords() {
+        assertEquals(Arrays.asList("call", "mom", "at", "5pm", "café"),
+            TaskSearchIndex.tokenize("Call MOM at 5pm -- Café!"));
+        assertTrue(TaskSearchIndex.tokenize("  ... ").isEmpty());
+        assertTrue(TaskSearchIndex.tokenize(null).isEmpty());
+    }
+
+    @Test
+    public void everyWordMustMatchTheStartOfAWord() {
+        TaskSearchIndex index = new TaskSearchIndex();
+        index.put(task(1, "Read a book", "before bed"));
+        index.put(task(2, "Write report", "quarterly numbers"));
+        index.put(task(3, "Reading club", null));
+
+        assertEquals(new HashSet<>(Arrays.asList(1L, 3L)), new HashSet<>(ids(index.search("rea", 10))));
+        assertEquals(Arrays.asList(1L), ids(index.search("READ bed", 10)));
+        assertEquals(Arrays.asList(2L), ids(index.search("quart", 10)));
+        assertTrue(index.search("ook", 10).isEmpty());
+        assertTrue(index.search("read numbers", 10).isEmpty());
+        assertTrue(index.search("!!", 10).isEmpty());
+    }
+
+    @Test
+    public void ranksTitleOverDescriptionAndWholeWordsOverPrefixes() {
+        TaskSearchIndex index = new TaskSearchIndex();
+        index.put(task(3, "Errands", "buy milk"));
+        index.put(task(1, "Milk the cow", null));
+        index.put(task(2, "Milkshake recipe", null));
+
+        assertEquals(Arrays.asList(1L, 2L, 3L), ids(index.search("milk", 10)));
+        assertEquals(Arrays.asList(1L, 2L), ids(index.search("milk", 2)));
+    }
+
+    @Test
+    public void followsEditsAndRemovals() {
+        TaskSearchIndex index = new TaskSearchIndex();
+        TaskItem task = task(1, "Walk the dog", null);
+        index.put(task);
+        assertEquals(1, index.search("dog", 10).size());
+
+        task.setTitle("Walk the cat");
+        index.put(task);
+        assertTrue(index.search("dog", 10).isEmpty());
+        assertEquals(Arrays.asList(1L), ids(index.search("cat", 10)));
+
+        // Unchanged text is not re-indexed, and the task is still found once
+        task.setStatus(TaskItem.TaskStatus.COMPLETED);
+        index.put(task);
+        assertEquals(1, index.search("walk", 10).size());
+        assertEquals(1, index.size());
+
+        index.remove(1);
+        assertTrue(index.search("walk", 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void matchesAScanThroughChurnAndCompaction() {
+        Random random = new Random(11);
+        TaskSearchIndex index = new TaskSearchIndex();
+        List<TaskItem> live = new ArrayList<>();
+        for (int step = 0; step < 20_000; step++) {
+            int action = random.nextInt(4);
+            if (action < 2 || live.isEmpty()) {
+                TaskItem task = task(step, phrase(random), random.nextBoolean() ? phrase(random) : null);
+                live.add(task);
+                index.put(task);
+            } else if (action == 2) {
+                TaskItem task = live.get(random.nextInt(live.size()));
+                task.setTitle(phrase(random));
+                index.put(task);
+            } else {
+                index.remove(live.remove(random.nextInt(live.size())).getId());
+            }
+        }
+        assertEquals(live.size(), index.size());
+
+        for (String query : new String[] {"re", "read", "plan trip", "c", "walk dog", "gro cle"}) {
+            Set<Long> expected = new HashSet<>();
+            for (TaskItem task : live) {
+                if (matchesAll(query, task)) expected.add(task.getId());
+            }
+            assertEquals(query, expected, new HashSet<>(ids(index.search(query, Integer.MAX_VALUE))));
+        }
+    }
+
+    private static String phrase(Random random) {
+        StringBuilder phrase = new StringBuilder();
+        for (int i = 1 + random.nextInt(4); i > 0; i--) {
+            phrase.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return phrase.toString();
+    }
+
+    private static boolean matchesAll(String query, TaskItem task) {
+        List<String> words = new ArrayList<>(TaskSearchIndex.tokenize(task.getTitle()));
+        words.addAll(TaskSearchIndex.tokenize(task.getDescription()));
+        for (String queryWord : TaskSearchIndex.tokenize(query)) {
+            boolean found = false;
+            for (String word : words) {
+                found |= word.startsWith(queryWord);
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    @Test
+    public void queriesStayFastAcrossHundredThousandQuests() {
+        Random random = new Random(3);
+        TaskSearchIndex index = new TaskSearchIndex();
+        for (int i = 0; i < 100_000; i++) {
+            // A shared vocabulary plus a word unique to each quest
+            index.put(task(i, phrase(random) + " quest" + i, random.nextInt(3) == 0 ? phrase(random) : null));
+        }
+
+        String[] queries = {"quest4242", "plan tr", "read", "kitchen clean", "quest99"};
+        for (String query : queries) index.search(query, 50); // warm up
+        long start = System.nanoTime();
+        int rounds = 20;
+        for (int round = 0; round < rounds; round++) {
+            for (String query : queries) {
+                assertFalse(index.search(query, 50).isEmpty());
+            }
+        }
+        double perQueryMs = (System.nanoTime() - start) / 1e6 / (rounds * queries.length);
+        // The whole word ranks ahead of the longer words it is a prefix of
+        List<Long> hits = ids(index.search("quest4242", 50));
+        assertEquals(11, hits.size());
+        assertEquals(4242, (long) hits.get(0));
+        assertTrue("average query took " + perQueryMs + " ms", perQueryMs < 50);
+    }
+
+    @Test
+    public void coldDocumentsRoundTripWithoutTheirTasks() throws Exception {
+        TaskSearchIndex index = new TaskSearchIndex();
+        index.put(task(1, "Hot quest", null));
+        index.putCold(task(2, "Read report", "quarterly numbers"), 4);
+        index.putCold(task(3, "Write report", null), 7);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeCold(new DataOutputStream(bytes), segment -> segment != 7);
+
+        TaskSearchIndex read = new TaskSearchIndex();
+        read.readCold(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(1, read.size());
+        assertEquals(4, read.segmentOf(2));
+        assertEquals(-1, read.segmentOf(1));
+        assertEquals(-1, read.segmentOf(3));
+        assertTrue(read.search("quarterly", 10).isEmpty());
+
+        List<TaskSearchIndex.Hit> hits = read.hits("quarterly", 10, true);
+        assertEquals(1, hits.size());
+        assertEquals(2, hits.get(0).taskId);
+        assertNull(hits.get(0).task);
+
+        // The weights came along: a title word still outranks a description word
+        read.putCold(task(5, "Quarterly plan", null), 9);
+        hits = read.hits("quarterly", 10, true);
+        assertEquals(5, hits.get(0).taskId);
+        assertEquals(2, hits.get(1).taskId);
+        read.relocate(5, 10);
+        assertEquals(10, read.segmentOf(5));
+    }
+
+    @Test
+    public void settledQuestsAreSearchedThroughTheHistory() {
+        GameManager game = new GameManager();
+        TaskManager manager = new TaskManager(game);
+        TaskItem done = task(1, "File taxes", null);
+        TaskItem dropped = task(2, "File photos", null);
+        manager.addTask(done);
+        manager.addTask(dropped);
+        assertEquals(2, manager.searchPending("file", 10).size());
+
+        // Settled but still held: no longer among the pending matches
+        game.completeTask(done);
+        manager.updateTask(done);
+        assertEquals(Arrays.asList(2L), ids(manager.searchPending("file", 10)));
+        manager.removeTask(done);
+        manager.removeTask(dropped);
+        assertTrue(manager.searchPending("file", 10).isEmpty());
+        assertEquals(Arrays.asList(1L), ids(game.searchHistory("file", 10)));
+    }
+}
@@ -0,0 +1,251 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.TaskItem;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class TaskStoreTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static TaskItem task(long id, TaskItem.TaskType type) {
+        return new TaskItem(id, "Quest " + id, type, new Date());
+    }
+
+    private static List<Long> ids(Iterable<TaskItem> tasks) {
+        List<Long> ids = new ArrayList<>();
+        for (TaskItem task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void keepsInsertionOrderAcrossReplaceAndRemove() {
+        TaskStore store = new TaskStore();
+        store.put(task(1, TaskItem.TaskType.TODO));
+        store.put(task(2, TaskItem.TaskType.TODO));
+        store.put(task(3, TaskItem.TaskType.TODO));
+
+        TaskItem replacement = task(2, TaskItem.TaskType.TODO);
+        store.put(replacement);
+        assertSame(replacement, store.get(2));
+        assertEquals(Arrays.asList(1L, 2L, 3L), ids(store));
+
+        assertNotNull(store.remove(1));
+        assertNull(store.remove(1));
+        assertEquals(Arrays.asList(2L, 3L), ids(store.all()));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    public void movesTasksBetweenCategories() {
+        TaskStore store = new TaskStore();
+        TaskItem habit = task(1, TaskItem.TaskType.HABIT);
+        store.put(habit, TaskStore.Category.HABIT);
+        store.put(task(2, TaskItem.TaskType.PLANNING), TaskStore.Category.PLANNING);
+
+        store.put(habit, TaskStore.Category.PLANNING);
+        assertTrue(store.inCategory(TaskStore.Category.HABIT).isEmpty());
+        assertEquals(Arrays.asList(2L, 1L), ids(store.inCategory(TaskStore.Category.PLANNING)));
+
+        store.setCategory(habit, null);
+        assertNull(store.getCategory(1));
+        assertEquals(Arrays.asList(2L), ids(store.inCategory(TaskStore.Category.PLANNING)));
+
+        store.remove(2);
+        assertTrue(store.inCategory(TaskStore.Category.PLANNING).isEmpty());
+        assertTrue(store.contains(1));
+    }
+
+    @Test
+    public void managerRemovesAndUpdatesByIdInConstantTime() {
+        TaskManager manager = new TaskManager();
+        List<TaskItem> tasks = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            TaskItem task = task(i, i % 2 == 0 ? TaskItem.TaskType.HABIT : TaskItem.TaskType.PLANNING);
+            tasks.add(task);
+            manager.addTask(task);
+        }
+
+        // Bulk-completing tens of thousands of quests must not go quadratic
+        long start = System.nanoTime();
+        for (TaskItem task : tasks) {
+            task.setStatus(TaskItem.TaskStatus.COMPLETED);
+            manager.updateTask(task);
+        }
+        for (int i = 0; i < tasks.size(); i += 2) {
+            manager.removeTask(tasks.get(i));
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(25_000, manager.getTaskCount());
+        assertTrue(manager.getHabitTasks().isEmpty());
+        assertEquals(25_000, manager.getPlanningTasks().size());
+        assertTrue("bulk update/remove took " + elapsedMs + " ms", elapsedMs < 5_000);
+    }
+
+    @Test
+    public void managerListsRecurringOccurrencesWithoutStoringThem() {
+        TaskManager manager = new TaskManager();
+        long dayMs = 24L * 60 * 60 * 1000;
+        Date today = new Date();
+        TaskItem daily = task(1, TaskItem.TaskType.DAILY_ACTIVITY);
+        TaskItem weekly = task(2, TaskItem.TaskType.HABIT);
+        TaskItem sameHabit = task(3, TaskItem.TaskType.HABIT);
+        sameHabit.setTitle(weekly.getTitle());
+        manager.addTask(daily);
+        manager.addTask(weekly);
+        manager.addTask(sameHabit);
+        manager.addTask(task(4, TaskItem.TaskType.TODO));
+
+        // Today both series have instances created, so nothing stands in for them
+        assertTrue(manager.getOccurrencesOn(today).isEmpty());
+        assertEquals(Arrays.asList(1L), ids(manager.getOccurrencesOn(new Date(today.getTime() + dayMs))));
+        // One entry per habit series, however many pending instances it has
+        assertEquals(Arrays.asList(1L, 2L), ids(manager.getOccurrencesOn(new Date(today.getTime() + 7 * dayMs))));
+        assertTrue(manager.getOccurrencesOn(new Date(today.getTime() - 7 * dayMs)).isEmpty());
+
+        daily.setStatus(TaskItem.TaskStatus.COMPLETED);
+        manager.updateTask(daily);
+        manager.removeTask(weekly);
+        assertEquals(Arrays.asList(3L), ids(manager.getOccurrencesOn(new Date(today.getTime() + 7 * dayMs))));
+        assertEquals(3, manager.getTaskCount());
+    }
+
+    @Test
+    public void snapshotsStayFixedAcrossRemovalsAndCompaction() {
+        TaskStore store = new TaskStore();
+        for (int i = 0; i < 1000; i++) {
+            store.put(task(i, TaskItem.TaskType.TODO));
+        }
+        TaskSnapshot before = store.snapshot();
+
+        // Removing most tasks triggers compaction of the emptied slots
+        for (int i = 0; i < 900; i++) {
+            store.remove(i);
+        }
+        store.put(task(5000, TaskItem.TaskType.TODO));
+        TaskSnapshot after = store.snapshot();
+
+        assertEquals(1000, before.size());
+        assertEquals(1000, ids(before).size());
+        assertEquals(0, before.iterator().next().getId());
+        assertEquals(101, after.size());
+        assertEquals(900, after.iterator().next().getId());
+        assertEquals(5000, (long) ids(after).get(100));
+        assertTrue(after.getVersion() > before.getVersion());
+        assertNotNull(store.get(950));
+    }
+
+    @Test
+    public void readersIterateWhileWriterMutates() throws Exception {
+        TaskStore store = new TaskStore();
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread[] readers = new Thread[4];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                try {
+                    while (!done.get()) {
+                        TaskSnapshot snapshot = store.snapshot();
+                        int seen = 0;
+                        for (TaskItem task : snapshot) {
+                            assertNotNull(task);
+                            seen++;
+                        }
+                        assertEquals(snapshot.size(), seen);
+                    }
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            });
+            readers[r].start();
+        }
+
+        for (int i = 0; i < 50_000; i++) {
+            store.put(task(i, TaskItem.TaskType.TODO));
+            if (i % 3 == 0) {
+                store.remove(i / 2);
+            }
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(store.size(), ids(store.snapshot()).size());
+    }
+
+    @Test
+    public void dayLookupsRunWhileTheManagerWrites() throws Exception {
+        TaskManager manager = new TaskManager(new GameManager());
+        Date today = new Date();
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread[] readers = new Thread[4];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                try {
+                    while (!done.get()) {
+                        List<Long> listed = ids(manager.getTasksByDate(today));
+                        assertEquals("each task is listed once", listed.size(), new HashSet<>(listed).size());
+                        assertFalse(listed.contains(null));
+                    }
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            });
+            readers[r].start();
+        }
+
+        for (int i = 0; i < 20_000; i++) {
+            manager.addTask(task(i, TaskItem.TaskType.TODO));
+            if (i % 3 == 0) {
+                manager.removeTask(manager.getTask(i / 2));
+            }
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(manager.getTaskCount(), manager.getTasksByDate(today).size());
+    }
+
+    @Test
+    public void unreadableTasksAreNeverOverwritten() throws Exception {
+        File dataDir = folder.newFolder();
+        File snapshot = new File(dataDir, "tasks/tasks.snapshot");
+        snapshot.getParentFile().mkdirs();
+        byte[] garbage = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+        Files.write(snapshot.toPath(), garbage);
+
+        TaskManager manager = new TaskManager(new GameManager());
+        manager.initialize(dataDir);
+        // Well past the snapshot interval: a journaling manager would have snapshotted by now
+        for (int i = 0; i < 2 * 1024; i++) {
+            manager.addTask(task(1_000 + i, TaskItem.TaskType.TODO));
+        }
+
+        assertEquals(2 * 1024, manager.getAllTasks().size());
+        assertArrayEquals(garbage, Files.readAllBytes(snapshot.toPath()));
+        assertFalse(new File(dataDir, "tasks/tasks.journal").exists());
+    }
+}
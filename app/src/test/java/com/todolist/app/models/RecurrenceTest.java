@@ -0,0 +1,114 @@
+package com.todolist.app.models;
+
+import com.todolist.app.utils.EpochDays;
+import java.util.Date;
+import java.util.PrimitiveIterator;
+import java.util.TimeZone;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RecurrenceTest {
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    private final TimeZone originalZone = TimeZone.getDefault();
+
+    @After
+    public void restoreZone() {
+        TimeZone.setDefault(originalZone);
+        EpochDays.onTimeZoneChanged();
+    }
+
+    @Test
+    public void arithmeticMatchesWalkingTheSeries() {
+        for (int interval = 1; interval <= 9; interval++) {
+            Recurrence recurrence = Recurrence.of(TaskItem.TaskType.HABIT, interval, 20_000);
+
+            // The reference: step through the series one occurrence at a time
+            long expectedNext = 20_000;
+            for (long day = 19_990; day < 20_100; day++) {
+                while (expectedNext < day) expectedNext += interval;
+                assertEquals(expectedNext, recurrence.nextOnOrAfter(day));
+                assertEquals(day == expectedNext, recurrence.occursOn(day));
+            }
+        }
+    }
+
+    @Test
+    public void rangeIteratorYieldsOnlyOccurrencesInRange() {
+        Recurrence weekly = Recurrence.of(TaskItem.TaskType.HABIT, 7, 100);
+
+        PrimitiveIterator.OfLong days = weekly.days(90, 121);
+        assertEquals(100, days.nextLong());
+        assertEquals(107, days.nextLong());
+        assertEquals(114, days.nextLong());
+        assertEquals(121, days.nextLong());
+        assertFalse(days.hasNext());
+
+        assertFalse(weekly.days(101, 106).hasNext());
+
+        // A year-long range is never materialized; the iterator just counts forward
+        int count = 0;
+        for (PrimitiveIterator.OfLong it = Recurrence.of(TaskItem.TaskType.DAILY_ACTIVITY, 1, 0).days(0, 365_000);
+             it.hasNext(); it.nextLong()) {
+            count++;
+        }
+        assertEquals(365_001, count);
+    }
+
+    @Test
+    public void nextReminderWalksTheDaysTimesThenTheNextOccurrence() {
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Jakarta"));
+        EpochDays.onTimeZoneChanged();
+        long day = 20_000;
+        Recurrence habit = Recurrence.of(TaskItem.TaskType.HABIT, 2, day);
+
+        long tenAm = EpochDays.toMillis(day, 10 * 60);
+        assertEquals(day * DAY_MS + 3 * 3_600_000L, tenAm); // UTC+7
+        assertEquals(tenAm, habit.nextReminderAfter(tenAm - 1));
+        assertEquals(EpochDays.toMillis(day, 14 * 60), habit.nextReminderAfter(tenAm));
+        assertEquals(EpochDays.toMillis(day + 2, 10 * 60),
+            habit.nextReminderAfter(EpochDays.toMillis(day, 18 * 60)));
+        // Between occurrences the next reminder is on the following occurrence day
+        assertEquals(EpochDays.toMillis(day + 2, 10 * 60),
+            habit.nextReminderAfter(EpochDays.toMillis(day + 1, 12 * 60)));
+
+        Recurrence daily = Recurrence.of(TaskItem.TaskType.DAILY_ACTIVITY, 1, day);
+        assertEquals(EpochDays.toMillis(day + 1, 9 * 60),
+            daily.nextReminderAfter(EpochDays.toMillis(day, 9 * 60)));
+    }
+
+    @Test
+    public void wallClockTimesSurviveDstTransitions() {
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        EpochDays.onTimeZoneChanged();
+        // 2024-03-10 and 2024-11-03, the days New York changes offset
+        for (long day : new long[] {19_792, 20_030}) {
+            for (long d = day - 1; d <= day + 1; d++) {
+                long at = EpochDays.toMillis(d, 10 * 60);
+                assertEquals(d, EpochDays.of(at));
+                assertEquals(10 * 60, Math.floorMod(at + TimeZone.getDefault().getOffset(at), DAY_MS) / 60_000);
+            }
+        }
+    }
+
+    @Test
+    public void taskRecurrenceFollowsItsFields() {
+        Date due = new Date();
+        TaskItem habit = new TaskItem(1, "Stretch", TaskItem.TaskType.HABIT, new Date(due.getTime() - 3 * DAY_MS));
+        assertEquals(habit.getCreatedEpochDay(), habit.getRecurrence().getAnchorDay());
+        assertEquals(7, habit.getRecurrence().getIntervalDays());
+
+        habit.setDueDate(due);
+        assertEquals(habit.getDueEpochDay(), habit.getRecurrence().getAnchorDay());
+
+        habit.setRecurringDays(2);
+        assertEquals(2, habit.getRecurrence().getIntervalDays());
+
+        habit.setRecurring(false);
+        assertNull(habit.getRecurrence());
+
+        assertNull(new TaskItem("Write report", TaskItem.TaskType.TODO).getRecurrence());
+    }
+}
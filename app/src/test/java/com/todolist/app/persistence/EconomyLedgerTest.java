@@ -0,0 +1,96 @@
+package com.todolist.app.persistence;
+
+import com.todolist.app.models.EconomyEvent;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class EconomyLedgerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void projectionSurvivesReload() throws Exception {
+        File dir = folder.newFolder();
+        EconomyLedger ledger = new EconomyLedger(dir);
+        ledger.load();
+        ledger.record(EconomyEvent.Type.REWARD, 50, 0, null, "Starting coins");
+        ledger.record(EconomyEvent.Type.PURCHASE, -40, 0, "dragon", "Dragon");
+        ledger.record(EconomyEvent.Type.ACTIVATE, 0, 0, "dragon", "Dragon");
+        ledger.record(EconomyEvent.Type.XP, 0, 120, "dragon", "Slay bugs");
+        ledger.record(EconomyEvent.Type.KILL, 0, 0, "dragon", "Missed deadline");
+        ledger.record(EconomyEvent.Type.PENALTY, -15, 0, null, "Missed deadline");
+        ledger.close();
+
+        EconomyLedger restored = new EconomyLedger(dir);
+        restored.load();
+        assertEquals(-5, restored.getBalance());
+        assertEquals(6, restored.getLastSequence());
+        assertEquals("dragon", restored.getActiveCharacterId());
+
+        EconomyLedger.CharacterProgress dragon = restored.getCharacterProgress("dragon");
+        assertTrue(dragon.isOwned());
+        assertFalse(dragon.isAlive());
+        assertEquals(120, dragon.getExperience());
+        assertEquals(2, dragon.getLevel());
+
+        // Only coin-changing events appear in the history, newest first
+        List<EconomyEvent> history = restored.getCoinHistory(10);
+        assertEquals(3, history.size());
+        assertEquals(EconomyEvent.Type.PENALTY, history.get(0).getType());
+        assertEquals(-5, history.get(0).getBalanceAfter());
+        assertEquals(50, history.get(2).getBalanceAfter());
+    }
+
+    @Test
+    public void replayIsBoundedBySnapshotsAndHistoryIsCapped() throws Exception {
+        File dir = folder.newFolder();
+        EconomyLedger ledger = new EconomyLedger(dir, 100);
+        ledger.load();
+        for (int i = 0; i < 10_050; i++) {
+            ledger.record(EconomyEvent.Type.REWARD, 1, 0, null, "Quest " + i);
+        }
+        assertEquals(50, ledger.getJournalTailSize());
+        ledger.close();
+
+        EconomyLedger restored = new EconomyLedger(dir, 100);
+        restored.load();
+        assertEquals(10_050, restored.getBalance());
+        assertEquals(50, restored.getJournalTailSize());
+
+        List<EconomyEvent> history = restored.getCoinHistory(Integer.MAX_VALUE);
+        assertEquals(EconomyLedger.HISTORY_CAPACITY, history.size());
+        assertEquals("Quest 10049", history.get(0).getReference());
+        assertEquals(10_050 - EconomyLedger.HISTORY_CAPACITY + 1, history.get(history.size() - 1).getBalanceAfter());
+    }
+
+    @Test
+    public void staleJournalAfterSnapshotIsNotAppliedTwice() throws Exception {
+        File dir = folder.newFolder();
+        File journal = new File(dir, "economy.journal");
+        EconomyLedger ledger = new EconomyLedger(dir, 5);
+        ledger.load();
+        for (int i = 0; i < 4; i++) {
+            ledger.record(EconomyEvent.Type.REWARD, 10, 0, null, null);
+        }
+        ledger.close();
+        byte[] beforeSnapshot = Files.readAllBytes(journal.toPath());
+
+        // The fifth event triggers a snapshot and truncates the journal
+        ledger.record(EconomyEvent.Type.REWARD, 10, 0, null, null);
+        ledger.close();
+
+        // Simulate dying after the snapshot rename but before the truncate
+        Files.write(journal.toPath(), beforeSnapshot);
+
+        EconomyLedger restored = new EconomyLedger(dir, 5);
+        restored.load();
+        assertEquals(50, restored.getBalance());
+        assertEquals(5, restored.getLastSequence());
+    }
+}
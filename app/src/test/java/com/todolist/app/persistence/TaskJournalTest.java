@@ -0,0 +1,118 @@
+package com.todolist.app.persistence;
+
+import com.todolist.app.models.TaskItem;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class TaskJournalTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void replaysPutsUpdatesAndRemoves() throws Exception {
+        File dir = folder.newFolder();
+        TaskJournal journal = new TaskJournal(dir);
+
+        TaskItem first = new TaskItem("Write report", TaskItem.TaskType.TODO);
+        first.setDueDate(new Date(System.currentTimeMillis() + 3_600_000));
+        TaskItem second = new TaskItem("Drink water", TaskItem.TaskType.HABIT);
+        journal.recordPut(first);
+        journal.recordPut(second);
+
+        first.setStatus(TaskItem.TaskStatus.COMPLETED);
+        first.setCompletedDate(new Date());
+        journal.recordPut(first);
+        journal.recordRemove(second.getId());
+        journal.close();
+
+        Map<Long, TaskItem> restored = new TaskJournal(dir).load();
+        assertEquals(1, restored.size());
+        TaskItem task = restored.get(first.getId());
+        assertEquals("Write report", task.getTitle());
+        assertEquals(TaskItem.TaskStatus.COMPLETED, task.getStatus());
+        assertEquals(first.getDueDate(), task.getDueDate());
+        assertEquals(first.getCreatedDate(), task.getCreatedDate());
+        assertEquals(first.getCoinReward(), task.getCoinReward());
+    }
+
+    @Test
+    public void ignoresTornTailRecord() throws Exception {
+        File dir = folder.newFolder();
+        TaskJournal journal = new TaskJournal(dir);
+        journal.recordPut(new TaskItem("Kept", TaskItem.TaskType.TODO));
+        journal.recordPut(new TaskItem("Torn", TaskItem.TaskType.TODO));
+        journal.close();
+
+        File file = new File(dir, "tasks.journal");
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 3);
+        }
+
+        TaskJournal reopened = new TaskJournal(dir);
+        assertEquals(1, reopened.load().size());
+
+        // Appends after recovery must land on a clean record boundary
+        reopened.recordPut(new TaskItem("After", TaskItem.TaskType.TODO));
+        reopened.close();
+        assertEquals(2, new TaskJournal(dir).load().size());
+    }
+
+    @Test
+    public void corruptEnumOrdinalIsReportedAsAnIOException() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TaskItem task = new TaskItem(7, "A", TaskItem.TaskType.TODO, new Date());
+        TaskRecordCodec.write(new DataOutputStream(bytes), task);
+        byte[] record = bytes.toByteArray();
+        // id, then "A" with its length, then the description's length (null and "" store no bytes)
+        int typeOffset = 8 + 4 + 1 + 4 + (task.getDescription() != null ? task.getDescription().length() : 0);
+        assertEquals(TaskItem.TaskType.TODO.ordinal(), record[typeOffset]);
+        record[typeOffset] = 99;
+
+        try {
+            TaskRecordCodec.read(new DataInputStream(new ByteArrayInputStream(record)));
+            fail("Expected the corrupt type to be rejected");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("99"));
+        }
+    }
+
+    @Test
+    public void recoversRecordsFromSnapshotAndTail() throws Exception {
+        File dir = folder.newFolder();
+        TaskJournal journal = new TaskJournal(dir);
+        int recordCount = 3 * TaskJournal.DEFAULT_SNAPSHOT_INTERVAL + 100;
+
+        List<TaskItem> live = new ArrayList<>();
+        for (int i = 0; i < recordCount; i++) {
+            TaskItem task = new TaskItem(i, "Quest " + i, TaskItem.TaskType.values()[i % 4], new Date());
+            live.add(task);
+            journal.recordPut(task);
+            if (journal.shouldSnapshot()) {
+                journal.snapshot(live);
+            }
+        }
+        journal.close();
+
+        TaskJournal recovered = new TaskJournal(dir);
+        Map<Long, TaskItem> restored = recovered.load();
+
+        assertEquals(recordCount, restored.size());
+        assertTrue(recovered.getJournalTailSize() > 0);
+        assertTrue(recovered.getJournalTailSize() < TaskJournal.DEFAULT_SNAPSHOT_INTERVAL);
+        assertEquals("Quest " + (recordCount - 1), restored.get(recordCount - 1L).getTitle());
+    }
+}
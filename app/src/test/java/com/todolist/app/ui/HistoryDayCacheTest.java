@@ -0,0 +1,139 @@
+package com.todolist.app.ui;
+
+import com.todolist.app.models.TaskItem;
+import com.todolist.app.utils.EpochDays;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HistoryDayCacheTest {
+    // Tasks filed by their due day, standing in for TaskManager's lookups
+    private final Map<Long, List<TaskItem>> tasksByDay = new HashMap<>();
+    private final Map<Long, Integer> loadCounts = new HashMap<>();
+    // Background work and main-thread posts are queued and run by the test
+    private final Queue<Runnable> background = new ArrayDeque<>();
+    private final Queue<Runnable> main = new ArrayDeque<>();
+    private final List<Long> delivered = new ArrayList<>();
+
+    private HistoryDay load(long day) {
+        loadCounts.merge(day, 1, Integer::sum);
+        List<TaskItem> tasks = tasksByDay.getOrDefault(day, Collections.emptyList());
+        return HistoryDay.of(day, new ArrayList<>(tasks), Collections.emptyList());
+    }
+
+    private HistoryDayCache newCache(int radius) {
+        HistoryDayCache cache = new HistoryDayCache(this::load, background::add, main::add, radius);
+        cache.setListener(day -> delivered.add(day.getDay()));
+        return cache;
+    }
+
+    private void runAll() {
+        while (!background.isEmpty() || !main.isEmpty()) {
+            while (!background.isEmpty()) background.poll().run();
+            while (!main.isEmpty()) main.poll().run();
+        }
+    }
+
+    // Created today, which is years after the days the tests page through
+    private TaskItem addTask(long id, long day) {
+        TaskItem task = new TaskItem(id, "Quest " + id, TaskItem.TaskType.TODO, new Date());
+        task.setDueDate(new Date(EpochDays.toMillis(day, 12 * 60)));
+        tasksByDay.computeIfAbsent(day, d -> new ArrayList<>()).add(task);
+        return task;
+    }
+
+    private void moveTask(TaskItem task, long from, long to) {
+        tasksByDay.get(from).remove(task);
+        tasksByDay.computeIfAbsent(to, d -> new ArrayList<>()).add(task);
+        task.setDueDate(new Date(EpochDays.toMillis(to, 12 * 60)));
+    }
+
+    @Test
+    public void pagingToPrefetchedNeighboursNeedsNoLoad() {
+        HistoryDayCache cache = newCache(2);
+        long today = 20_000;
+        addTask(1, today + 1);
+
+        assertTrue(cache.show(today).getRows().isEmpty());
+        assertEquals(1, cache.getMissCount());
+        runAll();
+        for (long day = today - 2; day <= today + 2; day++) {
+            assertTrue("day " + day, cache.isCached(day));
+        }
+
+        // Paging forward hits the cache and prefetches the next day out
+        HistoryDay next = cache.show(today + 1);
+        assertEquals(1, next.getRows().size());
+        assertEquals(1, cache.getHitCount());
+        runAll();
+        assertTrue(cache.isCached(today + 3));
+        for (int count : loadCounts.values()) {
+            assertEquals(1, count);
+        }
+    }
+
+    @Test
+    public void sizeStaysBounded() {
+        HistoryDayCache cache = newCache(2);
+        for (long day = 20_000; day < 20_100; day++) {
+            cache.show(day);
+            runAll();
+        }
+        assertEquals(9, cache.size());
+        assertTrue(cache.isCached(20_099 - 2));
+        assertFalse(cache.isCached(20_050));
+    }
+
+    @Test
+    public void aChangeEvictsOnlyTheDaysItTouches() {
+        HistoryDayCache cache = newCache(2);
+        long today = 20_000;
+        TaskItem task = addTask(1, today - 1);
+        cache.show(today);
+        runAll();
+        delivered.clear();
+
+        // Moved from yesterday to tomorrow: both days reload, nothing else does
+        moveTask(task, today - 1, today + 1);
+        cache.onTaskChanged(task);
+        assertFalse(cache.isCached(today - 1));
+        assertFalse(cache.isCached(today + 1));
+        assertTrue(cache.isCached(today));
+        assertTrue(cache.isCached(today + 2));
+
+        runAll();
+        assertEquals(Arrays.asList(today + 1, today - 1), delivered);
+        assertEquals(2, (int) loadCounts.get(today - 1));
+        assertEquals(2, (int) loadCounts.get(today + 1));
+        assertEquals(1, (int) loadCounts.get(today + 2));
+        assertTrue(cache.show(today - 1).getRows().isEmpty());
+        assertEquals(1, cache.show(today + 1).getRows().size());
+    }
+
+    @Test
+    public void aLoadOverlappingAChangeIsRedone() {
+        HistoryDayCache cache = newCache(1);
+        long today = 20_000;
+        TaskItem task = addTask(1, today + 1);
+        cache.show(today);
+
+        // The prefetch for tomorrow has been queued but the task moves before it lands
+        while (!background.isEmpty()) background.poll().run();
+        moveTask(task, today + 1, today - 1);
+        cache.onTaskChanged(task);
+        runAll();
+
+        assertTrue(cache.show(today + 1).getRows().isEmpty());
+        assertEquals(1, cache.show(today - 1).getRows().size());
+        assertEquals(2, (int) loadCounts.get(today + 1));
+    }
+}
@@ -0,0 +1,56 @@
+package com.todolist.app.ui;
+
+import com.todolist.app.models.TaskItem;
+import java.util.Date;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TaskRowTest {
+    private static TaskItem task(long id) {
+        return new TaskItem(id, "Quest " + id, TaskItem.TaskType.TODO, new Date());
+    }
+
+    @Test
+    public void unchangedTaskGivesEqualRows() {
+        TaskItem task = task(1);
+        task.setDueDate(new Date(System.currentTimeMillis() + 3 * 24 * 60 * 60 * 1000L));
+
+        TaskRow first = TaskRow.of(task);
+        TaskRow second = TaskRow.of(task);
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertTrue(first.hasTimeInfo());
+    }
+
+    @Test
+    public void rowKeepsItsSnapshotAfterTheTaskChanges() {
+        TaskItem task = task(1);
+        TaskRow before = TaskRow.of(task);
+
+        task.setTitle("Renamed");
+        task.setPriority(TaskItem.Priority.URGENT);
+        TaskRow after = TaskRow.of(task);
+
+        assertEquals("Quest 1", before.getTitle());
+        assertNotEquals(before, after);
+        assertTrue(before.sameTask(after));
+        assertSame(task, before.getTask());
+    }
+
+    @Test
+    public void reminderChangesContentButNotIdentity() {
+        TaskItem task = task(1);
+        TaskRow plain = TaskRow.of(task);
+        assertFalse(plain.hasTimeInfo());
+
+        task.setHasReminder(true);
+        task.setReminderTime(new Date(System.currentTimeMillis() + 60_000));
+        TaskRow reminded = TaskRow.of(task);
+
+        assertTrue(reminded.hasTimeInfo());
+        assertNotEquals(plain, reminded);
+        assertTrue(plain.sameTask(reminded));
+        assertFalse(plain.sameTask(TaskRow.of(task(2))));
+    }
+}
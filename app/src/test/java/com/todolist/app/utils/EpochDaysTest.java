@@ -0,0 +1,110 @@
+package com.todolist.app.utils;
+
+import com.todolist.app.models.TaskItem;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EpochDaysTest {
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private final TimeZone originalZone = TimeZone.getDefault();
+
+    @After
+    public void restoreZone() {
+        TimeZone.setDefault(originalZone);
+        EpochDays.onTimeZoneChanged();
+    }
+
+    @Test
+    public void matchesCalendarSameDayAcrossZonesAndDst() {
+        String[] zones = {"UTC", "Asia/Jakarta", "America/New_York", "Australia/Lord_Howe", "Pacific/Kiritimati"};
+        Random random = new Random(42);
+
+        for (String zoneId : zones) {
+            useZone(zoneId);
+            for (int i = 0; i < 20_000; i++) {
+                long a = 1_500_000_000_000L + (long) (random.nextDouble() * 400 * DAY);
+                long b = a + (long) ((random.nextDouble() - 0.5) * 3 * DAY);
+                assertEquals(zoneId + " " + a + " vs " + b,
+                    calendarSameDay(new Date(a), new Date(b)), EpochDays.of(a) == EpochDays.of(b));
+            }
+        }
+    }
+
+    @Test
+    public void taskDaysFollowSettersAndZoneChanges() {
+        useZone("UTC");
+        TaskItem task = new TaskItem(1, "Quest", TaskItem.TaskType.TODO, new Date(10 * DAY + 23 * 60 * 60 * 1000));
+        assertEquals(10, task.getCreatedEpochDay());
+        assertEquals(EpochDays.NONE, task.getDueEpochDay());
+
+        task.setDueDate(new Date(12 * DAY));
+        assertEquals(12, task.getDueEpochDay());
+
+        // 23:00 UTC is already the next day two hours east
+        useZone("Europe/Helsinki");
+        assertEquals(11, task.getCreatedEpochDay());
+    }
+
+    @Test
+    public void aCopyComputedByAnotherThreadNeverHidesANewerDate() throws Exception {
+        useZone("UTC");
+        TaskItem task = new TaskItem(1, "Quest", TaskItem.TaskType.TODO, new Date(10 * DAY));
+        AtomicBoolean done = new AtomicBoolean();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                task.getDueEpochDay();
+            }
+        });
+        reader.start();
+        try {
+            for (int day = 0; day < 20_000; day++) {
+                task.setDueDate(new Date(day * DAY + DAY / 2));
+                assertEquals(day, task.getDueEpochDay());
+            }
+        } finally {
+            done.set(true);
+            reader.join();
+        }
+    }
+
+    // Per-comparison cost of the old Calendar-based isSameDay against comparing
+    // precomputed epoch days. Printed rather than asserted to keep CI stable.
+    @Test
+    public void precomputedEpochDayCountsTheSameTasksAsCalendar() {
+        Date today = new Date();
+        int calendarMatches = 0;
+        int epochMatches = 0;
+        long todayDay = EpochDays.of(today);
+        for (int i = 0; i < 300; i++) {
+            TaskItem task = new TaskItem(i, "Quest", TaskItem.TaskType.TODO,
+                new Date(today.getTime() - (i % 30) * DAY));
+            if (calendarSameDay(task.getCreatedDate(), today)) calendarMatches++;
+            if (task.getCreatedEpochDay() == todayDay) epochMatches++;
+        }
+
+        assertEquals(10, epochMatches);
+        assertEquals(calendarMatches, epochMatches);
+    }
+
+    private static void useZone(String zoneId) {
+        TimeZone.setDefault(TimeZone.getTimeZone(zoneId));
+        EpochDays.onTimeZoneChanged();
+    }
+
+    private static boolean calendarSameDay(Date date1, Date date2) {
+        Calendar cal1 = Calendar.getInstance();
+        Calendar cal2 = Calendar.getInstance();
+        cal1.setTime(date1);
+        cal2.setTime(date2);
+        return cal1.get(Calendar.YEAR) == cal2.get(Calendar.YEAR) &&
+               cal1.get(Calendar.DAY_OF_YEAR) == cal2.get(Calendar.DAY_OF_YEAR);
+    }
+}
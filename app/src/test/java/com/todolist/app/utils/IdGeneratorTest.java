@@ -0,0 +1,47 @@
+package com.todolist.app.utils;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class IdGeneratorTest {
+    @Test
+    public void burstsInOneMillisecondStayUniqueAndIncreasing() {
+        long before = System.currentTimeMillis();
+        long previous = IdGenerator.next();
+        for (int i = 0; i < 100_000; i++) {
+            long id = IdGenerator.next();
+            assertTrue(id > previous);
+            previous = id;
+        }
+        assertTrue(IdGenerator.timeOf(previous) >= before);
+    }
+
+    @Test
+    public void threadsNeverShareAnId() throws Exception {
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    ids.add(IdGenerator.next());
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(200_000, ids.size());
+    }
+
+    @Test
+    public void observedIdsAreNeverReissued() {
+        // As if the clock had been set back an hour since this id was stored
+        long stored = (System.currentTimeMillis() + 3_600_000 - IdGenerator.EPOCH_MILLIS) << IdGenerator.SEQUENCE_BITS;
+        IdGenerator.observe(stored);
+        assertTrue(IdGenerator.next() > stored);
+    }
+}
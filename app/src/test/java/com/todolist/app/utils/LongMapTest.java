@@ -0,0 +1,59 @@
+package com.todolist.app.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LongMapTest {
+    // Clustered keys like generated ids, plus 0 and negatives
+    private static long randomKey(Random random) {
+        switch (random.nextInt(4)) {
+            case 0: return random.nextInt(8) - 4;
+            case 1: return -random.nextInt(200);
+            default: return (1L << 40) + random.nextInt(2_000);
+        }
+    }
+
+    @Test
+    public void matchesAHashMapThroughRandomEdits() {
+        Random random = new Random(3);
+        LongMap<String> map = new LongMap<>();
+        LongIntMap ints = new LongIntMap();
+        Map<Long, String> expected = new HashMap<>();
+
+        for (int step = 0; step < 200_000; step++) {
+            long key = randomKey(random);
+            int action = random.nextInt(3);
+            if (action == 0) {
+                assertEquals(expected.put(key, "v" + step), map.put(key, "v" + step));
+                ints.put(key, step);
+            } else if (action == 1) {
+                String removed = expected.remove(key);
+                assertEquals(removed, map.remove(key));
+                int removedInt = ints.removeOrDefault(key, -1);
+                assertEquals(removed, removedInt == -1 ? null : "v" + removedInt);
+            } else {
+                assertEquals(expected.get(key), map.get(key));
+                assertEquals(expected.containsKey(key), ints.containsKey(key));
+                if (ints.containsKey(key)) {
+                    assertEquals("v" + ints.getOrDefault(key, -1), map.get(key));
+                }
+            }
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected.size(), ints.size());
+        }
+
+        Map<Long, String> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertEquals(expected, visited);
+
+        map.clear();
+        ints.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(0));
+        assertEquals(-1, ints.getOrDefault(1L << 40, -1));
+    }
+}
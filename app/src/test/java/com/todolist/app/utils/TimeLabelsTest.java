@@ -0,0 +1,72 @@
+package com.todolist.app.utils;
+
+import com.todolist.app.models.TaskItem;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TimeLabelsTest {
+    private static final long MINUTE = 60 * 1000;
+    private static final long BASE = 1_700_000_000_000L;
+
+    @Test
+    public void matchesUncachedFormattingAcrossMinuteBoundaries() {
+        TimeLabels.clear();
+        long due = BASE + 3 * 60 * MINUTE + 30_000;
+
+        // Step through several hours (and past the due time) in uneven increments
+        for (long now = BASE; now < due + 5 * MINUTE; now += 7_919) {
+            assertEquals("at " + (now - BASE), TaskItem.formatTimeUntilDue(due, now),
+                TimeLabels.untilDue(1L, due, now));
+        }
+    }
+
+    @Test
+    public void reusesLabelWithinTheSameMinute() {
+        TimeLabels.clear();
+        long due = BASE + 90 * MINUTE;
+
+        String first = TimeLabels.untilDue(1L, due, BASE + 1);
+        assertEquals("1h 29m", first);
+        assertSame(first, TimeLabels.untilDue(1L, due, BASE + MINUTE));
+
+        String next = TimeLabels.untilDue(1L, due, BASE + MINUTE + 1);
+        assertEquals("1h 28m", next);
+        // A clock that moves backwards gets a fresh label too
+        assertEquals("1h 30m", TimeLabels.untilDue(1L, due, BASE));
+    }
+
+    @Test
+    public void changedDueTimeOrForgottenTaskIsRelabelled() {
+        TimeLabels.clear();
+        String early = TimeLabels.untilDue(1L, BASE + 10 * MINUTE, BASE);
+        assertEquals("10 minutes", early);
+        assertEquals("2h 0m", TimeLabels.untilDue(1L, BASE + 120 * MINUTE, BASE));
+
+        assertEquals("Overdue", TimeLabels.untilDue(1L, BASE - MINUTE, BASE));
+        assertEquals("Overdue", TimeLabels.untilDue(1L, BASE - MINUTE, BASE + 365 * 24 * 60 * MINUTE));
+
+        String label = TimeLabels.untilDue(2L, BASE + 5 * MINUTE, BASE);
+        assertSame(label, TimeLabels.untilDue(2L, BASE + 5 * MINUTE, BASE));
+        TimeLabels.forget(2L);
+        String relabelled = TimeLabels.untilDue(2L, BASE + 5 * MINUTE, BASE);
+        assertEquals(label, relabelled);
+        assertNotSame(label, relabelled);
+    }
+
+    @Test
+    public void reminderLabelsAreCachedPerTaskAndTime() {
+        TimeLabels.clear();
+        String label = TimeLabels.reminder(1L, BASE);
+        assertEquals(TimeLabels.dateTime(BASE), label);
+        assertSame(label, TimeLabels.reminder(1L, BASE));
+        assertNotEquals(label, TimeLabels.reminder(1L, BASE + 24 * 60 * MINUTE));
+    }
+
+    @Test
+    public void nextMinuteDelayLandsOnTheBoundary() {
+        assertEquals(MINUTE, TimeLabels.millisUntilNextMinute(5 * MINUTE));
+        assertEquals(1, TimeLabels.millisUntilNextMinute(6 * MINUTE - 1));
+        assertEquals(40_000, TimeLabels.millisUntilNextMinute(5 * MINUTE + 20_000));
+    }
+}
@@ -0,0 +1,54 @@
+// JMH benchmarks for the pure-Java core of :app (models, persistence, task and game managers).
+// Run with: ./gradlew :benchmark:jmh   (add -Pjmh.includes=TaskManagerBenchmark to narrow)
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// Compile the app sources directly; everything that touches the Android SDK is left out
+sourceSets {
+    main {
+        java {
+            setSrcDirs(listOf("../app/src/main/java"))
+            include(
+                "com/todolist/app/models/**",
+                "com/todolist/app/persistence/**",
+                "com/todolist/app/utils/**",
+                "com/todolist/app/managers/**"
+            )
+            exclude(
+                "com/todolist/app/managers/ReminderManager.java",
+                "com/todolist/app/managers/ReminderAlarmReceiver.java"
+            )
+        }
+    }
+}
+
+dependencies {
+    // Object graph sizes for TaskArchiveFootprint
+    jmh(libs.jol.core)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    // The 1M-task parameter needs headroom for the index structures
+    jvmArgs.add("-Xmx4g")
+    (project.findProperty("jmh.includes") as String?)?.let { includes.add(it) }
+}
+
+// Heap footprint of archived history, as TaskItems and as a TaskArchive (args: task count)
+tasks.register<JavaExec>("archiveFootprint") {
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("com.todolist.app.managers.TaskArchiveFootprint")
+    jvmArgs("-Xmx2g", "-Djdk.attach.allowAttachSelf=true")
+}
@@ -0,0 +1,96 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.Character;
+import com.todolist.app.models.TaskItem;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+// Multi-threaded stress of the GameManager economy. "economy" runs earners and
+// shoppers against one shared instance; "contendedCompletion" has every thread
+// hammer the balance. After each iteration the balance is reconciled against what
+// the threads observed being paid out and spent, and a mismatch fails the run.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Group)
+public class GameManagerBenchmark {
+    private static final int STARTING_COINS = 50;
+    private static final int PRICE = 5;
+
+    private GameManager game;
+    private final AtomicLong taskIds = new AtomicLong();
+    private final AtomicLong earned = new AtomicLong();
+    private final AtomicLong spent = new AtomicLong();
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        // A fresh instance per iteration keeps the settled-task set from growing unbounded
+        game = new GameManager();
+        earned.set(0);
+        spent.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void verifyBalance() {
+        long expected = STARTING_COINS + earned.get() - spent.get();
+        if (game.getCoins() != expected || game.getCoins() < 0) {
+            throw new IllegalStateException("Balance " + game.getCoins() + " != expected " + expected);
+        }
+        if (game.getOwnedCharacters().size() != spent.get() / PRICE + 1) {
+            throw new IllegalStateException("Owned characters do not match purchases");
+        }
+    }
+
+    private TaskItem newTask() {
+        return new TaskItem(taskIds.incrementAndGet(), "Quest", TaskItem.TaskType.TODO, new Date());
+    }
+
+    @Benchmark
+    @Group("economy")
+    @GroupThreads(4)
+    public boolean earn() {
+        TaskItem task = newTask();
+        boolean completed = game.completeTask(task);
+        if (completed) earned.addAndGet(task.getCoinReward());
+        return completed;
+    }
+
+    @Benchmark
+    @Group("economy")
+    @GroupThreads(4)
+    public boolean spend() {
+        Character character = new Character("Pet", "pet", PRICE, false);
+        boolean bought = game.buyCharacter(character);
+        if (bought) spent.addAndGet(PRICE);
+        return bought;
+    }
+
+    @Benchmark
+    @Group("contendedCompletion")
+    @GroupThreads(8)
+    public boolean completeOnly() {
+        TaskItem task = newTask();
+        boolean completed = game.completeTask(task);
+        if (completed) earned.addAndGet(task.getCoinReward());
+        return completed;
+    }
+
+    // Single-threaded baseline for the same operation
+    @Benchmark
+    @Threads(1)
+    public boolean uncontendedCompletion() {
+        return earn();
+    }
+}
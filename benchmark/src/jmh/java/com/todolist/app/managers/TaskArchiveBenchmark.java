@@ -0,0 +1,139 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.TaskItem;
+import com.todolist.app.utils.EpochDays;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Scans over finished-task history in both representations: the list of
+// TaskItems GameManager used to keep, and the columnar TaskArchive. Heap
+// footprint is measured separately by TaskArchiveFootprint.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class TaskArchiveBenchmark {
+    static final long DAY_MS = 24L * 60 * 60 * 1000;
+    private static final int PROBES = 1024;
+
+    @Param({"10000", "100000"})
+    int taskCount;
+
+    private List<TaskItem> tasks;
+    private TaskArchive archive;
+    private long[] probeDays;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long now = System.currentTimeMillis();
+        tasks = history(taskCount, now);
+        archive = new TaskArchive();
+        for (TaskItem task : tasks) {
+            archive.add(task);
+        }
+
+        SplittableRandom random = new SplittableRandom(7);
+        probeDays = new long[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probeDays[i] = EpochDays.of(now - random.nextLong(3 * 365) * DAY_MS);
+        }
+    }
+
+    // Three years of settled quests; habits and dailies repeat a small set of titles
+    static List<TaskItem> history(int count, long now) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<TaskItem> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TaskItem.TaskType type;
+            String title;
+            int roll = random.nextInt(10);
+            if (roll < 3) {
+                type = TaskItem.TaskType.TODO;
+                title = "Task " + i;
+            } else if (roll < 6) {
+                type = TaskItem.TaskType.DAILY_ACTIVITY;
+                title = "Daily " + random.nextInt(20);
+            } else if (roll < 9) {
+                type = TaskItem.TaskType.HABIT;
+                title = "Habit " + random.nextInt(30);
+            } else {
+                type = TaskItem.TaskType.PLANNING;
+                title = "Plan " + i;
+            }
+
+            Date created = new Date(now - random.nextLong(3 * 365 * DAY_MS));
+            TaskItem task = new TaskItem(i, title, type, created);
+            if (random.nextBoolean()) {
+                task.setDueDate(new Date(created.getTime() + random.nextLong(2 * DAY_MS)));
+            }
+            if (random.nextInt(10) < 8) {
+                task.setStatus(TaskItem.TaskStatus.COMPLETED);
+                task.setCompletedDate(new Date(created.getTime() + random.nextLong(DAY_MS)));
+            } else {
+                task.setStatus(TaskItem.TaskStatus.FAILED);
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private long nextDay() {
+        cursor = (cursor + 1) & (PROBES - 1);
+        return probeDays[cursor];
+    }
+
+    @Benchmark
+    public void completedOnDayFromList(Blackhole blackhole) {
+        long day = nextDay();
+        for (TaskItem task : tasks) {
+            if (task.getStatus() == TaskItem.TaskStatus.COMPLETED && task.getCompletedEpochDay() == day) {
+                blackhole.consume(task);
+            }
+        }
+    }
+
+    @Benchmark
+    public void completedOnDayFromArchive(Blackhole blackhole) {
+        archive.forEachCompletedOn(nextDay(), blackhole::consume);
+    }
+
+    // A month of counters, summed straight off the tasks
+    @Benchmark
+    public long coinsEarnedInMonthFromList() {
+        long to = nextDay();
+        long from = to - 30;
+        long coins = 0;
+        for (TaskItem task : tasks) {
+            long day = task.getCompletedEpochDay();
+            if (task.getStatus() == TaskItem.TaskStatus.COMPLETED && day >= from && day <= to) {
+                coins += task.getCoinReward();
+            }
+        }
+        return coins;
+    }
+
+    // The same month through the archive's per-day rows
+    @Benchmark
+    public long coinsEarnedInMonthFromArchive() {
+        long to = nextDay();
+        long[] coins = new long[1];
+        for (long day = to - 30; day <= to; day++) {
+            archive.forEachCompletedOn(day,
+                row -> coins[0] += TaskItem.getCoinRewardByType(archive.getType(row)));
+        }
+        return coins[0];
+    }
+}
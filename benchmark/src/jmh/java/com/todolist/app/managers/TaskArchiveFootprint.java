@@ -0,0 +1,31 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.TaskItem;
+import java.util.List;
+import org.openjdk.jol.info.GraphLayout;
+
+// Retained heap of the same finished-task history held as a list of TaskItems
+// and as a TaskArchive, walked with JOL. Run with: ./gradlew :benchmark:archiveFootprint
+public final class TaskArchiveFootprint {
+    private TaskArchiveFootprint() {}
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        List<TaskItem> tasks = TaskArchiveBenchmark.history(count, System.currentTimeMillis());
+        for (TaskItem task : tasks) {
+            // Fill the cached days, as calendar lookups would have
+            task.getCreatedEpochDay();
+        }
+        TaskArchive archive = new TaskArchive();
+        for (TaskItem task : tasks) {
+            archive.add(task);
+        }
+
+        long listBytes = GraphLayout.parseInstance(tasks).totalSize();
+        long archiveBytes = GraphLayout.parseInstance(archive).totalSize();
+        System.out.printf("%d finished tasks%n", count);
+        System.out.printf("  List<TaskItem>: %,d bytes (%d per task)%n", listBytes, listBytes / count);
+        System.out.printf("  TaskArchive:    %,d bytes (%d per task)%n", archiveBytes, archiveBytes / count);
+        System.out.printf("  ratio:          %.2fx%n", (double) listBytes / archiveBytes);
+    }
+}
@@ -0,0 +1,89 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.utils.IdGenerator;
+import com.todolist.app.utils.LongIntMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Minting ids and looking tasks up by id, with the "<millis>_<random>" string ids
+// tasks used to have in a HashMap and with generated long ids in a LongIntMap,
+// as TaskStore and TaskSearchIndex keep them.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class TaskIdBenchmark {
+    private static final int PROBES = 1024;
+
+    @Param({"1000", "100000"})
+    int taskCount;
+
+    private Map<String, Integer> slotByStringId;
+    private LongIntMap slotByLongId;
+    private String[] stringProbes;
+    private long[] longProbes;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] stringIds = new String[taskCount];
+        long[] longIds = new long[taskCount];
+        slotByStringId = new HashMap<>();
+        slotByLongId = new LongIntMap();
+        for (int i = 0; i < taskCount; i++) {
+            stringIds[i] = legacyId();
+            longIds[i] = IdGenerator.next();
+            slotByStringId.put(stringIds[i], i);
+            slotByLongId.put(longIds[i], i);
+        }
+
+        // Fresh copies, so string lookups pay for hashing as they would on ids read back from storage
+        SplittableRandom random = new SplittableRandom(11);
+        stringProbes = new String[PROBES];
+        longProbes = new long[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            int task = random.nextInt(taskCount);
+            stringProbes[i] = new String(stringIds[task]);
+            longProbes[i] = longIds[task];
+        }
+    }
+
+    private static String legacyId() {
+        return System.currentTimeMillis() + "_" + Math.random();
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (PROBES - 1);
+        return cursor;
+    }
+
+    @Benchmark
+    public String mintStringId() {
+        return legacyId();
+    }
+
+    @Benchmark
+    public long mintLongId() {
+        return IdGenerator.next();
+    }
+
+    @Benchmark
+    public Integer lookUpStringId() {
+        return slotByStringId.get(stringProbes[next()]);
+    }
+
+    @Benchmark
+    public int lookUpLongId() {
+        return slotByLongId.getOrDefault(longProbes[next()], -1);
+    }
+}
@@ -0,0 +1,174 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.TaskItem;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Throughput of the TaskManager operations the UI and reminder system hit most,
+// against synthetic histories of 1k to 1M tasks. Run with the gc profiler (the
+// default in build.gradle.kts) to see the allocation rate per operation.
+// getTasksDueWithin / getOverdueTasks are what ReminderManager.getUpcomingTasks
+// and getOverdueTasks delegate to; ReminderManager itself needs the Android SDK.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class TaskManagerBenchmark {
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    private static final int HABIT_TITLES = 50;
+    private static final int PROBES = 1024;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    int taskCount;
+
+    private TaskManager taskManager;
+    private List<TaskItem> tasks;
+    private long now;
+
+    // Pre-drawn arguments so the measured loop does no random number generation
+    private Date[] probeDays;
+    private String[] probeHabits;
+    private int[] probeTasks;
+    private int cursor;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        now = System.currentTimeMillis();
+        SplittableRandom random = new SplittableRandom(42);
+
+        taskManager = new TaskManager();
+        tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            TaskItem task = syntheticTask(i, random);
+            tasks.add(task);
+            taskManager.addTask(task);
+        }
+        nextId = taskCount;
+
+        Set<String> seenHabits = new LinkedHashSet<>();
+        for (TaskItem task : tasks) {
+            if (task.getHabitId() != null) {
+                seenHabits.add(task.getHabitId());
+            }
+        }
+        List<String> habitIds = new ArrayList<>(seenHabits);
+
+        probeDays = new Date[PROBES];
+        probeHabits = new String[PROBES];
+        probeTasks = new int[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probeDays[i] = new Date(now - random.nextLong(365) * DAY_MS);
+            probeHabits[i] = habitIds.get(random.nextInt(habitIds.size()));
+            probeTasks[i] = random.nextInt(taskCount);
+        }
+    }
+
+    // A year of history: about half completed, a tenth failed, the rest pending
+    // with due dates spread a month either side of now
+    private TaskItem syntheticTask(int i, SplittableRandom random) {
+        TaskItem.TaskType type;
+        String title;
+        int roll = random.nextInt(10);
+        if (roll < 4) {
+            type = TaskItem.TaskType.TODO;
+            title = "Task " + i;
+        } else if (roll < 6) {
+            type = TaskItem.TaskType.DAILY_ACTIVITY;
+            title = "Daily " + (i % 200);
+        } else if (roll < 8) {
+            type = TaskItem.TaskType.HABIT;
+            title = "Habit " + random.nextInt(HABIT_TITLES);
+        } else {
+            type = TaskItem.TaskType.PLANNING;
+            title = "Plan " + i;
+        }
+
+        Date created = new Date(now - random.nextLong(365 * DAY_MS));
+        TaskItem task = new TaskItem(i, title, type, created);
+        if (random.nextInt(10) < 7) {
+            task.setDueDate(new Date(now + random.nextLong(-30 * DAY_MS, 30 * DAY_MS)));
+        }
+
+        int status = random.nextInt(10);
+        if (status < 5) {
+            task.setStatus(TaskItem.TaskStatus.COMPLETED);
+            task.setCompletedDate(new Date(created.getTime() + random.nextLong(DAY_MS)));
+        } else if (status < 6) {
+            task.setStatus(TaskItem.TaskStatus.FAILED);
+        } else if (task.getDueDate() != null && task.getDueDate().getTime() < now) {
+            task.setOverdue(true);
+        }
+        return task;
+    }
+
+    private int nextProbe() {
+        cursor = (cursor + 1) & (PROBES - 1);
+        return cursor;
+    }
+
+    @Benchmark
+    public TaskItem addThenRemove() {
+        TaskItem task = new TaskItem(nextId++, "New task", TaskItem.TaskType.TODO, new Date(now));
+        task.setDueDate(probeDays[nextProbe()]);
+        taskManager.addTask(task);
+        taskManager.removeTask(task);
+        return task;
+    }
+
+    // Removes an existing task from the middle of the lists and puts it back
+    @Benchmark
+    public TaskItem removeThenReAdd() {
+        TaskItem task = tasks.get(probeTasks[nextProbe()]);
+        taskManager.removeTask(task);
+        taskManager.addTask(task);
+        return task;
+    }
+
+    @Benchmark
+    public TaskItem updateTask() {
+        int probe = nextProbe();
+        TaskItem task = tasks.get(probeTasks[probe]);
+        task.setDueDate(probeDays[probe]);
+        taskManager.updateTask(task);
+        return task;
+    }
+
+    @Benchmark
+    public List<TaskItem> getTasksByDate() {
+        return taskManager.getTasksByDate(probeDays[nextProbe()]);
+    }
+
+    @Benchmark
+    public List<TaskItem> getCompletedTasksByDate() {
+        return taskManager.getCompletedTasksByDate(probeDays[nextProbe()]);
+    }
+
+    @Benchmark
+    public HabitStreaks.Streak getHabitStreak() {
+        return taskManager.getHabitStreak(probeHabits[nextProbe()]);
+    }
+
+    @Benchmark
+    public List<TaskItem> getUpcomingTasks() {
+        return taskManager.getTasksDueWithin(now, 24 * 60 * 60 * 1000L);
+    }
+
+    @Benchmark
+    public List<TaskItem> getOverdueTasks() {
+        return taskManager.getOverdueTasks();
+    }
+}
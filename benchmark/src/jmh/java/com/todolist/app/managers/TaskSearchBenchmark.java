@@ -0,0 +1,118 @@
+package com.todolist.app.managers;
+
+import com.todolist.app.models.TaskItem;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Cost of building TaskSearchIndex over a whole history and of the queries the
+// search box issues while the user types, against 1k to 100k quests. Query
+// latency is in microseconds; the target is a few milliseconds at 100k.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class TaskSearchBenchmark {
+    private static final String[] VOCABULARY = {
+        "read", "reading", "write", "report", "gym", "groceries", "call", "mom", "plan",
+        "planning", "trip", "budget", "clean", "kitchen", "code", "review", "walk", "dog",
+        "meditate", "journal", "laundry", "email", "invoice", "dentist", "stretch", "water"
+    };
+    private static final int LIMIT = 50;
+    private static final int PROBES = 1024;
+
+    @Param({"1000", "10000", "100000"})
+    int taskCount;
+
+    private List<TaskItem> tasks;
+    private TaskSearchIndex index;
+
+    // Pre-drawn queries: single prefixes as typed, whole words, and two-word queries
+    private String[] probeQueries;
+    private int[] probeTasks;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        Date created = new Date();
+        tasks = new ArrayList<>(taskCount);
+        index = new TaskSearchIndex();
+        for (int i = 0; i < taskCount; i++) {
+            TaskItem task = new TaskItem(i, phrase(random, 3) + " " + i, TaskItem.TaskType.TODO, created);
+            if (random.nextInt(3) == 0) {
+                task.setDescription(phrase(random, 8));
+            }
+            tasks.add(task);
+            index.put(task);
+        }
+
+        probeQueries = new String[PROBES];
+        probeTasks = new int[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            String word = VOCABULARY[random.nextInt(VOCABULARY.length)];
+            switch (i % 3) {
+                case 0:
+                    probeQueries[i] = word.substring(0, 1 + random.nextInt(word.length()));
+                    break;
+                case 1:
+                    probeQueries[i] = word;
+                    break;
+                default:
+                    probeQueries[i] = word + " " + VOCABULARY[random.nextInt(VOCABULARY.length)].substring(0, 2);
+                    break;
+            }
+            probeTasks[i] = random.nextInt(taskCount);
+        }
+    }
+
+    private static String phrase(SplittableRandom random, int maxWords) {
+        StringBuilder phrase = new StringBuilder();
+        for (int i = 1 + random.nextInt(maxWords); i > 0; i--) {
+            if (phrase.length() > 0) phrase.append(' ');
+            phrase.append(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+        }
+        return phrase.toString();
+    }
+
+    private int nextProbe() {
+        cursor = (cursor + 1) & (PROBES - 1);
+        return cursor;
+    }
+
+    // Reported per whole build, so divide by taskCount for the cost per quest
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public TaskSearchIndex build() {
+        TaskSearchIndex built = new TaskSearchIndex();
+        for (TaskItem task : tasks) {
+            built.put(task);
+        }
+        return built;
+    }
+
+    @Benchmark
+    public List<TaskItem> query() {
+        return index.search(probeQueries[nextProbe()], LIMIT);
+    }
+
+    // A title edit: the old document dies and the task is indexed again
+    @Benchmark
+    public TaskSearchIndex reindexEditedTask() {
+        TaskItem task = tasks.get(probeTasks[nextProbe()]);
+        task.setTitle(task.getTitle().endsWith("!") ? task.getTitle().substring(0, task.getTitle().length() - 1)
+            : task.getTitle() + "!");
+        index.put(task);
+        return index;
+    }
+}
@@ -0,0 +1,70 @@
+package com.todolist.app.persistence;
+
+import com.todolist.app.models.TaskItem;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+// Recovering the task store at launch: the latest snapshot plus the journal tail
+// recorded after it, as written by the app's own put/snapshot cadence.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class TaskJournalBenchmark {
+    @Param({"10000", "100000"})
+    int taskCount;
+
+    private File directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-bench").toFile();
+        TaskJournal journal = new TaskJournal(directory);
+        List<TaskItem> live = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            TaskItem task = new TaskItem(i, "Quest " + i, TaskItem.TaskType.values()[i % 4], new Date());
+            live.add(task);
+            journal.recordPut(task);
+            if (journal.shouldSnapshot()) {
+                journal.snapshot(live);
+            }
+        }
+        journal.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Benchmark
+    public Map<Long, TaskItem> recover() throws IOException {
+        TaskJournal journal = new TaskJournal(directory);
+        try {
+            return journal.load();
+        } finally {
+            journal.close();
+        }
+    }
+}
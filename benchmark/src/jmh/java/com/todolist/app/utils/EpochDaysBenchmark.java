@@ -0,0 +1,65 @@
+package com.todolist.app.utils;
+
+import com.todolist.app.models.TaskItem;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Counting a month of tasks created today: comparing Calendar fields per task,
+// as the same-day checks used to, against the epoch day each task precomputes.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class EpochDaysBenchmark {
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final int TASKS = 10_000;
+
+    private Date today;
+    private TaskItem[] tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        today = new Date();
+        tasks = new TaskItem[TASKS];
+        for (int i = 0; i < TASKS; i++) {
+            tasks[i] = new TaskItem(i, "Quest", TaskItem.TaskType.TODO,
+                new Date(today.getTime() - (i % 30) * DAY));
+        }
+    }
+
+    @Benchmark
+    public int calendarSameDay() {
+        int matches = 0;
+        for (TaskItem task : tasks) {
+            if (isSameDay(task.getCreatedDate(), today)) matches++;
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int precomputedEpochDay() {
+        int matches = 0;
+        long todayDay = EpochDays.of(today);
+        for (TaskItem task : tasks) {
+            if (task.getCreatedEpochDay() == todayDay) matches++;
+        }
+        return matches;
+    }
+
+    private static boolean isSameDay(Date date1, Date date2) {
+        Calendar cal1 = Calendar.getInstance();
+        Calendar cal2 = Calendar.getInstance();
+        cal1.setTime(date1);
+        cal2.setTime(date2);
+        return cal1.get(Calendar.YEAR) == cal2.get(Calendar.YEAR) &&
+               cal1.get(Calendar.DAY_OF_YEAR) == cal2.get(Calendar.DAY_OF_YEAR);
+    }
+}